@@ -0,0 +1,68 @@
+package com.github.suzumiyaaoba.colors4j;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Measures {@link Ansi} on plain and colored text against a regular expression. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnsiBenchmark {
+
+  private static final Pattern CSI = Pattern.compile("\u001B\\[[0-?]*[ -/]*[@-~]");
+
+  @Param({"16", "1024"})
+  private int length;
+
+  @Param({"true", "false"})
+  private boolean colored;
+
+  private String input;
+
+  @Setup
+  public void setup() {
+    final Colors colors = Colors.createColors(colored);
+    final String plain = Payloads.plain(length);
+    final int half = length / 2;
+
+    input = colors.bold(colors.red(plain.substring(0, half)) + colors.cyan(plain.substring(half)));
+  }
+
+  @Benchmark
+  public String strip() {
+    return Ansi.strip(input);
+  }
+
+  @Benchmark
+  public String regex() {
+    return CSI.matcher(input).replaceAll("");
+  }
+
+  @Benchmark
+  public int visibleLength() {
+    return Ansi.visibleLength(input);
+  }
+
+  @Benchmark
+  public Writer stripWriter() throws IOException {
+    final Writer writer = new AnsiStripWriter(Writer.nullWriter());
+    writer.write(input);
+    return writer;
+  }
+}
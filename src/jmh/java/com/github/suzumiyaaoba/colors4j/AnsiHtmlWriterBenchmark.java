@@ -0,0 +1,72 @@
+package com.github.suzumiyaaoba.colors4j;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Measures {@link AnsiHtmlWriter} converting a colored log, written whole and line by line. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnsiHtmlWriterBenchmark {
+
+  @Param({"1024", "1048576"})
+  private int length;
+
+  private String input;
+  private String[] lines;
+
+  @Setup
+  public void setup() {
+    final Colors colors = Colors.createColors(true);
+    final String plain = Payloads.plain(length);
+    final StringBuilder text = new StringBuilder();
+    for (int i = 0; i < plain.length(); i += 64) {
+      final String line = plain.substring(i, Math.min(i + 64, plain.length()));
+      text.append(colors.gray("12:00:00 "))
+          .append(i % 3 == 0 ? colors.bold(colors.red("ERROR")) : colors.green("INFO"))
+          .append(" <")
+          .append(line)
+          .append(">\n");
+    }
+    input = text.toString();
+    lines = input.split("(?<=\n)");
+  }
+
+  @Benchmark
+  public Writer whole() throws IOException {
+    final AnsiHtmlWriter writer = new AnsiHtmlWriter(Writer.nullWriter());
+    writer.write(input);
+    writer.finish();
+    return writer;
+  }
+
+  @Benchmark
+  public Writer lines() throws IOException {
+    final AnsiHtmlWriter writer = new AnsiHtmlWriter(Writer.nullWriter());
+    for (String line : lines) {
+      writer.write(line);
+    }
+    writer.finish();
+    return writer;
+  }
+
+  @Benchmark
+  public String toHtml() {
+    return AnsiHtmlWriter.toHtml(input);
+  }
+}
@@ -0,0 +1,67 @@
+package com.github.suzumiyaaoba.colors4j;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link AnsiOptimizer} on composed output. The input and output lengths are printed once,
+ * in the setup, since the size saved matters as much as the time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnsiOptimizerBenchmark {
+
+  @Param({"16", "1024"})
+  private int length;
+
+  private String input;
+
+  @Setup
+  public void setup() {
+    final Colors colors = Colors.createColors(true);
+    final String plain = Payloads.plain(length);
+    final StringBuilder line = new StringBuilder();
+    for (int i = 0; i < plain.length(); i += 8) {
+      final String cell = plain.substring(i, Math.min(i + 8, plain.length()));
+      line.append(colors.bold(colors.red(cell.substring(0, 1)) + colors.red(cell.substring(1))));
+      line.append(colors.dim(""));
+    }
+    input = line.toString();
+    System.out.printf(
+        "%ninput %d chars, optimized %d chars%n", input.length(), optimize().length());
+  }
+
+  @Benchmark
+  public String optimize() {
+    return AnsiOptimizer.optimize(input);
+  }
+
+  @Benchmark
+  public Writer optimizingWriter() throws IOException {
+    final AnsiOptimizingWriter writer = new AnsiOptimizingWriter(Writer.nullWriter());
+    writer.write(input);
+    writer.finish();
+    return writer;
+  }
+
+  @Benchmark
+  public String strip() {
+    return Ansi.strip(input);
+  }
+}
@@ -0,0 +1,57 @@
+package com.github.suzumiyaaoba.colors4j;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares returning a new string with appending straight into a reused {@link StringBuilder}, as a
+ * logging pipeline would.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AppendBenchmark {
+
+  @Param({"16", "1024"})
+  private int length;
+
+  @Param({"true", "false"})
+  private boolean nested;
+
+  private String input;
+
+  private Colors colors;
+
+  private final StringBuilder buffer = new StringBuilder(4096);
+
+  @Setup
+  public void setup() {
+    input = nested ? Payloads.nested(length, "\u001B[39m", 8) : Payloads.plain(length);
+    colors = Colors.createColors(true);
+  }
+
+  @Benchmark
+  public StringBuilder concatThenAppend() {
+    buffer.setLength(0);
+    return buffer.append(colors.red(input));
+  }
+
+  @Benchmark
+  public StringBuilder appendDirect() {
+    buffer.setLength(0);
+    return colors.red(input, buffer);
+  }
+}
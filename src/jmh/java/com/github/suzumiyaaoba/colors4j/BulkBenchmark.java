@@ -0,0 +1,65 @@
+package com.github.suzumiyaaoba.colors4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Measures the bulk operations of {@link Colors} against formatting one string at a time. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BulkBenchmark {
+
+  @Param({"1000", "100000"})
+  private int size;
+
+  private final Colors colors = Colors.createColors(true);
+
+  private List<String> cells;
+
+  @Setup
+  public void setup() {
+    cells = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      cells.add(Payloads.plain(8 + i % 24));
+    }
+  }
+
+  @Benchmark
+  public List<String> loop() {
+    final List<String> result = new ArrayList<>(cells.size());
+    for (String cell : cells) {
+      result.add(colors.red(cell));
+    }
+    return result;
+  }
+
+  @Benchmark
+  public List<String> applyAll() {
+    return colors.applyAll(Style.RED, cells);
+  }
+
+  @Benchmark
+  public String[] applyAllInPlace() {
+    return colors.applyAll(Style.RED, cells.toArray(new String[0]));
+  }
+
+  @Benchmark
+  public List<String> parallelCollector() {
+    return cells.parallelStream().collect(colors.toStyledList(Style.RED));
+  }
+}
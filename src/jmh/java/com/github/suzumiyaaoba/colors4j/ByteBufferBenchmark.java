@@ -0,0 +1,66 @@
+package com.github.suzumiyaaoba.colors4j;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares encoding a styled {@code String} before putting it into a direct buffer with putting
+ * the styled bytes straight into the buffer.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ByteBufferBenchmark {
+
+  @Param({"16", "1024"})
+  private int length;
+
+  private String input;
+
+  private byte[] bytes;
+
+  private CompiledStyle style;
+
+  private ByteBuffer buffer;
+
+  @Setup
+  public void setup() {
+    input = Payloads.plain(length);
+    bytes = input.getBytes(StandardCharsets.UTF_8);
+    style = Colors.createColors(true).style(Style.RED);
+    buffer = ByteBuffer.allocateDirect(length * 2 + 64);
+  }
+
+  @Benchmark
+  public ByteBuffer encodeString() {
+    buffer.clear();
+    return buffer.put(style.apply(input).getBytes(StandardCharsets.UTF_8));
+  }
+
+  @Benchmark
+  public ByteBuffer putChars() {
+    buffer.clear();
+    return style.apply(input, buffer);
+  }
+
+  @Benchmark
+  public ByteBuffer putBytes() {
+    buffer.clear();
+    return style.apply(bytes, 0, bytes.length, buffer);
+  }
+}
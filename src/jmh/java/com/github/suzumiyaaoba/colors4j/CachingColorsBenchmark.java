@@ -0,0 +1,62 @@
+package com.github.suzumiyaaoba.colors4j;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares plain {@link Colors} with {@link CachingColors} for a small set of repeated literals,
+ * which the cache holds, and for a set too large for the cache, where every lookup misses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CachingColorsBenchmark {
+
+  private static final String[] LEVELS = {"TRACE", "DEBUG", "INFO", "WARN", "ERROR"};
+
+  private final Colors plain = Colors.createColors(true);
+  private final CachingColors cached = plain.cached(256, 32);
+
+  private String[] words;
+  private int next;
+
+  @Setup
+  public void setup() {
+    words = new String[4096];
+    for (int i = 0; i < words.length; i++) {
+      words[i] = Payloads.plain(8) + i;
+    }
+  }
+
+  @Benchmark
+  public String plainLiterals() {
+    return plain.bold(LEVELS[next++ % LEVELS.length]);
+  }
+
+  @Benchmark
+  public String cachedLiterals() {
+    return cached.bold(LEVELS[next++ % LEVELS.length]);
+  }
+
+  @Benchmark
+  public String plainWords() {
+    return plain.bold(words[next++ % words.length]);
+  }
+
+  @Benchmark
+  public String cachedWords() {
+    return cached.bold(words[next++ % words.length]);
+  }
+}
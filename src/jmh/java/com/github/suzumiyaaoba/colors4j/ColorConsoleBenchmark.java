@@ -0,0 +1,80 @@
+package com.github.suzumiyaaoba.colors4j;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the throughput of many threads printing colored lines through {@link ColorConsole},
+ * against {@link PrintStream#println(String)}, which locks the stream for each line. The stream
+ * discards its input but, like a console, costs a little for each write.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(16)
+public class ColorConsoleBenchmark {
+
+  private final CompiledStyle style = Colors.createColors(true).style(Style.BOLD, Style.RED);
+
+  private PrintStream printStream;
+  private ColorConsole console;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    printStream = new PrintStream(new SlowStream(), true, StandardCharsets.UTF_8);
+    console =
+        new ColorConsole(new SlowStream(), StandardCharsets.UTF_8, Duration.ofMillis(1), 4096);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    console.close();
+  }
+
+  @Benchmark
+  public void printStream() {
+    printStream.println(style.apply("request handled in 12 ms"));
+  }
+
+  @Benchmark
+  public void colorConsole() {
+    console.println(style, "request handled in 12 ms");
+  }
+
+  /** A stream that spends about a microsecond on each write, like a system call. */
+  private static final class SlowStream extends OutputStream {
+
+    @Override
+    public void write(int b) {
+      write(new byte[] {(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+      final long end = System.nanoTime() + 1_000;
+      while (System.nanoTime() < end) {
+        Thread.onSpinWait();
+      }
+    }
+  }
+}
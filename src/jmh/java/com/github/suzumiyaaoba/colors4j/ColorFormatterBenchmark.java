@@ -0,0 +1,79 @@
+package com.github.suzumiyaaoba.colors4j;
+
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Formatter;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.SimpleFormatter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link ColorFormatter} against {@link SimpleFormatter}, from one thread and from
+ * several, since {@link Formatter#formatMessage(LogRecord)} is synchronized.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ColorFormatterBenchmark {
+
+  @Param({"true", "false"})
+  private boolean parameters;
+
+  private final Formatter simple = new SimpleFormatter();
+  private final Formatter colored = new ColorFormatter(Colors.createColors(true));
+  private final Formatter plain = new ColorFormatter(Colors.createColors(false));
+
+  private LogRecord record;
+
+  @Setup
+  public void setup() {
+    record = new LogRecord(Level.INFO, parameters ? "Request {0} took {1} ms" : "Request done");
+    record.setLoggerName("com.example.service.RequestHandler");
+    record.setSourceClassName("com.example.service.RequestHandler");
+    record.setSourceMethodName("handle");
+    if (parameters) {
+      record.setParameters(new Object[] {"GET /index.html", 42});
+    }
+  }
+
+  @Benchmark
+  public String simpleFormatter() {
+    return simple.format(record);
+  }
+
+  @Benchmark
+  public String colorFormatter() {
+    return colored.format(record);
+  }
+
+  @Benchmark
+  public String colorFormatterDisabled() {
+    return plain.format(record);
+  }
+
+  @Benchmark
+  @Threads(4)
+  public String simpleFormatterContended() {
+    return simple.format(record);
+  }
+
+  @Benchmark
+  @Threads(4)
+  public String colorFormatterContended() {
+    return colored.format(record);
+  }
+}
@@ -0,0 +1,106 @@
+package com.github.suzumiyaaoba.colors4j;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the cost of passing a line through {@link ColorProcessor}, compared with applying the
+ * style directly, for strings and for byte buffers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ColorProcessorBenchmark {
+
+  @Param({"80", "1024"})
+  public int length;
+
+  private final CompiledStyle style = Colors.createColors(true).style(Style.BOLD, Style.RED);
+
+  private String line;
+  private ByteBuffer bytes;
+  private ColorProcessor<String> strings;
+  private ColorProcessor<ByteBuffer> byteBuffers;
+
+  @Setup
+  public void setup(Blackhole blackhole) {
+    line = Payloads.plain(length);
+    bytes = ByteBuffer.wrap(line.getBytes(StandardCharsets.UTF_8));
+
+    strings = ColorProcessor.strings(style);
+    strings.onSubscribe(new Unbounded());
+    strings.subscribe(new Sink<>(blackhole));
+
+    byteBuffers = ColorProcessor.byteBuffers(style);
+    byteBuffers.onSubscribe(new Unbounded());
+    byteBuffers.subscribe(new Sink<>(blackhole));
+  }
+
+  @Benchmark
+  public String direct() {
+    return style.apply(line);
+  }
+
+  @Benchmark
+  public void processorStrings() {
+    strings.onNext(line);
+  }
+
+  @Benchmark
+  public void processorByteBuffers() {
+    byteBuffers.onNext(bytes);
+  }
+
+  /** An upstream subscription that ignores demand, as the benchmark pushes the items. */
+  private static final class Unbounded implements Flow.Subscription {
+
+    @Override
+    public void request(long n) {}
+
+    @Override
+    public void cancel() {}
+  }
+
+  /** A subscriber consuming the colored items. */
+  private static final class Sink<T> implements Flow.Subscriber<T> {
+
+    private final Blackhole blackhole;
+
+    Sink(Blackhole blackhole) {
+      this.blackhole = blackhole;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+      subscription.request(Long.MAX_VALUE);
+    }
+
+    @Override
+    public void onNext(T item) {
+      blackhole.consume(item);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {}
+
+    @Override
+    public void onComplete() {}
+  }
+}
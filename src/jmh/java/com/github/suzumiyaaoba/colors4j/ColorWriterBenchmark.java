@@ -0,0 +1,79 @@
+package com.github.suzumiyaaoba.colors4j;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Streams a large report through {@link ColorWriter} and {@link ColorOutputStream} in 8KB chunks
+ * and compares it with styling the whole text at once.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ColorWriterBenchmark {
+
+  private static final int CHUNK = 8192;
+
+  @Param({"65536", "1048576"})
+  private int length;
+
+  private String input;
+
+  private char[] chars;
+
+  private byte[] bytes;
+
+  private CompiledStyle style;
+
+  @Setup
+  public void setup() {
+    input = Payloads.nested(length, "\u001B[39m", 512);
+    chars = input.toCharArray();
+    bytes = input.getBytes(StandardCharsets.UTF_8);
+    style = Colors.createColors(true).style(Style.BOLD, Style.RED);
+  }
+
+  @Benchmark
+  public String wholeString() {
+    return style.apply(input);
+  }
+
+  @Benchmark
+  public Writer writer() throws IOException {
+    final Writer out = Writer.nullWriter();
+    try (ColorWriter writer = new ColorWriter(out, style)) {
+      for (int i = 0; i < chars.length; i += CHUNK) {
+        writer.write(chars, i, Math.min(CHUNK, chars.length - i));
+      }
+    }
+    return out;
+  }
+
+  @Benchmark
+  public OutputStream outputStream() throws IOException {
+    final OutputStream out = OutputStream.nullOutputStream();
+    try (ColorOutputStream stream = new ColorOutputStream(out, style)) {
+      for (int i = 0; i < bytes.length; i += CHUNK) {
+        stream.write(bytes, i, Math.min(CHUNK, bytes.length - i));
+      }
+    }
+    return out;
+  }
+}
@@ -0,0 +1,110 @@
+package com.github.suzumiyaaoba.colors4j;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for every style method of {@link Colors}, in both enabled and disabled mode.
+ *
+ * <p>Run with {@code ./gradlew jmh}; the {@code gc} profiler is enabled in the build so allocation
+ * rates are reported next to the timings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ColorsBenchmark {
+
+  @Param({"true", "false"})
+  private boolean isColorSupported;
+
+  @Param({
+    "reset",
+    "bold",
+    "dim",
+    "italic",
+    "underline",
+    "inverse",
+    "hidden",
+    "strikethrough",
+    "black",
+    "red",
+    "green",
+    "yellow",
+    "blue",
+    "magenta",
+    "cyan",
+    "white",
+    "gray",
+    "bgBlack",
+    "bgRed",
+    "bgGreen",
+    "bgYellow",
+    "bgBlue",
+    "bgMagenta",
+    "bgCyan",
+    "bgWhite"
+  })
+  private String style;
+
+  private String input;
+
+  private UnaryOperator<String> method;
+
+  @Setup
+  public void setup() {
+    final Colors colors = Colors.createColors(isColorSupported);
+
+    input = "INFO request handled";
+    method = method(colors, style);
+  }
+
+  @Benchmark
+  public String style() {
+    return method.apply(input);
+  }
+
+  static UnaryOperator<String> method(Colors colors, String style) {
+    return switch (style) {
+      case "reset" -> colors::reset;
+      case "bold" -> colors::bold;
+      case "dim" -> colors::dim;
+      case "italic" -> colors::italic;
+      case "underline" -> colors::underline;
+      case "inverse" -> colors::inverse;
+      case "hidden" -> colors::hidden;
+      case "strikethrough" -> colors::strikethrough;
+      case "black" -> colors::black;
+      case "red" -> colors::red;
+      case "green" -> colors::green;
+      case "yellow" -> colors::yellow;
+      case "blue" -> colors::blue;
+      case "magenta" -> colors::magenta;
+      case "cyan" -> colors::cyan;
+      case "white" -> colors::white;
+      case "gray" -> colors::gray;
+      case "bgBlack" -> colors::bgBlack;
+      case "bgRed" -> colors::bgRed;
+      case "bgGreen" -> colors::bgGreen;
+      case "bgYellow" -> colors::bgYellow;
+      case "bgBlue" -> colors::bgBlue;
+      case "bgMagenta" -> colors::bgMagenta;
+      case "bgCyan" -> colors::bgCyan;
+      case "bgWhite" -> colors::bgWhite;
+      default -> throw new IllegalArgumentException("Unknown style: " + style);
+    };
+  }
+}
@@ -0,0 +1,53 @@
+package com.github.suzumiyaaoba.colors4j;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Compares a precompiled composite style with nesting the style methods. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompiledStyleBenchmark {
+
+  @Param({"16", "1024", "8192"})
+  private int length;
+
+  @Param({"true", "false"})
+  private boolean nested;
+
+  private String input;
+
+  private Colors colors;
+
+  private CompiledStyle style;
+
+  @Setup
+  public void setup() {
+    input = nested ? Payloads.nested(length, "\u001B[39m", 8) : Payloads.plain(length);
+    colors = Colors.createColors(true);
+    style = colors.style(Style.BOLD, Style.RED, Style.BG_BLUE);
+  }
+
+  @Benchmark
+  public String nestedCalls() {
+    return colors.bold(colors.red(colors.bgBlue(input)));
+  }
+
+  @Benchmark
+  public String compiled() {
+    return style.apply(input);
+  }
+}
@@ -0,0 +1,78 @@
+package com.github.suzumiyaaoba.colors4j;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares dispatching through one {@link UnaryOperator} lambda per style, as {@link Colors} used
+ * to do, with the {@link Style} table behind {@link Colors#apply(Style, String)}. Each invocation
+ * formats a log line with several styles so the call sites see more than one style.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DispatchBenchmark {
+
+  private static final Style[] STYLES = {Style.GRAY, Style.BOLD, Style.RED, Style.CYAN};
+
+  @Param({"true", "false"})
+  private boolean isColorSupported;
+
+  private String input;
+
+  private Colors colors;
+
+  private UnaryOperator<String>[] lambdas;
+
+  @Setup
+  @SuppressWarnings("unchecked")
+  public void setup() {
+    input = "INFO request handled";
+    colors = Colors.createColors(isColorSupported);
+    lambdas = new UnaryOperator[STYLES.length];
+    for (int i = 0; i < STYLES.length; i++) {
+      final Style style = STYLES[i];
+      lambdas[i] =
+          isColorSupported
+              ? s -> Utils.apply(s, style.open(), style.close(), style.replace())
+              : UnaryOperator.identity();
+    }
+  }
+
+  @Benchmark
+  public void lambdaFields(Blackhole blackhole) {
+    for (UnaryOperator<String> lambda : lambdas) {
+      blackhole.consume(lambda.apply(input));
+    }
+  }
+
+  @Benchmark
+  public void styleTable(Blackhole blackhole) {
+    for (Style style : STYLES) {
+      blackhole.consume(colors.apply(style, input));
+    }
+  }
+
+  @Benchmark
+  public void styleMethods(Blackhole blackhole) {
+    blackhole.consume(colors.gray(input));
+    blackhole.consume(colors.bold(input));
+    blackhole.consume(colors.red(input));
+    blackhole.consume(colors.cyan(input));
+  }
+}
@@ -0,0 +1,100 @@
+package com.github.suzumiyaaoba.colors4j;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures close-sequence detection on 1KB to 1MB payloads: one {@code indexOf} per close sequence
+ * versus the ESC-anchored scan, and the SWAR byte scanner versus a scalar loop.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EscapeScannerBenchmark {
+
+  private static final String[] CLOSES = {"\u001B[22m", "\u001B[39m", "\u001B[49m"};
+
+  @Param({"1024", "65536", "1048576"})
+  private int length;
+
+  private String input;
+
+  private byte[] bytes;
+
+  private CompiledStyle style;
+
+  @Setup
+  public void setup() {
+    input = Payloads.nested(length, "\u001B[39m", 4096);
+    bytes = input.getBytes(StandardCharsets.UTF_8);
+    style = Colors.createColors(true).style(Style.BOLD, Style.RED, Style.BG_BLUE);
+  }
+
+  @Benchmark
+  public int indexOfPerClose() {
+    int count = 0;
+    for (String close : CLOSES) {
+      for (int i = input.indexOf(close); i != -1; i = input.indexOf(close, i + close.length())) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  @Benchmark
+  public int escapeAnchored() {
+    int count = 0;
+    for (int i = EscapeScanner.indexOf(input, 0);
+        i != -1;
+        i = EscapeScanner.indexOf(input, i + 1)) {
+      for (String close : CLOSES) {
+        if (input.startsWith(close, i)) {
+          count++;
+          break;
+        }
+      }
+    }
+    return count;
+  }
+
+  @Benchmark
+  public String compiledStyle() {
+    return style.apply(input);
+  }
+
+  @Benchmark
+  public int bytesSwar() {
+    int count = 0;
+    for (int i = EscapeScanner.indexOf(bytes, 0, bytes.length);
+        i != -1;
+        i = EscapeScanner.indexOf(bytes, i + 1, bytes.length)) {
+      count++;
+    }
+    return count;
+  }
+
+  @Benchmark
+  public int bytesScalar() {
+    int count = 0;
+    for (byte b : bytes) {
+      if (b == EscapeScanner.ESC) {
+        count++;
+      }
+    }
+    return count;
+  }
+}
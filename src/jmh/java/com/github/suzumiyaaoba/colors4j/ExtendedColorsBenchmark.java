@@ -0,0 +1,65 @@
+package com.github.suzumiyaaoba.colors4j;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures 256-color and truecolor styles against building the escape sequence on every call, as
+ * is commonly done with {@link String#format}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExtendedColorsBenchmark {
+
+  private final Colors colors = Colors.createColors(true);
+
+  private String input;
+  private int index;
+
+  @Setup
+  public void setup() {
+    input = Payloads.plain(16);
+  }
+
+  @Benchmark
+  public String fg256() {
+    index = index + 1 & 0xFF;
+    return colors.fg256(index).apply(input);
+  }
+
+  @Benchmark
+  public String fg256Format() {
+    index = index + 1 & 0xFF;
+    return String.format("\u001B[38;5;%dm%s\u001B[39m", index, input);
+  }
+
+  @Benchmark
+  public String rgb() {
+    index = index + 1 & 0xFF;
+    return colors.rgb(index, 128, 255 - index).apply(input);
+  }
+
+  @Benchmark
+  public String rgbFormat() {
+    index = index + 1 & 0xFF;
+    return String.format("\u001B[38;2;%d;%d;%dm%s\u001B[39m", index, 128, 255 - index, input);
+  }
+
+  @Benchmark
+  public String hex() {
+    return colors.hex("#ff8800").apply(input);
+  }
+}
@@ -0,0 +1,59 @@
+package com.github.suzumiyaaoba.colors4j;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures rendering a per-character gradient with {@link SgrRenderer} against wrapping each
+ * character in its own style. The rendered lengths are printed once, in the setup, since the
+ * output size matters as much as the time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GradientBenchmark {
+
+  @Param({"TRUECOLOR", "ANSI_256", "ANSI_16"})
+  private ColorDepth colorDepth;
+
+  private Colors colors;
+  private String text;
+
+  @Setup
+  public void setup() {
+    colors = Colors.createColors(colorDepth);
+    text = Payloads.plain(80);
+    System.out.printf(
+        "%n%s: gradient %d chars, wrapped %d chars%n",
+        colorDepth, gradient().length(), wrapped().length());
+  }
+
+  @Benchmark
+  public String gradient() {
+    return colors.gradient(text, 0x00ff00, 0xff0000);
+  }
+
+  @Benchmark
+  public String wrapped() {
+    final StringBuilder out = new StringBuilder();
+    final int last = text.length() - 1;
+    for (int i = 0; i < text.length(); i++) {
+      final int red = 0xff * i / last;
+      colors.rgb(red, 0xff - red, 0).apply(text.substring(i, i + 1), out);
+    }
+    return out.toString();
+  }
+}
@@ -0,0 +1,97 @@
+package com.github.suzumiyaaoba.colors4j;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares {@link Highlighter} with running one regular expression per rule over a log line and
+ * coloring the matches with {@link Colors}, as done by hand.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HighlighterBenchmark {
+
+  private static final List<String> KEYWORDS =
+      List.of("ERROR", "WARN", "FATAL", "timeout", "refused", "retry", "failed", "denied");
+
+  private static final String UUID = "[0-9a-f]{8}(?:-[0-9a-f]{4}){3}-[0-9a-f]{12}";
+
+  private static final String NUMBER = "\\b\\d+\\b";
+
+  private final Colors colors = Colors.createColors(true);
+
+  private String line;
+  private Highlighter highlighter;
+  private StringBuilder out;
+  private Pattern[] patterns;
+  private Style[] styles;
+
+  @Setup
+  public void setup() {
+    line =
+        "2024-05-01 12:00:00 ERROR request 123e4567-e89b-12d3-a456-426614174000 failed after 3"
+            + " retries: connection refused (timeout 5000 ms) "
+            + Payloads.plain(64);
+
+    highlighter =
+        colors
+            .highlighter()
+            .keywords(KEYWORDS, Style.BOLD, Style.RED)
+            .pattern(UUID, Style.CYAN)
+            .pattern(NUMBER, Style.YELLOW)
+            .build();
+    out = new StringBuilder(256);
+
+    patterns =
+        new Pattern[] {
+          Pattern.compile("\\b(?:" + String.join("|", KEYWORDS) + ")\\b"),
+          Pattern.compile(UUID),
+          Pattern.compile(NUMBER)
+        };
+    styles = new Style[] {Style.RED, Style.CYAN, Style.YELLOW};
+  }
+
+  @Benchmark
+  public String highlighter() {
+    return highlighter.apply(line);
+  }
+
+  @Benchmark
+  public StringBuilder highlighterReusedBuffer() {
+    out.setLength(0);
+    return highlighter.apply(line, out);
+  }
+
+  @Benchmark
+  public String regexPerRule() {
+    String result = line;
+    for (int i = 0; i < patterns.length; i++) {
+      final Matcher matcher = patterns[i].matcher(result);
+      final StringBuilder sb = new StringBuilder(result.length() + 64);
+      int position = 0;
+      while (matcher.find()) {
+        sb.append(result, position, matcher.start());
+        sb.append(colors.apply(styles[i], matcher.group()));
+        position = matcher.end();
+      }
+      result = sb.append(result, position, result.length()).toString();
+    }
+    return result;
+  }
+}
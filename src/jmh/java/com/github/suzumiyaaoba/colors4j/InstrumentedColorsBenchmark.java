@@ -0,0 +1,65 @@
+package com.github.suzumiyaaoba.colors4j;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the overhead of {@link InstrumentedColors} over the plain instance, on one thread and on
+ * several threads counting into the same instance.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InstrumentedColorsBenchmark {
+
+  private final Colors plain = Colors.createColors(true);
+  private final Colors instrumented = plain.instrumented();
+
+  private String input;
+  private String nested;
+
+  @Setup
+  public void setup() {
+    input = "INFO request handled";
+    nested = "INFO " + plain.red("request") + " handled";
+  }
+
+  @Benchmark
+  public String plain() {
+    return plain.bold(input);
+  }
+
+  @Benchmark
+  public String instrumented() {
+    return instrumented.bold(input);
+  }
+
+  @Benchmark
+  public String plainNested() {
+    return plain.red(nested);
+  }
+
+  @Benchmark
+  public String instrumentedNested() {
+    return instrumented.red(nested);
+  }
+
+  @Benchmark
+  @Threads(4)
+  public String instrumentedContended() {
+    return instrumented.bold(input);
+  }
+}
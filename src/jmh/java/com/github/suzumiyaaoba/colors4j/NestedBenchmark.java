@@ -0,0 +1,73 @@
+package com.github.suzumiyaaoba.colors4j;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for {@link Utils#format} and {@link Utils#replaceClose} with short and multi-KB
+ * payloads, with and without nested close sequences, and for styles stacked on top of each other.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NestedBenchmark {
+
+  private static final String OPEN = "\u001B[31m";
+  private static final String CLOSE = "\u001B[39m";
+
+  @Param({"16", "1024", "8192"})
+  private int length;
+
+  @Param({"true", "false"})
+  private boolean nested;
+
+  private String input;
+
+  private int index;
+
+  private UnaryOperator<String> red;
+
+  private Colors colors;
+
+  @Setup
+  public void setup() {
+    input = nested ? Payloads.nested(length, CLOSE, 8) : Payloads.plain(length);
+    index = input.indexOf(CLOSE);
+    red = Utils.format(OPEN, CLOSE, OPEN);
+    colors = Colors.createColors(true);
+  }
+
+  @Benchmark
+  public String format() {
+    return red.apply(input);
+  }
+
+  @Benchmark
+  public String replaceClose() {
+    return index == -1 ? input : Utils.replaceClose(input, CLOSE, OPEN, index);
+  }
+
+  @Benchmark
+  public String stacked() {
+    return colors.bold(colors.red(colors.bgBlue(input)));
+  }
+
+  @Benchmark
+  public String stackedSameClose() {
+    return colors.red(colors.green(colors.blue(input)));
+  }
+}
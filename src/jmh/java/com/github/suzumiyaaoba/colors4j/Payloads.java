@@ -0,0 +1,44 @@
+package com.github.suzumiyaaoba.colors4j;
+
+import org.jspecify.annotations.NonNull;
+
+/** Input generators shared by the benchmarks. */
+final class Payloads {
+
+  /** Private constructor to prevent instantiation. */
+  private Payloads() {}
+
+  /**
+   * Creates a plain ASCII payload of the given length.
+   *
+   * @param length the number of characters
+   * @return a payload without escape sequences
+   */
+  static @NonNull String plain(int length) {
+    final StringBuilder builder = new StringBuilder(length);
+    for (int i = 0; i < length; i++) {
+      builder.append((char) ('a' + i % 26));
+    }
+    return builder.toString();
+  }
+
+  /**
+   * Creates a payload of roughly the given length in which {@code close} occurs every {@code
+   * interval} characters, which forces the nested-rewrite path.
+   *
+   * @param length the number of plain characters
+   * @param close the close sequence to embed
+   * @param interval the number of plain characters between two close sequences
+   * @return a payload containing nested close sequences
+   */
+  static @NonNull String nested(int length, @NonNull String close, int interval) {
+    final StringBuilder builder = new StringBuilder(length + length / interval * close.length());
+    for (int i = 0; i < length; i++) {
+      if (i > 0 && i % interval == 0) {
+        builder.append(close);
+      }
+      builder.append((char) ('a' + i % 26));
+    }
+    return builder.toString();
+  }
+}
@@ -0,0 +1,79 @@
+package com.github.suzumiyaaoba.colors4j;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures degrading truecolor styles through the lookup tables against searching the palette for
+ * the nearest color on every call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QuantizerBenchmark {
+
+  private final Colors ansi256 = Colors.createColors(ColorDepth.ANSI_256);
+  private final Colors ansi16 = Colors.createColors(ColorDepth.ANSI_16);
+
+  private int rgb;
+
+  @Benchmark
+  public int to256() {
+    rgb = rgb + 0x010307 & 0xFFFFFF;
+    return Quantizer.to256(rgb);
+  }
+
+  @Benchmark
+  public int to256Search() {
+    rgb = rgb + 0x010307 & 0xFFFFFF;
+    return nearest(rgb, 16, 256);
+  }
+
+  @Benchmark
+  public int to16() {
+    rgb = rgb + 0x010307 & 0xFFFFFF;
+    return Quantizer.to16(rgb);
+  }
+
+  @Benchmark
+  public int to16Search() {
+    rgb = rgb + 0x010307 & 0xFFFFFF;
+    return nearest(rgb, 0, 16);
+  }
+
+  @Benchmark
+  public CompiledStyle rgb256() {
+    rgb = rgb + 0x010307 & 0xFFFFFF;
+    return ansi256.rgb(rgb >>> 16, rgb >>> 8 & 0xFF, rgb & 0xFF);
+  }
+
+  @Benchmark
+  public CompiledStyle rgb16() {
+    rgb = rgb + 0x010307 & 0xFFFFFF;
+    return ansi16.rgb(rgb >>> 16, rgb >>> 8 & 0xFF, rgb & 0xFF);
+  }
+
+  private static int nearest(int rgb, int from, int to) {
+    int best = from;
+    int bestDistance = Integer.MAX_VALUE;
+    for (int i = from; i < to; i++) {
+      final int d = Quantizer.distance(rgb, Quantizer.rgb256(i));
+      if (d < bestDistance) {
+        best = i;
+        bestDistance = d;
+      }
+    }
+    return best;
+  }
+}
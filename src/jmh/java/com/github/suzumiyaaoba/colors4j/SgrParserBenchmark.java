@@ -0,0 +1,83 @@
+package com.github.suzumiyaaoba.colors4j;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures {@link SgrParser} on colored text, parsed whole and in chunks, against {@link
+ * Ansi#strip(CharSequence)}, which scans the same input without tracking any state.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SgrParserBenchmark {
+
+  private static final int CHUNK_SIZE = 8192;
+
+  @Param({"1024", "1048576"})
+  private int length;
+
+  private String input;
+  private char[] chars;
+
+  @Setup
+  public void setup() {
+    final Colors colors = Colors.createColors(true);
+    final String plain = Payloads.plain(length);
+    final StringBuilder text = new StringBuilder();
+    for (int i = 0; i < plain.length(); i += 16) {
+      final String cell = plain.substring(i, Math.min(i + 16, plain.length()));
+      switch (i / 16 % 3) {
+        case 0:
+          text.append(colors.bold(colors.red(cell)));
+          break;
+        case 1:
+          text.append(colors.fg256(208).apply(cell));
+          break;
+        default:
+          text.append(cell);
+      }
+    }
+    input = text.toString();
+    chars = input.toCharArray();
+  }
+
+  @Benchmark
+  public SgrState parse(Blackhole blackhole) {
+    final SgrParser parser =
+        new SgrParser((text, start, end, state) -> blackhole.consume(end - start));
+    parser.parse(input);
+    parser.finish();
+    return parser.state();
+  }
+
+  @Benchmark
+  public SgrState parseChunks(Blackhole blackhole) {
+    final SgrParser parser =
+        new SgrParser((text, start, end, state) -> blackhole.consume(end - start));
+    for (int offset = 0; offset < chars.length; offset += CHUNK_SIZE) {
+      parser.parse(chars, offset, Math.min(CHUNK_SIZE, chars.length - offset));
+    }
+    parser.finish();
+    return parser.state();
+  }
+
+  @Benchmark
+  public String strip() {
+    return Ansi.strip(input);
+  }
+}
@@ -0,0 +1,61 @@
+package com.github.suzumiyaaoba.colors4j;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares nested {@link Colors} calls with {@link StyledText}, both for messages that are
+ * rendered and for messages that are built and then discarded, as below the log level.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StyledTextBenchmark {
+
+  private final Colors colors = Colors.createColors(true);
+
+  private String key;
+  private String value;
+
+  @Setup
+  public void setup() {
+    key = "user.session.timeout";
+    value = Payloads.plain(32);
+  }
+
+  @Benchmark
+  public String eager() {
+    return colors.gray("set " + colors.bold(colors.cyan(key)) + " = " + colors.green(value));
+  }
+
+  @Benchmark
+  public String lazy() {
+    return lazyMessage().toString();
+  }
+
+  @Benchmark
+  public CharSequence lazyDiscarded() {
+    return lazyMessage();
+  }
+
+  private StyledText lazyMessage() {
+    return colors.styled(
+        Style.GRAY,
+        "set ",
+        colors.styled(Style.BOLD, colors.styled(Style.CYAN, key)),
+        " = ",
+        colors.styled(Style.GREEN, value));
+  }
+}
@@ -0,0 +1,64 @@
+package com.github.suzumiyaaoba.colors4j;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Measures rendering a compiled {@link Template} against the equivalent nested style calls. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TemplateBenchmark {
+
+  private static final String MARKUP = "<bold><red>ERR</red> [<dim>{}</dim>]</bold> {}";
+
+  @Param({"16", "256"})
+  private int length;
+
+  private final Colors colors = Colors.createColors(true);
+  private final StringBuilder builder = new StringBuilder();
+
+  private Template template;
+  private String component;
+  private String message;
+
+  @Setup
+  public void setup() {
+    template = colors.template(MARKUP);
+    component = Payloads.plain(8);
+    message = Payloads.plain(length);
+  }
+
+  @Benchmark
+  public String template() {
+    return template.render(component, message);
+  }
+
+  @Benchmark
+  public StringBuilder templateIntoBuilder() {
+    builder.setLength(0);
+    return template.render(builder, component, message);
+  }
+
+  @Benchmark
+  public String cachedTemplate() {
+    return colors.template(MARKUP).render(component, message);
+  }
+
+  @Benchmark
+  public String nested() {
+    return colors.bold(colors.red("ERR") + " [" + colors.dim(component) + "]") + " " + message;
+  }
+}
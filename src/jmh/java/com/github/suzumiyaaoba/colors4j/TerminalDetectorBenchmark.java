@@ -0,0 +1,61 @@
+package com.github.suzumiyaaoba.colors4j;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures what detecting the color depth of the terminal costs at startup: detection from the
+ * environment alone, detection that falls back to the terminfo database, and the cached {@link
+ * Colors#detect()} every later caller gets.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TerminalDetectorBenchmark {
+
+  private final Map<String, String> environment =
+      Map.of("TERM", "xterm-256color", "COLORTERM", "truecolor");
+  private final Map<String, String> terminfoEnvironment = Map.of("TERM", "xterm");
+
+  private List<Path> terminfoDirectories;
+
+  @Setup
+  public void setup() {
+    terminfoDirectories = TerminalDetector.terminfoDirectories(System.getenv());
+  }
+
+  @Benchmark
+  public ColorDepth detect() {
+    return TerminalDetector.detect();
+  }
+
+  @Benchmark
+  public ColorDepth detectFromEnvironment() {
+    return TerminalDetector.detect(environment, true, terminfoDirectories);
+  }
+
+  @Benchmark
+  public ColorDepth detectFromTerminfo() {
+    return TerminalDetector.detect(terminfoEnvironment, true, terminfoDirectories);
+  }
+
+  @Benchmark
+  public Colors cached() {
+    return Colors.detect();
+  }
+}
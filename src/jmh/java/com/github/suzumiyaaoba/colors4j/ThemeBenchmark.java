@@ -0,0 +1,63 @@
+package com.github.suzumiyaaoba.colors4j;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares applying a {@link Theme} style by ID and by name with applying a compiled style held in
+ * a field, to show what a theme lookup costs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ThemeBenchmark {
+
+  private final Colors colors = Colors.createColors(true);
+
+  private String input;
+  private CompiledStyle style;
+  private Theme theme;
+  private int id;
+
+  @Setup
+  public void setup() {
+    input = Payloads.plain(32);
+    style = colors.style(Style.BOLD, Style.RED);
+    theme =
+        colors.theme(
+            Map.of(
+                "error", "bold red",
+                "warn", "yellow",
+                "path", "underline cyan",
+                "duration", "dim"));
+    id = theme.id("error");
+  }
+
+  @Benchmark
+  public String compiledStyle() {
+    return style.apply(input);
+  }
+
+  @Benchmark
+  public String themeById() {
+    return theme.apply(id, input);
+  }
+
+  @Benchmark
+  public String themeByName() {
+    return theme.style("error").apply(input);
+  }
+}
@@ -0,0 +1,174 @@
+package com.github.suzumiyaaoba.colors4j;
+
+import org.jspecify.annotations.NonNull;
+
+/**
+ * Ansi class.
+ *
+ * <p>Utilities for text that may contain ANSI escape sequences, such as the output of {@link
+ * Colors}. Recognized sequences are CSI sequences ({@code ESC [ ... final}), which include every
+ * SGR sequence, control strings such as OSC ({@code ESC ] ... BEL} or {@code ESC ] ... ESC \}), and
+ * two-character escape sequences.
+ *
+ * <p>All methods make a single pass over the input, and return without allocating when the input
+ * contains no ESC character.
+ */
+public final class Ansi {
+
+  /** Outside of any escape sequence. */
+  static final int TEXT = 0;
+
+  /** After an ESC character. */
+  static final int ESCAPE = 1;
+
+  /** Inside a CSI sequence. */
+  static final int CSI = 2;
+
+  /** Inside a control string such as OSC. */
+  static final int STRING = 3;
+
+  /** After an ESC character inside a control string. */
+  static final int STRING_ESCAPE = 4;
+
+  /** Inside an escape sequence with intermediate characters. */
+  static final int INTERMEDIATE = 5;
+
+  /** The character just read terminated an escape sequence. */
+  static final int END = -1;
+
+  /** Private constructor to prevent instantiation. */
+  private Ansi() {}
+
+  /**
+   * Removes all ANSI escape sequences from the input.
+   *
+   * @param input the input to strip
+   * @return the input without escape sequences; the input itself if it is a string without ESC
+   */
+  public static @NonNull String strip(@NonNull CharSequence input) {
+    final int first = EscapeScanner.indexOf(input, 0);
+    if (first == -1) {
+      return input.toString();
+    }
+
+    final int length = input.length();
+    final StringBuilder out = new StringBuilder(length).append(input, 0, first);
+    int state = ESCAPE;
+    int i = first + 1;
+
+    while (i < length) {
+      if (state == TEXT) {
+        final int esc = EscapeScanner.indexOf(input, i);
+        final int stop = esc == -1 ? length : esc;
+
+        out.append(input, i, stop);
+        i = stop;
+        if (esc != -1) {
+          state = ESCAPE;
+          i++;
+        }
+      } else {
+        final char c = input.charAt(i++);
+
+        state = next(state, c);
+        if (state == TEXT) {
+          out.append(c);
+        } else if (state == END) {
+          state = TEXT;
+        }
+      }
+    }
+    return out.toString();
+  }
+
+  /**
+   * Returns the number of visible characters of the input, that is the number of Unicode code
+   * points outside of ANSI escape sequences.
+   *
+   * @param input the input to measure
+   * @return the number of visible code points
+   */
+  public static int visibleLength(@NonNull CharSequence input) {
+    final int length = input.length();
+    int count = 0;
+    int state = TEXT;
+    int i = 0;
+
+    while (i < length) {
+      if (state == TEXT) {
+        final int esc = EscapeScanner.indexOf(input, i);
+        final int stop = esc == -1 ? length : esc;
+
+        count += Character.codePointCount(input, i, stop);
+        i = stop;
+        if (esc != -1) {
+          state = ESCAPE;
+          i++;
+        }
+      } else {
+        state = next(state, input.charAt(i++));
+        if (state == TEXT) {
+          count++;
+        } else if (state == END) {
+          state = TEXT;
+        }
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Advances the escape sequence state machine by one character.
+   *
+   * <p>The character is visible text if the returned state is {@link #TEXT}. It belongs to an
+   * escape sequence otherwise; {@link #END} means it was the last character of the sequence. A
+   * character that cannot appear in the current sequence aborts it and is treated as text.
+   *
+   * @param state the current state
+   * @param c the character read
+   * @return the next state
+   */
+  static int next(int state, char c) {
+    switch (state) {
+      case TEXT:
+        return c == EscapeScanner.ESC ? ESCAPE : TEXT;
+      case ESCAPE:
+        if (c == '[') {
+          return CSI;
+        } else if (c == ']' || c == 'P' || c == 'X' || c == '^' || c == '_') {
+          return STRING;
+        } else if (c >= 0x20 && c <= 0x2F) {
+          return INTERMEDIATE;
+        } else if (c >= 0x30 && c <= 0x7E) {
+          return END;
+        }
+        return c == EscapeScanner.ESC ? ESCAPE : TEXT;
+      case CSI:
+        if (c >= 0x20 && c <= 0x3F) {
+          return CSI;
+        } else if (c >= 0x40 && c <= 0x7E) {
+          return END;
+        }
+        return c == EscapeScanner.ESC ? ESCAPE : TEXT;
+      case INTERMEDIATE:
+        if (c >= 0x20 && c <= 0x2F) {
+          return INTERMEDIATE;
+        } else if (c >= 0x30 && c <= 0x7E) {
+          return END;
+        }
+        return c == EscapeScanner.ESC ? ESCAPE : TEXT;
+      case STRING:
+        if (c == '\u0007') {
+          return END;
+        }
+        return c == EscapeScanner.ESC ? STRING_ESCAPE : STRING;
+      case STRING_ESCAPE:
+        if (c == '\\') {
+          return END;
+        }
+        return c == EscapeScanner.ESC ? STRING_ESCAPE : STRING;
+      default:
+        throw new IllegalStateException("Unknown state: " + state);
+    }
+  }
+}
@@ -0,0 +1,289 @@
+package com.github.suzumiyaaoba.colors4j;
+
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * AnsiHtmlWriter class.
+ *
+ * <p>A writer that converts text with ANSI escape sequences to HTML as it is written. Visible text
+ * is HTML-escaped, and each run of styled text is wrapped in a {@code <span>} whose classes name
+ * its attributes and colors, such as {@code <span class="ansi-bold ansi-fg-1">}; the rules for the
+ * classes are given by {@link #stylesheet()}. Other escape sequences are dropped.
+ *
+ * <p>Every attribute and color of {@link Style} has a class, as do the 256 indexed colors.
+ * Truecolor colors are mapped to the nearest indexed color, so that a page needs a fixed set of
+ * rules. Inverse text swaps the color classes instead of having its own class.
+ *
+ * <p>The text is converted in a single pass and in slices of a few kilobytes, so the memory used
+ * does not depend on the length of the text or of the writes. A span left open by a write is
+ * closed by {@link #finish()} or {@link #close()}.
+ *
+ * <pre>{@code
+ * try (Writer html = new AnsiHtmlWriter(Files.newBufferedWriter(path))) {
+ *   log.transferTo(html);
+ * }
+ * }</pre>
+ *
+ * <p>This class is not thread-safe.
+ */
+public class AnsiHtmlWriter extends FilterWriter {
+
+  /** The number of characters converted before the HTML is written to the underlying writer. */
+  private static final int SLICE_LENGTH = 8192;
+
+  private static final String PREFIX = "ansi-";
+
+  private static final String[] ATTRIBUTE_RULES = {
+    "bold { font-weight: bold; }",
+    "dim { opacity: 0.5; }",
+    "italic { font-style: italic; }",
+    "underline { text-decoration: underline; }",
+    "strikethrough { text-decoration: line-through; }",
+    "underline.ansi-strikethrough { text-decoration: underline line-through; }",
+    "hidden { visibility: hidden; }",
+    "fg-inverse { color: Canvas; }",
+    "bg-inverse { background-color: CanvasText; }"
+  };
+
+  private final StringBuilder buffer = new StringBuilder();
+  private final SgrParser parser = new SgrParser(this::span);
+  private final SgrState spanState = new SgrState();
+  private final char[] single = new char[1];
+
+  private char[] chars = new char[0];
+  private boolean spanOpen;
+
+  /**
+   * Creates a new writer that converts colored text to HTML.
+   *
+   * @param out the writer to write the HTML to
+   */
+  public AnsiHtmlWriter(@NonNull Writer out) {
+    super(out);
+  }
+
+  /**
+   * Converts text with ANSI escape sequences to HTML.
+   *
+   * @param input the text to convert
+   * @return the HTML
+   */
+  public static @NonNull String toHtml(@NonNull CharSequence input) {
+    final StringWriter html = new StringWriter(input.length() + 64);
+    try (AnsiHtmlWriter writer = new AnsiHtmlWriter(html)) {
+      writer.append(input);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return html.toString();
+  }
+
+  /**
+   * Returns the CSS rules for the classes used by the HTML, with the default xterm colors.
+   *
+   * @return the style sheet
+   */
+  public static @NonNull String stylesheet() {
+    final StringBuilder css = new StringBuilder(32 * 1024);
+    for (String rule : ATTRIBUTE_RULES) {
+      css.append('.').append(PREFIX).append(rule).append('\n');
+    }
+    for (int i = 0; i < 256; i++) {
+      appendColorRule(css, "fg-", "color", i);
+    }
+    for (int i = 0; i < 256; i++) {
+      appendColorRule(css, "bg-", "background-color", i);
+    }
+    return css.toString();
+  }
+
+  @Override
+  public void write(int c) throws IOException {
+    single[0] = (char) c;
+    write(single, 0, 1);
+  }
+
+  @Override
+  public void write(char @NonNull [] cbuf, int off, int len) throws IOException {
+    final int end = off + len;
+    for (int i = off; i < end; i += SLICE_LENGTH) {
+      parser.parse(cbuf, i, Math.min(SLICE_LENGTH, end - i));
+      drain();
+    }
+  }
+
+  @Override
+  public void write(@NonNull String str, int off, int len) throws IOException {
+    final int end = off + len;
+    for (int i = off; i < end; i += SLICE_LENGTH) {
+      parser.parse(str, i, Math.min(i + SLICE_LENGTH, end));
+      drain();
+    }
+  }
+
+  @Override
+  public @NonNull Writer append(@Nullable CharSequence csq) throws IOException {
+    final CharSequence text = csq == null ? "null" : csq;
+    return append(text, 0, text.length());
+  }
+
+  @Override
+  public @NonNull Writer append(@Nullable CharSequence csq, int start, int end)
+      throws IOException {
+    final CharSequence text = csq == null ? "null" : csq;
+    for (int i = start; i < end; i += SLICE_LENGTH) {
+      parser.parse(text, i, Math.min(i + SLICE_LENGTH, end));
+      drain();
+    }
+    return this;
+  }
+
+  /**
+   * Closes the open span, if any, and flushes the underlying writer without closing it. More text
+   * can be written afterwards, and keeps the colors and attributes in effect.
+   *
+   * @throws IOException if an I/O error occurs
+   */
+  public void finish() throws IOException {
+    parser.finish();
+    closeSpan();
+    drain();
+    out.flush();
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      finish();
+    } finally {
+      out.close();
+    }
+  }
+
+  private void span(@NonNull CharSequence text, int start, int end, @NonNull SgrState state) {
+    if (!state.equals(spanState)) {
+      closeSpan();
+      openSpan(state);
+    }
+
+    int run = start;
+    for (int i = start; i < end; i++) {
+      final String entity = entity(text.charAt(i));
+      if (entity != null) {
+        buffer.append(text, run, i).append(entity);
+        run = i + 1;
+      }
+    }
+    buffer.append(text, run, end);
+  }
+
+  private void openSpan(@NonNull SgrState state) {
+    spanState.set(state);
+
+    final int mark = buffer.length();
+    buffer.append("<span class=\"");
+    final int classes = buffer.length();
+
+    appendClass(state.isBold(), "bold");
+    appendClass(state.isDim(), "dim");
+    appendClass(state.isItalic(), "italic");
+    appendClass(state.isUnderline(), "underline");
+    appendClass(state.isStrikethrough(), "strikethrough");
+    appendClass(state.isHidden(), "hidden");
+    if (state.isInverse()) {
+      appendColorClass("fg-", state.background(), true);
+      appendColorClass("bg-", state.foreground(), true);
+    } else {
+      appendColorClass("fg-", state.foreground(), false);
+      appendColorClass("bg-", state.background(), false);
+    }
+
+    if (buffer.length() == classes) {
+      buffer.setLength(mark);
+    } else {
+      buffer.append("\">");
+      spanOpen = true;
+    }
+  }
+
+  private void closeSpan() {
+    if (spanOpen) {
+      buffer.append("</span>");
+      spanOpen = false;
+    }
+    spanState.reset();
+  }
+
+  private void appendClass(boolean on, @NonNull String name) {
+    if (on) {
+      separate().append(name);
+    }
+  }
+
+  private void appendColorClass(@NonNull String kind, int color, boolean inverse) {
+    if (color >= SgrState.RGB_FLAG) {
+      separate().append(kind).append(Quantizer.to256(color & 0xFFFFFF));
+    } else if (color >= 0) {
+      separate().append(kind).append(color);
+    } else if (inverse) {
+      separate().append(kind).append("inverse");
+    }
+  }
+
+  /** Appends the separator before a class name, and the class name prefix. */
+  private @NonNull StringBuilder separate() {
+    if (buffer.charAt(buffer.length() - 1) != '"') {
+      buffer.append(' ');
+    }
+    return buffer.append(PREFIX);
+  }
+
+  private void drain() throws IOException {
+    final int length = buffer.length();
+    if (length == 0) {
+      return;
+    }
+
+    if (chars.length < length) {
+      chars = new char[Math.max(length, chars.length * 2)];
+    }
+    buffer.getChars(0, length, chars, 0);
+    buffer.setLength(0);
+    out.write(chars, 0, length);
+  }
+
+  private static @Nullable String entity(char c) {
+    switch (c) {
+      case '&':
+        return "&amp;";
+      case '<':
+        return "&lt;";
+      case '>':
+        return "&gt;";
+      case '"':
+        return "&quot;";
+      default:
+        return null;
+    }
+  }
+
+  private static void appendColorRule(
+      @NonNull StringBuilder css, @NonNull String kind, @NonNull String property, int index) {
+    final String hex = Integer.toHexString(Quantizer.rgb256(index) | 0x1000000);
+    css.append('.')
+        .append(PREFIX)
+        .append(kind)
+        .append(index)
+        .append(" { ")
+        .append(property)
+        .append(": #")
+        .append(hex, 1, 7)
+        .append("; }\n");
+  }
+}
@@ -0,0 +1,209 @@
+package com.github.suzumiyaaoba.colors4j;
+
+import org.jspecify.annotations.NonNull;
+
+/**
+ * AnsiOptimizer class.
+ *
+ * <p>Rewrites text with ANSI escape sequences so that it displays the same with fewer escape
+ * characters. Composed output, such as nested {@link Colors} calls, is full of sequences with no
+ * visible effect: a close sequence directly followed by the open sequence it closed, the replace
+ * sequences of bold and dim, resets followed by re-opens, and styles around empty text.
+ *
+ * <p>The optimizer makes a single pass, tracking the SGR state requested by the input without
+ * writing it. Before each run of visible text, it writes one sequence taking the terminal from the
+ * state written so far to the requested one, containing only the attributes that changed. Other
+ * escape sequences, such as cursor movements or hyperlinks, are kept as they are and in place.
+ * SGR sequences with parameters the optimizer does not understand are kept too, and it then stops
+ * using resets until the input resets, so that it never clears attributes it does not track.
+ *
+ * <p>{@link AnsiOptimizingWriter} applies the same rewriting to a stream of text.
+ */
+public final class AnsiOptimizer {
+
+  /** The longest escape sequence held back; longer ones are passed through as they are. */
+  private static final int MAX_SEQUENCE_LENGTH = 4096;
+
+  private final StringBuilder out;
+  private final SgrState written = new SgrState();
+  private final SgrState requested = new SgrState();
+  private final SgrState scratch = new SgrState();
+  private final SgrParameters parameters = new SgrParameters();
+  private final StringBuilder sequence = new StringBuilder();
+
+  private int state = Ansi.TEXT;
+  private boolean passThrough;
+  private boolean untracked;
+
+  /**
+   * Creates a new optimizer.
+   *
+   * @param out the builder to append the optimized text to
+   */
+  AnsiOptimizer(@NonNull StringBuilder out) {
+    this.out = out;
+  }
+
+  /**
+   * Removes the escape sequences that have no visible effect from the input, and merges the others
+   * where possible.
+   *
+   * @param input the input to optimize
+   * @return the optimized text, never longer than the input; the input itself if it is a string
+   *     without ESC
+   */
+  public static @NonNull String optimize(@NonNull CharSequence input) {
+    if (EscapeScanner.indexOf(input, 0) == -1) {
+      return input.toString();
+    }
+
+    final AnsiOptimizer optimizer = new AnsiOptimizer(new StringBuilder(input.length()));
+    optimizer.write(input, 0, input.length());
+    final StringBuilder optimized = optimizer.finish();
+    // Resets written with an empty parameter, such as ESC [ ; 1 m, are rewritten one character
+    // longer, which merging does not always make up for.
+    return optimized.length() <= input.length() ? optimized.toString() : input.toString();
+  }
+
+  /**
+   * Optimizes a chunk of the input. Escape sequences split between chunks are recognized.
+   *
+   * @param input the chunk
+   * @param fromIndex the index of the first character of the chunk
+   * @param toIndex the index after the last character of the chunk
+   */
+  void write(@NonNull CharSequence input, int fromIndex, int toIndex) {
+    int i = fromIndex;
+
+    while (i < toIndex) {
+      if (state == Ansi.TEXT) {
+        int stop = EscapeScanner.indexOf(input, i, toIndex);
+        if (stop == -1) {
+          stop = toIndex;
+        }
+
+        if (stop > i) {
+          sync();
+          out.append(input, i, stop);
+        }
+        i = stop;
+        if (stop < toIndex) {
+          state = Ansi.ESCAPE;
+          sequence.setLength(0);
+          sequence.append(EscapeScanner.ESC);
+          i++;
+        }
+      } else {
+        write(input.charAt(i++));
+      }
+    }
+  }
+
+  /**
+   * Writes the sequence the final state of the input requires, along with any incomplete escape
+   * sequence at its end, and returns the builder.
+   *
+   * @return the builder the optimized text was appended to
+   */
+  @NonNull StringBuilder finish() {
+    if (state != Ansi.TEXT && !passThrough) {
+      sync();
+      out.append(sequence);
+    }
+    state = Ansi.TEXT;
+    passThrough = false;
+    sync();
+    return out;
+  }
+
+  /** Reads one character of an escape sequence. */
+  private void write(char c) {
+    final int next = Ansi.next(state, c);
+
+    if (passThrough) {
+      if (next == Ansi.ESCAPE && c == EscapeScanner.ESC) {
+        passThrough = false;
+        sequence.setLength(0);
+        sequence.append(c);
+      } else {
+        out.append(c);
+        passThrough = next != Ansi.END && next != Ansi.TEXT;
+      }
+      state = next == Ansi.END ? Ansi.TEXT : next;
+      return;
+    }
+
+    if (next == Ansi.END) {
+      sequence.append(c);
+      state = Ansi.TEXT;
+      handle();
+    } else if (next == Ansi.TEXT || next == Ansi.ESCAPE && c == EscapeScanner.ESC) {
+      // An aborted sequence is text.
+      sync();
+      out.append(sequence);
+      sequence.setLength(0);
+      sequence.append(c);
+      state = next;
+      if (next == Ansi.TEXT) {
+        out.append(c);
+      }
+    } else {
+      sequence.append(c);
+      state = next;
+      if (sequence.length() >= MAX_SEQUENCE_LENGTH) {
+        sync();
+        out.append(sequence);
+        passThrough = true;
+      }
+    }
+  }
+
+  /** Handles a complete escape sequence. */
+  private void handle() {
+    if (!isSgr(sequence)) {
+      sync();
+      out.append(sequence);
+      return;
+    }
+
+    scratch.set(requested);
+    final int flags = scratch.apply(parameters.reset(sequence, 2, sequence.length() - 1));
+
+    if ((flags & SgrState.UNKNOWN) == 0 && !(untracked && (flags & SgrState.RESET) != 0)) {
+      requested.set(scratch);
+      return;
+    }
+
+    // Keep sequences with untracked attributes, and resets clearing them, as they are.
+    sync();
+    out.append(sequence);
+    written.set(scratch);
+    requested.set(scratch);
+    untracked = (flags & SgrState.UNKNOWN) != 0 || untracked && (flags & SgrState.RESET) == 0;
+  }
+
+  /** Writes the sequence taking the terminal to the requested state. */
+  private void sync() {
+    final int start = out.length();
+    if (written.transition(requested, out, !untracked)
+        && out.length() - start == 4
+        && out.charAt(start + 2) == '0') {
+      // A reset without parameters is shortest as ESC [ m.
+      out.deleteCharAt(start + 2);
+    }
+  }
+
+  private static boolean isSgr(@NonNull CharSequence sequence) {
+    final int last = sequence.length() - 1;
+    if (last < 2 || sequence.charAt(1) != '[' || sequence.charAt(last) != 'm') {
+      return false;
+    }
+    for (int i = 2; i < last; i++) {
+      final char c = sequence.charAt(i);
+      if ((c < '0' || c > '9') && c != ';' && c != ':') {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -0,0 +1,89 @@
+package com.github.suzumiyaaoba.colors4j;
+
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.Writer;
+import org.jspecify.annotations.NonNull;
+
+/**
+ * AnsiOptimizingWriter class.
+ *
+ * <p>A writer that removes redundant ANSI escape sequences from the text written to it, as {@link
+ * AnsiOptimizer#optimize(CharSequence)} does. Style changes are held back until the text they
+ * apply to is written, so the output of a write may lag behind its input by a few escape
+ * sequences; {@link #finish()} or {@link #close()} writes the sequence the final state requires.
+ *
+ * <p>This class is not thread-safe.
+ */
+public class AnsiOptimizingWriter extends FilterWriter {
+
+  private final StringBuilder buffer = new StringBuilder();
+  private final AnsiOptimizer optimizer = new AnsiOptimizer(buffer);
+  private final CharArrayView view = new CharArrayView();
+  private final char[] single = new char[1];
+
+  private char[] chars = new char[0];
+
+  /**
+   * Creates a new writer that optimizes escape sequences.
+   *
+   * @param out the writer to write the optimized text to
+   */
+  public AnsiOptimizingWriter(@NonNull Writer out) {
+    super(out);
+  }
+
+  @Override
+  public void write(int c) throws IOException {
+    single[0] = (char) c;
+    write(single, 0, 1);
+  }
+
+  @Override
+  public void write(char @NonNull [] cbuf, int off, int len) throws IOException {
+    optimizer.write(view.wrap(cbuf), off, off + len);
+    view.clear();
+    drain();
+  }
+
+  @Override
+  public void write(@NonNull String str, int off, int len) throws IOException {
+    optimizer.write(str, off, off + len);
+    drain();
+  }
+
+  /**
+   * Writes the sequence the final state of the text requires and flushes the underlying writer
+   * without closing it. More text can be written afterwards.
+   *
+   * @throws IOException if an I/O error occurs
+   */
+  public void finish() throws IOException {
+    optimizer.finish();
+    drain();
+    out.flush();
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      finish();
+    } finally {
+      out.close();
+    }
+  }
+
+  private void drain() throws IOException {
+    final int length = buffer.length();
+    if (length == 0) {
+      return;
+    }
+
+    if (chars.length < length) {
+      chars = new char[Math.max(length, chars.length * 2)];
+    }
+    buffer.getChars(0, length, chars, 0);
+    buffer.setLength(0);
+    out.write(chars, 0, length);
+  }
+}
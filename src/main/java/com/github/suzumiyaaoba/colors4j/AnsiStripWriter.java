@@ -0,0 +1,85 @@
+package com.github.suzumiyaaoba.colors4j;
+
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.Writer;
+import org.jspecify.annotations.NonNull;
+
+/**
+ * AnsiStripWriter class.
+ *
+ * <p>A writer that removes ANSI escape sequences from the text written to it, as {@link
+ * Ansi#strip(CharSequence)} does. Escape sequences split between two writes are recognized, and no
+ * text is buffered, so memory use is constant.
+ *
+ * <p>This class is not thread-safe.
+ */
+public class AnsiStripWriter extends FilterWriter {
+
+  private int state = Ansi.TEXT;
+
+  /**
+   * Creates a new writer that strips escape sequences.
+   *
+   * @param out the writer to write the stripped text to
+   */
+  public AnsiStripWriter(@NonNull Writer out) {
+    super(out);
+  }
+
+  @Override
+  public void write(int c) throws IOException {
+    state = Ansi.next(state, (char) c);
+    if (state == Ansi.TEXT) {
+      out.write(c);
+    } else if (state == Ansi.END) {
+      state = Ansi.TEXT;
+    }
+  }
+
+  @Override
+  public void write(char @NonNull [] cbuf, int off, int len) throws IOException {
+    final int end = off + len;
+    int i = off;
+
+    while (i < end) {
+      if (state == Ansi.TEXT) {
+        int stop = i;
+        while (stop < end && cbuf[stop] != EscapeScanner.ESC) {
+          stop++;
+        }
+
+        out.write(cbuf, i, stop - i);
+        i = stop;
+        if (stop < end) {
+          state = Ansi.ESCAPE;
+          i++;
+        }
+      } else {
+        write(cbuf[i++]);
+      }
+    }
+  }
+
+  @Override
+  public void write(@NonNull String str, int off, int len) throws IOException {
+    final int end = off + len;
+    int i = off;
+
+    while (i < end) {
+      if (state == Ansi.TEXT) {
+        final int esc = str.indexOf(EscapeScanner.ESC, i);
+        final int stop = esc == -1 || esc > end ? end : esc;
+
+        out.write(str, i, stop - i);
+        i = stop;
+        if (stop < end) {
+          state = Ansi.ESCAPE;
+          i++;
+        }
+      } else {
+        write(str.charAt(i++));
+      }
+    }
+  }
+}
@@ -0,0 +1,71 @@
+package com.github.suzumiyaaoba.colors4j;
+
+/**
+ * CacheStats class.
+ *
+ * <p>The counts recorded by {@link CachingColors} at the time they are read. Lookups of strings
+ * too long to be cached are not counted.
+ *
+ * <p>Instances are immutable and can be shared between threads.
+ */
+public final class CacheStats {
+
+  private final long hits;
+  private final long misses;
+  private final long evictions;
+
+  /**
+   * Creates new statistics.
+   *
+   * @param hits the number of lookups that found the string in the cache
+   * @param misses the number of lookups that had to format the string
+   * @param evictions the number of strings removed to make room for others
+   */
+  CacheStats(long hits, long misses, long evictions) {
+    this.hits = hits;
+    this.misses = misses;
+    this.evictions = evictions;
+  }
+
+  /**
+   * Returns the number of lookups that found the string in the cache.
+   *
+   * @return the number of hits
+   */
+  public long hits() {
+    return hits;
+  }
+
+  /**
+   * Returns the number of lookups that had to format the string.
+   *
+   * @return the number of misses
+   */
+  public long misses() {
+    return misses;
+  }
+
+  /**
+   * Returns the number of strings removed from the cache to make room for others.
+   *
+   * @return the number of evictions
+   */
+  public long evictions() {
+    return evictions;
+  }
+
+  /**
+   * Returns the fraction of lookups that found the string in the cache.
+   *
+   * @return the hit rate, from 0 to 1; 0 if nothing was looked up
+   */
+  public double hitRate() {
+    final long lookups = hits + misses;
+    return lookups == 0 ? 0 : (double) hits / lookups;
+  }
+
+  @Override
+  public String toString() {
+    return "CacheStats[hits=" + hits + ", misses=" + misses + ", evictions=" + evictions + "]";
+  }
+}
@@ -0,0 +1,173 @@
+package com.github.suzumiyaaoba.colors4j;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import org.jspecify.annotations.NonNull;
+
+/**
+ * CachingColors class.
+ *
+ * <p>A {@link Colors} that remembers the strings it formats, for applications that color the same
+ * short strings over and over, such as level names, status words or service tags. Formatting a
+ * string that is in the cache costs a hash lookup instead of a concatenation and allocates
+ * nothing. The formatted text is the same as that of a plain instance with the same color depth.
+ *
+ * <p>The cache holds at most a fixed number of strings, and only strings up to a fixed length, so
+ * its memory is bounded. When it is full, a string that has not been used since the clock hand
+ * last passed it is evicted, which approximates evicting the least recently used string without
+ * any bookkeeping on hits. Lookups do not lock; misses add their result to the cache only if no
+ * other thread is adding one at the same time.
+ *
+ * <p>Instances are created with {@link Colors#cached(int, int)}. The strings formatted with
+ * {@link #apply(Style, String)}, with a named method such as {@link #bold(String)} or in bulk are
+ * cached; other forms of input and output are formatted as usual.
+ */
+public final class CachingColors extends Colors {
+
+  private static final Style[] STYLES = Style.values();
+
+  private final int maximumSize;
+  private final int maximumLength;
+
+  /** The cached strings, by style ordinal and input. */
+  private final Map<String, Entry>[] entries;
+
+  /** The lock guarding insertions and the clock. */
+  private final ReentrantLock lock = new ReentrantLock();
+
+  private final Entry[] clock;
+  private int size;
+  private int hand;
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  /**
+   * Creates a new caching instance.
+   *
+   * @param colorDepth the number of colors the terminal can display
+   * @param maximumSize the maximum number of strings to cache
+   * @param maximumLength the maximum length of the strings to cache
+   */
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  CachingColors(@NonNull ColorDepth colorDepth, int maximumSize, int maximumLength) {
+    super(colorDepth);
+    this.maximumSize = maximumSize;
+    this.maximumLength = maximumLength;
+    this.entries = new Map[STYLES.length];
+    Arrays.setAll(entries, i -> new ConcurrentHashMap<>());
+    this.clock = new Entry[maximumSize];
+  }
+
+  @Override
+  public @NonNull String apply(@NonNull Style style, @NonNull String input) {
+    if (!isColorSupported() || input.length() > maximumLength) {
+      return super.apply(style, input);
+    }
+
+    final Entry entry = entries[style.ordinal()].get(input);
+    if (entry != null) {
+      // Skipping the write when the bit is set keeps hot entries from bouncing between caches.
+      if (!entry.referenced) {
+        entry.referenced = true;
+      }
+      hits.increment();
+      return entry.output;
+    }
+
+    misses.increment();
+    final String output = super.apply(style, input);
+    if (lock.tryLock()) {
+      try {
+        insert(new Entry(style, input, output));
+      } finally {
+        lock.unlock();
+      }
+    }
+    return output;
+  }
+
+  /**
+   * Returns the hit and miss counts recorded so far. Lookups made while the statistics are read
+   * may or may not be included.
+   *
+   * @return the statistics
+   */
+  public @NonNull CacheStats stats() {
+    return new CacheStats(hits.sum(), misses.sum(), evictions.sum());
+  }
+
+  /**
+   * Returns the number of strings in the cache.
+   *
+   * @return the number of cached strings
+   */
+  public int size() {
+    lock.lock();
+    try {
+      return size;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Removes all strings from the cache. The statistics are kept. */
+  public void clear() {
+    lock.lock();
+    try {
+      for (Map<String, Entry> map : entries) {
+        map.clear();
+      }
+      Arrays.fill(clock, null);
+      size = 0;
+      hand = 0;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Adds an entry, evicting another one if the cache is full. Called with the lock held. */
+  private void insert(@NonNull Entry entry) {
+    final Map<String, Entry> map = entries[entry.style.ordinal()];
+    if (map.containsKey(entry.input)) {
+      return;
+    }
+
+    if (size < maximumSize) {
+      clock[size++] = entry;
+    } else {
+      // Entries used since the hand last passed them get a second chance.
+      while (clock[hand].referenced) {
+        clock[hand].referenced = false;
+        hand = (hand + 1) % maximumSize;
+      }
+      final Entry victim = clock[hand];
+      entries[victim.style.ordinal()].remove(victim.input);
+      evictions.increment();
+      clock[hand] = entry;
+      hand = (hand + 1) % maximumSize;
+    }
+    map.put(entry.input, entry);
+  }
+
+  /** A cached string. */
+  private static final class Entry {
+
+    final Style style;
+    final String input;
+    final String output;
+
+    /** Whether the entry was used since the clock hand last passed it. */
+    volatile boolean referenced;
+
+    Entry(@NonNull Style style, @NonNull String input, @NonNull String output) {
+      this.style = style;
+      this.input = input;
+      this.output = output;
+    }
+  }
+}
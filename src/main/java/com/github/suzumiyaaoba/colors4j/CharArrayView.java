@@ -0,0 +1,47 @@
+package com.github.suzumiyaaoba.colors4j;
+
+import org.jspecify.annotations.NonNull;
+
+/** A reusable view of a char array, to pass chunks of text around without copying them. */
+final class CharArrayView implements CharSequence {
+
+  private static final char[] EMPTY = new char[0];
+
+  private char[] chars = EMPTY;
+
+  /**
+   * Makes this view show the given array.
+   *
+   * @param chars the array to show
+   * @return this view
+   */
+  @NonNull CharArrayView wrap(char @NonNull [] chars) {
+    this.chars = chars;
+    return this;
+  }
+
+  /** Releases the array shown, so that it is not retained. */
+  void clear() {
+    this.chars = EMPTY;
+  }
+
+  @Override
+  public int length() {
+    return chars.length;
+  }
+
+  @Override
+  public char charAt(int index) {
+    return chars[index];
+  }
+
+  @Override
+  public @NonNull CharSequence subSequence(int start, int end) {
+    return new String(chars, start, end - start);
+  }
+
+  @Override
+  public @NonNull String toString() {
+    return new String(chars);
+  }
+}
@@ -0,0 +1,312 @@
+package com.github.suzumiyaaoba.colors4j;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * ColorConsole class.
+ *
+ * <p>Writes lines from many threads to an output stream, such as {@link System#out}, without making
+ * them wait for each other. Each line is formatted and encoded on the thread that prints it, then
+ * put in a lock-free queue. A single background thread takes the lines from the queue and joins
+ * them into large writes, so the stream is locked once per batch instead of once per line. Lines
+ * are always written whole, so escape sequences are never split between the lines of different
+ * threads.
+ *
+ * <p>Two settings trade latency for throughput and memory. The flush latency is how long a line
+ * may wait for more lines to share its write; the capacity is the number of lines that may wait to
+ * be written, beyond which printing blocks until the background thread catches up.
+ *
+ * <pre>{@code
+ * ColorConsole console = new ColorConsole(System.out, StandardCharsets.UTF_8,
+ *     Duration.ofMillis(5), 16 * 1024);
+ * CompiledStyle error = colors.style(Style.BOLD, Style.RED);
+ * console.println(error, "connection lost");
+ * }</pre>
+ *
+ * <p>This class is thread-safe. {@link #close()} writes the remaining lines and stops the
+ * background thread; it leaves the stream open, since it is usually {@link System#out}. A line
+ * printed while the console is being closed is either written or rejected with an {@link
+ * IllegalStateException}, never silently lost. If the stream fails, later lines are discarded and
+ * {@link #flush()} and {@link #close()} report the failure.
+ */
+public final class ColorConsole implements Flushable, Closeable {
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private static final Duration DEFAULT_FLUSH_LATENCY = Duration.ofMillis(5);
+
+  private static final int DEFAULT_CAPACITY = 16 * 1024;
+
+  private final OutputStream out;
+  private final Charset charset;
+  private final long flushLatencyNanos;
+  private final Semaphore permits;
+
+  /** The lines to write, as byte arrays, and the latches of flush requests. */
+  private final Queue<Object> queue = new ConcurrentLinkedQueue<>();
+
+  private final AtomicBoolean sleeping = new AtomicBoolean();
+  private final Thread drainer;
+
+  private final byte[] buffer = new byte[BUFFER_SIZE];
+  private int count;
+
+  private volatile boolean closed;
+  /** The first failure of the stream, after which lines are discarded. */
+  private volatile @Nullable Exception error;
+
+  /**
+   * Creates a new console writing UTF-8 with the default flush latency and capacity.
+   *
+   * @param out the stream to write to
+   */
+  public ColorConsole(@NonNull OutputStream out) {
+    this(out, StandardCharsets.UTF_8, DEFAULT_FLUSH_LATENCY, DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Creates a new console.
+   *
+   * @param out the stream to write to
+   * @param charset the charset to encode the lines in
+   * @param flushLatency how long a line may wait for more lines before it is written
+   * @param capacity the number of lines that may wait to be written before printing blocks
+   * @throws IllegalArgumentException if the latency is negative or the capacity is not positive
+   */
+  public ColorConsole(
+      @NonNull OutputStream out,
+      @NonNull Charset charset,
+      @NonNull Duration flushLatency,
+      int capacity) {
+    if (flushLatency.isNegative()) {
+      throw new IllegalArgumentException("flushLatency must not be negative: " + flushLatency);
+    }
+    if (capacity < 1) {
+      throw new IllegalArgumentException("capacity must be positive: " + capacity);
+    }
+
+    this.out = out;
+    this.charset = charset;
+    this.flushLatencyNanos = flushLatency.toNanos();
+    this.permits = new Semaphore(capacity);
+    this.drainer = new Thread(this::drain, "colors4j-console");
+    drainer.setDaemon(true);
+    drainer.start();
+  }
+
+  /**
+   * Prints a line, which may already hold escape sequences.
+   *
+   * @param line the line to print, without the line separator
+   * @throws IllegalStateException if the console is closed
+   */
+  public void println(@NonNull CharSequence line) {
+    enqueue((line + System.lineSeparator()).getBytes(charset));
+  }
+
+  /**
+   * Prints a line with the given style.
+   *
+   * @param style the style to apply
+   * @param line the line to print, without the line separator
+   * @throws IllegalStateException if the console is closed
+   */
+  public void println(@NonNull CompiledStyle style, @NonNull CharSequence line) {
+    final StringBuilder text = new StringBuilder(line.length() + 32);
+    style.apply(line, text).append(System.lineSeparator());
+    enqueue(text.toString().getBytes(charset));
+  }
+
+  /**
+   * Writes the lines printed so far and flushes the stream, waiting until it is done.
+   *
+   * @throws IOException if writing to the stream failed, now or earlier
+   */
+  @Override
+  public void flush() throws IOException {
+    if (!closed) {
+      final CountDownLatch flushed = new CountDownLatch(1);
+      queue.offer(flushed);
+      wake();
+      // If the console was closed meanwhile, close() writes the lines, and the latch is only
+      // counted down if it was taken from the queue.
+      if (closed && queue.remove(flushed)) {
+        checkError();
+        return;
+      }
+      try {
+        flushed.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted while flushing the console");
+      }
+    }
+    checkError();
+  }
+
+  /**
+   * Writes the remaining lines, flushes the stream and stops the background thread. The stream is
+   * not closed.
+   *
+   * @throws IOException if writing to the stream failed, now or earlier
+   */
+  @Override
+  public synchronized void close() throws IOException {
+    if (!closed) {
+      closed = true;
+      LockSupport.unpark(drainer);
+      try {
+        drainer.join();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted while closing the console");
+      }
+      drainRemaining();
+    }
+    checkError();
+  }
+
+  private void enqueue(byte @NonNull [] line) {
+    if (closed) {
+      throw new IllegalStateException("The console is closed");
+    }
+    permits.acquireUninterruptibly();
+    queue.offer(line);
+    wake();
+    // If the console was closed meanwhile, the line is written only if it was taken from the queue.
+    if (closed && queue.remove(line)) {
+      permits.release();
+      throw new IllegalStateException("The console is closed");
+    }
+  }
+
+  /** Wakes the background thread if it is waiting for lines. */
+  private void wake() {
+    if (sleeping.get() && sleeping.compareAndSet(true, false)) {
+      LockSupport.unpark(drainer);
+    }
+  }
+
+  private void checkError() throws IOException {
+    final Exception e = error;
+    if (e != null) {
+      throw new IOException("Writing to the console failed", e);
+    }
+  }
+
+  /** The loop of the background thread. */
+  private void drain() {
+    long oldest = 0;
+
+    while (true) {
+      final Object entry = queue.poll();
+
+      if (entry instanceof byte[]) {
+        permits.release();
+        if (count == 0) {
+          oldest = System.nanoTime();
+        }
+        append((byte[]) entry);
+        // The queue may never empty under a steady stream of lines, so the latency is checked
+        // here too. Without latency, lines are written whenever the queue empties.
+        if (flushLatencyNanos > 0 && count > 0 && System.nanoTime() - oldest >= flushLatencyNanos) {
+          writeBuffer();
+        }
+      } else if (entry != null) {
+        writeBuffer();
+        ((CountDownLatch) entry).countDown();
+      } else if (count > 0) {
+        final long wait = flushLatencyNanos - (System.nanoTime() - oldest);
+        if (wait <= 0 || closed) {
+          writeBuffer();
+        } else {
+          sleep(wait);
+        }
+      } else if (closed) {
+        return;
+      } else {
+        sleep(0);
+      }
+    }
+  }
+
+  /**
+   * Writes the lines and releases the flushes that were queued after the background thread last
+   * looked at the queue. Called once the background thread has stopped.
+   */
+  private void drainRemaining() {
+    Object entry;
+    while ((entry = queue.poll()) != null) {
+      if (entry instanceof byte[]) {
+        permits.release();
+        append((byte[]) entry);
+      } else {
+        writeBuffer();
+        ((CountDownLatch) entry).countDown();
+      }
+    }
+    if (count > 0) {
+      writeBuffer();
+    }
+  }
+
+  /** Waits for lines, for at most the given time if it is positive. */
+  private void sleep(long nanos) {
+    sleeping.set(true);
+    if (queue.isEmpty() && !closed) {
+      if (nanos > 0) {
+        LockSupport.parkNanos(this, nanos);
+      } else {
+        LockSupport.park(this);
+      }
+    }
+    sleeping.set(false);
+  }
+
+  private void append(byte @NonNull [] line) {
+    if (count > 0 && count + line.length > buffer.length) {
+      writeBuffer();
+    }
+    if (line.length > buffer.length) {
+      write(line, line.length);
+    } else {
+      System.arraycopy(line, 0, buffer, count, line.length);
+      count += line.length;
+    }
+  }
+
+  private void writeBuffer() {
+    write(buffer, count);
+    count = 0;
+  }
+
+  private void write(byte @NonNull [] bytes, int length) {
+    if (error != null) {
+      return;
+    }
+    try {
+      if (length > 0) {
+        out.write(bytes, 0, length);
+      }
+      out.flush();
+    } catch (IOException | RuntimeException e) {
+      // The background thread must go on taking lines, or printing threads would block forever.
+      error = e;
+    }
+  }
+}
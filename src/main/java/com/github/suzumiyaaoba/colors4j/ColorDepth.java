@@ -0,0 +1,21 @@
+package com.github.suzumiyaaoba.colors4j;
+
+/**
+ * ColorDepth enum.
+ *
+ * <p>The number of colors a terminal can display. Colors requested beyond the depth of a {@link
+ * Colors} instance are degraded to the nearest color it can display.
+ */
+public enum ColorDepth {
+  /** No colors or other formatting; text is passed through unchanged. */
+  NONE,
+
+  /** The 16 basic ANSI colors. */
+  ANSI_16,
+
+  /** The 256 xterm colors. */
+  ANSI_256,
+
+  /** 24-bit RGB colors. */
+  TRUECOLOR
+}
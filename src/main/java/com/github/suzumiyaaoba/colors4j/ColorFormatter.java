@@ -0,0 +1,210 @@
+package com.github.suzumiyaaoba.colors4j;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.text.MessageFormat;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.logging.Formatter;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import org.jspecify.annotations.NonNull;
+
+/**
+ * ColorFormatter class.
+ *
+ * <p>A {@link Formatter} for {@code java.util.logging} that writes one line per record, such as
+ * {@code 2024-01-02 03:04:05.678 WARNING com.example.Service: message}, with the level colored by
+ * severity and the logger name dimmed. It can be configured in {@code logging.properties}, for
+ * example {@code java.util.logging.ConsoleHandler.formatter =
+ * com.github.suzumiyaaoba.colors4j.ColorFormatter}, in which case it colors its output if the
+ * terminal of the process supports it.
+ *
+ * <p>The formatter is built for high record rates. The level prefixes are formatted once, each
+ * thread reuses its own builder, the date and time are formatted once per second, and messages
+ * without parameters are not passed through {@link MessageFormat}. Unlike {@link
+ * Formatter#formatMessage(LogRecord)}, formatting takes no lock.
+ */
+public class ColorFormatter extends Formatter {
+
+  private static final int MAX_RETAINED_CAPACITY = 16 * 1024;
+
+  private static final DateTimeFormatter DATE_TIME =
+      DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+  private static final Level[] LEVELS = {
+    Level.SEVERE, Level.WARNING, Level.INFO, Level.CONFIG, Level.FINE, Level.FINER, Level.FINEST
+  };
+
+  private final ZoneId zone;
+  private final CompiledStyle[] levelStyles;
+  private final String[] prefixes;
+  private final CompiledStyle loggerStyle;
+
+  private final ThreadLocal<StringBuilder> builders =
+      ThreadLocal.withInitial(() -> new StringBuilder(256));
+
+  private volatile Timestamp timestamp = new Timestamp(Long.MIN_VALUE, "");
+
+  /**
+   * Creates a new formatter in the system default time zone that colors its output if the terminal
+   * of the process supports it, as detected by {@link Colors#detect()}. The detection does not
+   * know where the handler writes, so a handler writing to a file, such as a {@code FileHandler},
+   * should be given a formatter created with {@link #ColorFormatter(Colors)} and colors disabled.
+   */
+  public ColorFormatter() {
+    this(Colors.detect());
+  }
+
+  /**
+   * Creates a new formatter in the system default time zone.
+   *
+   * @param colors the colors to format with
+   */
+  public ColorFormatter(@NonNull Colors colors) {
+    this(colors, ZoneId.systemDefault());
+  }
+
+  /**
+   * Creates a new formatter.
+   *
+   * @param colors the colors to format with
+   * @param zone the time zone to write the time of records in
+   */
+  public ColorFormatter(@NonNull Colors colors, @NonNull ZoneId zone) {
+    this.zone = zone;
+    this.loggerStyle = colors.style(Style.DIM);
+    this.levelStyles =
+        new CompiledStyle[] {
+          colors.style(Style.BOLD, Style.RED),
+          colors.style(Style.YELLOW),
+          colors.style(Style.GREEN),
+          colors.style(Style.CYAN),
+          colors.style(Style.GRAY)
+        };
+
+    this.prefixes = new String[LEVELS.length];
+    for (int i = 0; i < LEVELS.length; i++) {
+      prefixes[i] = prefix(levelStyles[severity(LEVELS[i])], LEVELS[i].getName());
+    }
+  }
+
+  @Override
+  public String format(LogRecord record) {
+    StringBuilder out = builders.get();
+    if (out.capacity() > MAX_RETAINED_CAPACITY) {
+      out = new StringBuilder(256);
+      builders.set(out);
+    }
+    out.setLength(0);
+
+    appendTimestamp(record.getInstant(), out);
+    appendLevel(record.getLevel(), out);
+    if (record.getLoggerName() != null) {
+      loggerStyle.apply(record.getLoggerName(), out).append(": ");
+    }
+    out.append(message(record)).append(System.lineSeparator());
+
+    if (record.getThrown() != null) {
+      final StringWriter trace = new StringWriter();
+      try (PrintWriter writer = new PrintWriter(trace)) {
+        record.getThrown().printStackTrace(writer);
+      }
+      out.append(trace);
+    }
+    return out.toString();
+  }
+
+  private void appendTimestamp(@NonNull Instant instant, @NonNull StringBuilder out) {
+    final long second = instant.getEpochSecond();
+
+    Timestamp cached = timestamp;
+    if (cached.second != second) {
+      cached = new Timestamp(second, DATE_TIME.format(Instant.ofEpochSecond(second).atZone(zone)));
+      timestamp = cached;
+    }
+
+    final int millis = instant.getNano() / 1_000_000;
+    out.append(cached.text)
+        .append('.')
+        .append((char) ('0' + millis / 100))
+        .append((char) ('0' + millis / 10 % 10))
+        .append((char) ('0' + millis % 10))
+        .append(' ');
+  }
+
+  private void appendLevel(@NonNull Level level, @NonNull StringBuilder out) {
+    for (int i = 0; i < LEVELS.length; i++) {
+      if (LEVELS[i] == level) {
+        out.append(prefixes[i]);
+        return;
+      }
+    }
+    out.append(prefix(levelStyles[severity(level)], level.getName()));
+  }
+
+  /**
+   * Returns the message of the record, localized and with its parameters filled in like {@link
+   * Formatter#formatMessage(LogRecord)} does.
+   */
+  private @NonNull String message(@NonNull LogRecord record) {
+    if (record.getResourceBundle() != null) {
+      return formatMessage(record);
+    }
+
+    final String message = record.getMessage();
+    final Object[] parameters = record.getParameters();
+    if (message == null || parameters == null || parameters.length == 0) {
+      return String.valueOf(message);
+    }
+
+    if (message.contains("{0")
+        || message.contains("{1")
+        || message.contains("{2")
+        || message.contains("{3")) {
+      try {
+        return MessageFormat.format(message, parameters);
+      } catch (IllegalArgumentException e) {
+        return message;
+      }
+    }
+    return message;
+  }
+
+  /** Returns the index of the style of the given level, from most to least severe. */
+  private static int severity(@NonNull Level level) {
+    final int value = level.intValue();
+    if (value >= Level.SEVERE.intValue()) {
+      return 0;
+    } else if (value >= Level.WARNING.intValue()) {
+      return 1;
+    } else if (value >= Level.INFO.intValue()) {
+      return 2;
+    } else if (value >= Level.CONFIG.intValue()) {
+      return 3;
+    }
+    return 4;
+  }
+
+  /** Formats a level name, padded so that the logger names line up. */
+  private static @NonNull String prefix(@NonNull CompiledStyle style, @NonNull String name) {
+    final StringBuilder prefix = style.apply(name, new StringBuilder());
+    for (int i = name.length(); i < 8; i++) {
+      prefix.append(' ');
+    }
+    return prefix.toString();
+  }
+
+  /** The date and time of a second, formatted. */
+  private static final class Timestamp {
+
+    private final long second;
+    private final String text;
+
+    Timestamp(long second, @NonNull String text) {
+      this.second = second;
+      this.text = text;
+    }
+  }
+}
@@ -0,0 +1,227 @@
+package com.github.suzumiyaaoba.colors4j;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import org.jspecify.annotations.NonNull;
+
+/**
+ * ColorOutputStream class.
+ *
+ * <p>An output stream that applies a style to all UTF-8 encoded text streamed through it. The open
+ * sequence is written before the first byte, close sequences found in the text are rewritten as
+ * they pass, and the close sequence is written by {@link #finish()} or {@link #close()}. The output
+ * is the UTF-8 encoding of applying the style to the whole text at once, but only a few bytes are
+ * held back at any time, however much text is written, even when a close sequence is split between
+ * two writes.
+ *
+ * <p>This class is not thread-safe.
+ */
+public class ColorOutputStream extends OutputStream {
+
+  private final OutputStream out;
+  private final Format[] formats;
+  private final Layer[] layers;
+  private final OutputStream head;
+
+  private boolean started;
+  private boolean finished;
+
+  /**
+   * Creates a new output stream that applies the given style to everything written to it.
+   *
+   * @param out the output stream to write the formatted text to
+   * @param style the style to apply
+   */
+  public ColorOutputStream(@NonNull OutputStream out, @NonNull CompiledStyle style) {
+    this.out = out;
+    this.formats = style.layers();
+    this.layers = new Layer[formats.length];
+
+    OutputStream stream = out;
+    for (int i = 0; i < formats.length; i++) {
+      layers[i] = new Layer(stream, formats[i]);
+      stream = layers[i];
+    }
+    this.head = stream;
+  }
+
+  @Override
+  public void write(int b) throws IOException {
+    start();
+    head.write(b);
+  }
+
+  @Override
+  public void write(byte @NonNull [] b, int off, int len) throws IOException {
+    start();
+    head.write(b, off, len);
+  }
+
+  /**
+   * Flushes the underlying output stream. A partial close sequence at the end of the bytes written
+   * so far is held back until the next write completes or refutes it.
+   *
+   * @throws IOException if an I/O error occurs
+   */
+  @Override
+  public void flush() throws IOException {
+    out.flush();
+  }
+
+  /**
+   * Writes the close sequence of the style and flushes the underlying output stream without
+   * closing it. Nothing can be written after this method has been called.
+   *
+   * @throws IOException if an I/O error occurs
+   */
+  public void finish() throws IOException {
+    if (finished) {
+      return;
+    }
+    start();
+    finished = true;
+
+    for (int i = layers.length - 1; i >= 0; i--) {
+      layers[i].finish();
+    }
+    out.flush();
+  }
+
+  /**
+   * Writes the close sequence of the style and closes the underlying output stream.
+   *
+   * @throws IOException if an I/O error occurs
+   */
+  @Override
+  public void close() throws IOException {
+    try {
+      finish();
+    } finally {
+      out.close();
+    }
+  }
+
+  private void start() throws IOException {
+    if (finished) {
+      throw new IOException("Style already finished");
+    }
+    if (started) {
+      return;
+    }
+    started = true;
+
+    OutputStream stream = out;
+    for (int i = 0; i < formats.length; i++) {
+      stream.write(layers[i].open);
+      stream = layers[i];
+    }
+  }
+
+  /**
+   * One layer of a style, which rewrites its close sequence in the bytes passing through it. Like
+   * {@link Format#apply(String)}, the first {@link Format#fromIndex()} characters are not searched;
+   * characters are counted in UTF-16 code units to match.
+   */
+  private static final class Layer extends OutputStream {
+
+    private final OutputStream next;
+    private final byte[] open;
+    private final byte[] close;
+    private final byte[] replace;
+    private final int skip;
+
+    private final byte[] single = new byte[1];
+
+    private long position;
+    private long matchStart;
+    private int matched;
+
+    Layer(@NonNull OutputStream next, @NonNull Format format) {
+      this.next = next;
+      this.open = format.open().getBytes(StandardCharsets.UTF_8);
+      this.close = format.close().getBytes(StandardCharsets.UTF_8);
+      this.replace = format.replace().getBytes(StandardCharsets.UTF_8);
+      this.skip = format.fromIndex();
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      single[0] = (byte) b;
+      write(single, 0, 1);
+    }
+
+    @Override
+    public void write(byte @NonNull [] b, int off, int len) throws IOException {
+      final int end = off + len;
+      int i = off;
+
+      while (i < end) {
+        if (matched > 0) {
+          if (b[i] != close[matched]) {
+            next.write(close, 0, matched);
+            matched = 0;
+            continue;
+          }
+          matched++;
+          position++;
+          i++;
+          if (matched == close.length) {
+            next.write(matchStart >= skip ? replace : close);
+            matched = 0;
+          }
+        } else {
+          final int esc = EscapeScanner.indexOf(b, i, end);
+          final int stop = esc == -1 ? end : esc;
+
+          next.write(b, i, stop - i);
+          advance(b, i, stop);
+          i = stop;
+          if (esc != -1) {
+            matchStart = position++;
+            matched = 1;
+            i++;
+          }
+        }
+      }
+    }
+
+    /**
+     * Writes any partial close sequence held back and the close sequence of this layer.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    void finish() throws IOException {
+      if (matched > 0) {
+        next.write(close, 0, matched);
+        matched = 0;
+      }
+      next.write(close);
+    }
+
+    @Override
+    public void flush() throws IOException {
+      next.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+      next.close();
+    }
+
+    /**
+     * Counts the UTF-16 code units encoded by the given bytes. Counting stops once the position is
+     * past the characters that are not searched, since only those positions matter.
+     */
+    private void advance(byte @NonNull [] b, int fromIndex, int toIndex) {
+      for (int i = fromIndex; i < toIndex && position < skip; i++) {
+        final int unsigned = b[i] & 0xFF;
+        if (unsigned >= 0xF0) {
+          position += 2;
+        } else if (unsigned < 0x80 || unsigned >= 0xC0) {
+          position++;
+        }
+      }
+    }
+  }
+}
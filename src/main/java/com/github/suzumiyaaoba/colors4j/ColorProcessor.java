@@ -0,0 +1,286 @@
+package com.github.suzumiyaaoba.colors4j;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.Flow;
+import java.util.function.UnaryOperator;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * ColorProcessor class.
+ *
+ * <p>A {@link Flow.Processor} that colors each item passing through a {@code java.util.concurrent
+ * .Flow} pipeline, such as the lines of a log stream. Items are colored on the thread that
+ * publishes them, as they arrive, so the processor adds no thread hop and holds no items back.
+ * Demand is passed upstream as it is requested downstream, so a slow subscriber slows down the
+ * publisher instead of filling a buffer.
+ *
+ * <pre>{@code
+ * ColorProcessor<String> red = ColorProcessor.strings(colors.style(Style.RED));
+ * publisher.subscribe(red);
+ * red.subscribe(subscriber);
+ * }</pre>
+ *
+ * <p>The processor serves a single subscriber; later subscribers are sent an {@link
+ * IllegalStateException}. If coloring an item fails, the upstream subscription is cancelled and
+ * the failure is passed downstream.
+ *
+ * @param <T> the type of the items
+ */
+public final class ColorProcessor<T> implements Flow.Processor<T, T> {
+
+  private final UnaryOperator<T> colorizer;
+  private final Object lock = new Object();
+
+  /** The subscriber items are sent to, set before its {@code onSubscribe} is called. */
+  private volatile Flow.@Nullable Subscriber<? super T> subscriber;
+
+  // Guarded by lock.
+  private Flow.@Nullable Subscription upstream;
+  private boolean subscribed;
+  private boolean ready;
+  private long pendingDemand;
+  private boolean cancelled;
+  private boolean completed;
+  private @Nullable Throwable error;
+
+  /** Set when coloring failed, after which upstream signals are ignored. */
+  private boolean failed;
+
+  private ColorProcessor(@NonNull UnaryOperator<T> colorizer) {
+    this.colorizer = colorizer;
+  }
+
+  /**
+   * Returns a processor that colors strings with the given function, usually a {@link
+   * CompiledStyle} from {@link Colors#style(Style...)}.
+   *
+   * @param colorizer the function coloring each string
+   * @return the processor
+   */
+  public static @NonNull ColorProcessor<String> strings(@NonNull UnaryOperator<String> colorizer) {
+    return new ColorProcessor<>(colorizer);
+  }
+
+  /**
+   * Returns a processor that colors UTF-8 encoded text held in byte buffers. The bytes between
+   * the position and the limit of each item are colored; items are not modified.
+   *
+   * <p>The colored items are slices of larger buffers shared by consecutive items, so that one
+   * allocation serves many items.
+   *
+   * @param style the style to apply
+   * @return the processor
+   */
+  public static @NonNull ColorProcessor<ByteBuffer> byteBuffers(@NonNull CompiledStyle style) {
+    if (style == CompiledStyle.IDENTITY) {
+      return new ColorProcessor<>(UnaryOperator.identity());
+    }
+    return new ColorProcessor<>(new ByteBufferColorizer(style));
+  }
+
+  @Override
+  public void subscribe(Flow.@NonNull Subscriber<? super T> subscriber) {
+    synchronized (lock) {
+      if (!subscribed) {
+        subscribed = true;
+        this.subscriber = subscriber;
+      } else {
+        subscriber.onSubscribe(Rejected.INSTANCE);
+        subscriber.onError(new IllegalStateException("The processor already has a subscriber"));
+        return;
+      }
+    }
+
+    subscriber.onSubscribe(new Link());
+
+    final boolean done;
+    final Throwable failure;
+    synchronized (lock) {
+      ready = true;
+      done = completed;
+      failure = error;
+    }
+    if (failure != null) {
+      subscriber.onError(failure);
+    } else if (done) {
+      subscriber.onComplete();
+    }
+  }
+
+  @Override
+  public void onSubscribe(Flow.@NonNull Subscription subscription) {
+    final long demand;
+    final boolean cancel;
+    synchronized (lock) {
+      if (upstream != null) {
+        cancel = true;
+        demand = 0;
+      } else {
+        upstream = subscription;
+        cancel = cancelled;
+        demand = pendingDemand;
+      }
+    }
+
+    if (cancel) {
+      subscription.cancel();
+    } else if (demand != 0) {
+      subscription.request(demand);
+    }
+  }
+
+  @Override
+  public void onNext(@NonNull T item) {
+    if (failed) {
+      return;
+    }
+    final Flow.Subscriber<? super T> downstream = subscriber;
+
+    final T colored;
+    try {
+      colored = colorizer.apply(item);
+    } catch (RuntimeException e) {
+      failed = true;
+      cancelUpstream();
+      onError(e);
+      return;
+    }
+    downstream.onNext(colored);
+  }
+
+  @Override
+  public void onError(@NonNull Throwable throwable) {
+    final Flow.Subscriber<? super T> downstream;
+    synchronized (lock) {
+      if (completed || error != null) {
+        return;
+      }
+      error = throwable;
+      downstream = ready ? subscriber : null;
+    }
+    if (downstream != null) {
+      downstream.onError(throwable);
+    }
+  }
+
+  @Override
+  public void onComplete() {
+    final Flow.Subscriber<? super T> downstream;
+    synchronized (lock) {
+      if (failed || completed || error != null) {
+        return;
+      }
+      completed = true;
+      downstream = ready ? subscriber : null;
+    }
+    if (downstream != null) {
+      downstream.onComplete();
+    }
+  }
+
+  private void cancelUpstream() {
+    final Flow.Subscription subscription;
+    synchronized (lock) {
+      cancelled = true;
+      subscription = upstream;
+    }
+    if (subscription != null) {
+      subscription.cancel();
+    }
+  }
+
+  /** The subscription of the subscriber, passing its demand upstream. */
+  private final class Link implements Flow.Subscription {
+
+    @Override
+    public void request(long n) {
+      final Flow.Subscription subscription;
+      synchronized (lock) {
+        subscription = upstream;
+        if (subscription == null) {
+          // Kept until the upstream subscription arrives; invalid requests are passed on as they
+          // are, for the publisher to report.
+          pendingDemand = n <= 0 || pendingDemand < 0 ? Math.min(n, pendingDemand) : sum(n);
+          return;
+        }
+      }
+      subscription.request(n);
+    }
+
+    @Override
+    public void cancel() {
+      cancelUpstream();
+    }
+
+    private long sum(long n) {
+      final long sum = pendingDemand + n;
+      return sum < 0 ? Long.MAX_VALUE : sum;
+    }
+  }
+
+  /** The subscription given to the subscribers that are turned away. */
+  private enum Rejected implements Flow.Subscription {
+    INSTANCE;
+
+    @Override
+    public void request(long n) {}
+
+    @Override
+    public void cancel() {}
+  }
+
+  /**
+   * Colors UTF-8 encoded byte buffers into slices of shared chunks. Only called from {@code
+   * onNext}, whose calls never overlap.
+   */
+  private static final class ByteBufferColorizer implements UnaryOperator<ByteBuffer> {
+
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    /** Room for the sequences, assumed before the first attempt to color an item. */
+    private static final int SEQUENCE_ROOM = 64;
+
+    private final CompiledStyle style;
+    private ByteBuffer chunk = ByteBuffer.allocate(0);
+    private byte[] copy = new byte[0];
+
+    ByteBufferColorizer(@NonNull CompiledStyle style) {
+      this.style = style;
+    }
+
+    @Override
+    public @NonNull ByteBuffer apply(@NonNull ByteBuffer item) {
+      final byte[] array;
+      final int offset;
+      final int length = item.remaining();
+      if (item.hasArray()) {
+        array = item.array();
+        offset = item.arrayOffset() + item.position();
+      } else {
+        if (copy.length < length) {
+          copy = new byte[Math.max(length, copy.length * 2)];
+        }
+        item.duplicate().get(copy, 0, length);
+        array = copy;
+        offset = 0;
+      }
+
+      int room = length + SEQUENCE_ROOM;
+      while (true) {
+        if (chunk.remaining() < room) {
+          chunk = ByteBuffer.allocate(Math.max(CHUNK_SIZE, room));
+        }
+        final int start = chunk.position();
+        try {
+          style.apply(array, offset, length, chunk);
+        } catch (BufferOverflowException e) {
+          room = Math.max(room * 2, chunk.remaining() + 1);
+          continue;
+        }
+        return chunk.duplicate().position(start).limit(chunk.position()).slice();
+      }
+    }
+  }
+}
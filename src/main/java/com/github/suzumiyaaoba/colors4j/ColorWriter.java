@@ -0,0 +1,215 @@
+package com.github.suzumiyaaoba.colors4j;
+
+import java.io.IOException;
+import java.io.Writer;
+import org.jspecify.annotations.NonNull;
+
+/**
+ * ColorWriter class.
+ *
+ * <p>A writer that applies a style to all text streamed through it. The open sequence is written
+ * before the first character, close sequences found in the text are rewritten as they pass, and
+ * the close sequence is written by {@link #finish()} or {@link #close()}. The output is the same as
+ * applying the style to the whole text at once, but only a few characters are held back at any
+ * time, however much text is written, even when a close sequence is split between two writes.
+ *
+ * <p>This class is not thread-safe.
+ */
+public class ColorWriter extends Writer {
+
+  private final Writer out;
+  private final Format[] formats;
+  private final Layer[] layers;
+  private final Writer head;
+
+  private boolean started;
+  private boolean finished;
+
+  /**
+   * Creates a new writer that applies the given style to everything written to it.
+   *
+   * @param out the writer to write the formatted text to
+   * @param style the style to apply
+   */
+  public ColorWriter(@NonNull Writer out, @NonNull CompiledStyle style) {
+    this.out = out;
+    this.formats = style.layers();
+    this.layers = new Layer[formats.length];
+
+    Writer writer = out;
+    for (int i = 0; i < formats.length; i++) {
+      layers[i] = new Layer(writer, formats[i]);
+      writer = layers[i];
+    }
+    this.head = writer;
+  }
+
+  @Override
+  public void write(int c) throws IOException {
+    start();
+    head.write(c);
+  }
+
+  @Override
+  public void write(char @NonNull [] cbuf, int off, int len) throws IOException {
+    start();
+    head.write(cbuf, off, len);
+  }
+
+  @Override
+  public void write(@NonNull String str, int off, int len) throws IOException {
+    start();
+    head.write(str, off, len);
+  }
+
+  /**
+   * Flushes the underlying writer. A partial close sequence at the end of the text written so far
+   * is held back until the next write completes or refutes it.
+   *
+   * @throws IOException if an I/O error occurs
+   */
+  @Override
+  public void flush() throws IOException {
+    out.flush();
+  }
+
+  /**
+   * Writes the close sequence of the style and flushes the underlying writer without closing it.
+   * Nothing can be written after this method has been called.
+   *
+   * @throws IOException if an I/O error occurs
+   */
+  public void finish() throws IOException {
+    if (finished) {
+      return;
+    }
+    start();
+    finished = true;
+
+    for (int i = layers.length - 1; i >= 0; i--) {
+      layers[i].finish();
+    }
+    out.flush();
+  }
+
+  /**
+   * Writes the close sequence of the style and closes the underlying writer.
+   *
+   * @throws IOException if an I/O error occurs
+   */
+  @Override
+  public void close() throws IOException {
+    try {
+      finish();
+    } finally {
+      out.close();
+    }
+  }
+
+  private void start() throws IOException {
+    if (finished) {
+      throw new IOException("Style already finished");
+    }
+    if (started) {
+      return;
+    }
+    started = true;
+
+    Writer writer = out;
+    for (int i = 0; i < formats.length; i++) {
+      writer.write(formats[i].open());
+      writer = layers[i];
+    }
+  }
+
+  /**
+   * One layer of a style, which rewrites its close sequence in the text passing through it. The
+   * first {@link Format#fromIndex()} characters are not searched, like {@link Format#apply(String)}
+   * does.
+   */
+  private static final class Layer extends Writer {
+
+    private final Writer next;
+    private final String close;
+    private final String replace;
+    private final int skip;
+
+    private long position;
+    private long matchStart;
+    private int matched;
+
+    Layer(@NonNull Writer next, @NonNull Format format) {
+      this.next = next;
+      this.close = format.close();
+      this.replace = format.replace();
+      this.skip = format.fromIndex();
+    }
+
+    @Override
+    public void write(char @NonNull [] cbuf, int off, int len) throws IOException {
+      final int end = off + len;
+      int i = off;
+
+      while (i < end) {
+        if (matched > 0) {
+          if (cbuf[i] != close.charAt(matched)) {
+            next.write(close, 0, matched);
+            matched = 0;
+            continue;
+          }
+          matched++;
+          position++;
+          i++;
+          if (matched == close.length()) {
+            next.write(matchStart >= skip ? replace : close);
+            matched = 0;
+          }
+        } else {
+          final int esc = indexOf(cbuf, i, end);
+          final int stop = esc == -1 ? end : esc;
+
+          next.write(cbuf, i, stop - i);
+          position += stop - i;
+          i = stop;
+          if (esc != -1) {
+            matchStart = position++;
+            matched = 1;
+            i++;
+          }
+        }
+      }
+    }
+
+    /**
+     * Writes any partial close sequence held back and the close sequence of this layer.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    void finish() throws IOException {
+      if (matched > 0) {
+        next.write(close, 0, matched);
+        matched = 0;
+      }
+      next.write(close);
+    }
+
+    @Override
+    public void flush() throws IOException {
+      next.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+      next.close();
+    }
+
+    private static int indexOf(char @NonNull [] cbuf, int fromIndex, int toIndex) {
+      for (int i = fromIndex; i < toIndex; i++) {
+        if (cbuf[i] == EscapeScanner.ESC) {
+          return i;
+        }
+      }
+      return -1;
+    }
+  }
+}
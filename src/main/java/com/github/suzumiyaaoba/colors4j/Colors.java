@@ -1,9 +1,14 @@
 package com.github.suzumiyaaoba.colors4j;
 
-import java.util.function.BiFunction;
-import java.util.function.UnaryOperator;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collector;
 import org.jspecify.annotations.NonNull;
-import org.jspecify.annotations.Nullable;
 
 /**
  * Colors class.
@@ -15,79 +20,108 @@ import org.jspecify.annotations.Nullable;
  */
 public class Colors {
 
-  private boolean isColorSupported;
-
-  private @Nullable UnaryOperator<String> reset;
-  private @Nullable UnaryOperator<String> bold;
-  private @Nullable UnaryOperator<String> dim;
-  private @Nullable UnaryOperator<String> italic;
-  private @Nullable UnaryOperator<String> underline;
-  private @Nullable UnaryOperator<String> inverse;
-  private @Nullable UnaryOperator<String> hidden;
-  private @Nullable UnaryOperator<String> strikethrough;
-  private @Nullable UnaryOperator<String> black;
-  private @Nullable UnaryOperator<String> red;
-  private @Nullable UnaryOperator<String> green;
-  private @Nullable UnaryOperator<String> yellow;
-  private @Nullable UnaryOperator<String> blue;
-  private @Nullable UnaryOperator<String> magenta;
-  private @Nullable UnaryOperator<String> cyan;
-  private @Nullable UnaryOperator<String> white;
-  private @Nullable UnaryOperator<String> gray;
-  private @Nullable UnaryOperator<String> bgBlack;
-  private @Nullable UnaryOperator<String> bgRed;
-  private @Nullable UnaryOperator<String> bgGreen;
-  private @Nullable UnaryOperator<String> bgYellow;
-  private @Nullable UnaryOperator<String> bgBlue;
-  private @Nullable UnaryOperator<String> bgMagenta;
-  private @Nullable UnaryOperator<String> bgCyan;
-  private @Nullable UnaryOperator<String> bgWhite;
-
-  /**
-   * Create a new Colors instance.
+  private static final String[] OPENS;
+  private static final String[] CLOSES;
+  private static final String[] REPLACES;
+
+  static {
+    final Style[] styles = Style.values();
+
+    OPENS = new String[styles.length];
+    CLOSES = new String[styles.length];
+    REPLACES = new String[styles.length];
+    for (Style style : styles) {
+      OPENS[style.ordinal()] = style.open();
+      CLOSES[style.ordinal()] = style.close();
+      REPLACES[style.ordinal()] = style.replace();
+    }
+  }
+
+  /** The number of strings from which bulk operations are split across the common pool. */
+  static final int PARALLEL_THRESHOLD = 8192;
+
+  private static final Colors ENABLED = new Colors(ColorDepth.TRUECOLOR);
+  private static final Colors DISABLED = new Colors(ColorDepth.NONE);
+  private static final Colors ANSI_256 = new Colors(ColorDepth.ANSI_256);
+  private static final Colors ANSI_16 = new Colors(ColorDepth.ANSI_16);
+
+  private final boolean isColorSupported;
+  private final ColorDepth colorDepth;
+
+  /**
+   * Creates a new Colors instance.
+   *
+   * @param isColorSupported true if color is supported, false otherwise
+   */
+  Colors(boolean isColorSupported) {
+    this(isColorSupported ? ColorDepth.TRUECOLOR : ColorDepth.NONE);
+  }
+
+  /**
+   * Creates a new Colors instance.
+   *
+   * @param colorDepth the number of colors the terminal can display
+   */
+  Colors(@NonNull ColorDepth colorDepth) {
+    this.isColorSupported = colorDepth != ColorDepth.NONE;
+    this.colorDepth = colorDepth;
+  }
+
+  /**
+   * Returns a Colors instance.
+   *
+   * <p>Instances are immutable, so the same shared instance is returned for each mode.
    *
    * @param isColorSupported true if color is supported, false otherwise
-   * @return a new Colors instance
+   * @return the Colors instance
    */
   public static @NonNull Colors createColors(boolean isColorSupported) {
-    BiFunction<String, String, UnaryOperator<String>> init =
-        isColorSupported
-            ? (open, close) -> Utils.format(open, close, open)
-            : (open, close) -> UnaryOperator.identity();
-
-    return new Colors()
-        .setColorSupported(isColorSupported)
-        .setReset(init.apply("\u001B[0m", "\u001B[0m"))
-        .setBold(
-            isColorSupported
-                ? Utils.format("\u001B[1m", "\u001B[22m", "\u001B[22m\u001B[1m")
-                : UnaryOperator.identity())
-        .setDim(
-            isColorSupported
-                ? Utils.format("\u001B[2m", "\u001B[22m", "\u001B[22m\u001B[2m")
-                : UnaryOperator.identity())
-        .setItalic(init.apply("\u001B[3m", "\u001B[23m"))
-        .setUnderline(init.apply("\u001B[4m", "\u001B[24m"))
-        .setInverse(init.apply("\u001B[7m", "\u001B[27m"))
-        .setHidden(init.apply("\u001B[8m", "\u001B[28m"))
-        .setStrikethrough(init.apply("\u001B[9m", "\u001B[29m"))
-        .setBlack(init.apply("\u001B[30m", "\u001B[39m"))
-        .setRed(init.apply("\u001B[31m", "\u001B[39m"))
-        .setGreen(init.apply("\u001B[32m", "\u001B[39m"))
-        .setYellow(init.apply("\u001B[33m", "\u001B[39m"))
-        .setBlue(init.apply("\u001B[34m", "\u001B[39m"))
-        .setMagenta(init.apply("\u001B[35m", "\u001B[39m"))
-        .setCyan(init.apply("\u001B[36m", "\u001B[39m"))
-        .setWhite(init.apply("\u001B[37m", "\u001B[39m"))
-        .setGray(init.apply("\u001B[90m", "\u001B[39m"))
-        .setBgBlack(init.apply("\u001B[40m", "\u001B[49m"))
-        .setBgRed(init.apply("\u001B[41m", "\u001B[49m"))
-        .setBgGreen(init.apply("\u001B[42m", "\u001B[49m"))
-        .setBgYellow(init.apply("\u001B[43m", "\u001B[49m"))
-        .setBgBlue(init.apply("\u001B[44m", "\u001B[49m"))
-        .setBgMagenta(init.apply("\u001B[45m", "\u001B[49m"))
-        .setBgCyan(init.apply("\u001B[46m", "\u001B[49m"))
-        .setBgWhite(init.apply("\u001B[47m", "\u001B[49m"));
+    return isColorSupported ? ENABLED : DISABLED;
+  }
+
+  /**
+   * Returns a Colors instance for a terminal with the given color depth.
+   *
+   * <p>256-color and truecolor styles are degraded to the nearest color the terminal can display,
+   * using precomputed lookup tables, so degrading costs no more than a table lookup. {@code
+   * createColors(ColorDepth.TRUECOLOR)} and {@code createColors(ColorDepth.NONE)} return the same
+   * instances as {@code createColors(true)} and {@code createColors(false)}.
+   *
+   * @param colorDepth the number of colors the terminal can display
+   * @return the Colors instance
+   */
+  public static @NonNull Colors createColors(@NonNull ColorDepth colorDepth) {
+    switch (colorDepth) {
+      case NONE:
+        return DISABLED;
+      case ANSI_16:
+        return ANSI_16;
+      case ANSI_256:
+        return ANSI_256;
+      default:
+        return ENABLED;
+    }
+  }
+
+  /**
+   * Returns the shared Colors instance for the terminal of this process.
+   *
+   * <p>The color depth is detected on the first call, from the {@code NO_COLOR}, {@code
+   * FORCE_COLOR}, {@code TERM} and {@code COLORTERM} environment variables, whether the process has
+   * a console and, for terminals the variables do not settle, the terminfo database. The result is
+   * kept, so later calls only return it:
+   *
+   * <ul>
+   *   <li>{@code NO_COLOR}, when not empty, turns colors off;
+   *   <li>{@code FORCE_COLOR} turns them on even when output is redirected, with at least 16, 256
+   *       ({@code 2}) or 16 million ({@code 3}) colors, or off ({@code 0});
+   *   <li>otherwise, without a console or with {@code TERM=dumb}, colors are off.
+   * </ul>
+   *
+   * @return the Colors instance
+   */
+  public static @NonNull Colors detect() {
+    return Detected.COLORS;
   }
 
   /**
@@ -99,9 +133,411 @@ public class Colors {
     return isColorSupported;
   }
 
-  Colors setColorSupported(boolean colorSupported) {
-    isColorSupported = colorSupported;
-    return this;
+  /**
+   * Returns the number of colors this instance formats with.
+   *
+   * @return the color depth
+   */
+  public @NonNull ColorDepth colorDepth() {
+    return colorDepth;
+  }
+
+  /**
+   * Applies the given style to the input string.
+   *
+   * @param style the style to apply
+   * @param input the input string to format
+   * @return the formatted string
+   */
+  public @NonNull String apply(@NonNull Style style, @NonNull String input) {
+    if (!isColorSupported) {
+      return input;
+    }
+
+    final int i = style.ordinal();
+    return Utils.apply(input, OPENS[i], CLOSES[i], REPLACES[i]);
+  }
+
+  /**
+   * Applies the given style to the input and appends the result to the given builder.
+   *
+   * @param style the style to apply
+   * @param input the input to format
+   * @param out the builder to append to
+   * @return the given builder
+   */
+  public @NonNull StringBuilder apply(
+      @NonNull Style style, @NonNull CharSequence input, @NonNull StringBuilder out) {
+    if (!isColorSupported) {
+      return out.append(input);
+    }
+
+    final int i = style.ordinal();
+    return Utils.apply(input, OPENS[i], CLOSES[i], REPLACES[i], out);
+  }
+
+  /**
+   * Applies the given style to the input and appends the result to the given appendable.
+   *
+   * @param style the style to apply
+   * @param input the input to format
+   * @param out the appendable to append to
+   * @return the given appendable
+   * @throws IOException if an I/O error occurs
+   */
+  public @NonNull Appendable apply(
+      @NonNull Style style, @NonNull CharSequence input, @NonNull Appendable out)
+      throws IOException {
+    if (!isColorSupported) {
+      return out.append(input);
+    }
+
+    final int i = style.ordinal();
+    return Utils.apply(input, OPENS[i], CLOSES[i], REPLACES[i], out);
+  }
+
+  /**
+   * Applies the given style to the input and puts the UTF-8 encoded result into the given buffer.
+   *
+   * @param style the style to apply
+   * @param input the input to format
+   * @param dst the buffer to put the formatted bytes into
+   * @return the given buffer
+   * @throws java.nio.BufferOverflowException if the buffer has not enough room, in which case its
+   *     position is left unchanged
+   */
+  public @NonNull ByteBuffer apply(
+      @NonNull Style style, @NonNull CharSequence input, @NonNull ByteBuffer dst) {
+    return (isColorSupported ? CompiledStyle.of(style) : CompiledStyle.IDENTITY).apply(input, dst);
+  }
+
+  /**
+   * Applies the given style to each of the input strings. The result is the same as applying the
+   * style to each string one at a time; large lists are formatted in parallel in the common
+   * fork-join pool.
+   *
+   * @param style the style to apply
+   * @param inputs the input strings to format
+   * @return a new list of the formatted strings, in the same order
+   */
+  public @NonNull List<String> applyAll(@NonNull Style style, @NonNull List<String> inputs) {
+    return Arrays.asList(applyAll(style, inputs.toArray(new String[0])));
+  }
+
+  /**
+   * Applies the given style to each of the input strings in place, replacing each string with its
+   * formatted form. The result is the same as applying the style to each string one at a time;
+   * large arrays are formatted in parallel in the common fork-join pool. Each string is formatted
+   * with {@link #apply(Style, String)}, so subclasses only need to override that.
+   *
+   * @param style the style to apply
+   * @param inputs the input strings to format
+   * @return the given array
+   */
+  public @NonNull String[] applyAll(@NonNull Style style, @NonNull String[] inputs) {
+    if (inputs.length < PARALLEL_THRESHOLD) {
+      for (int j = 0; j < inputs.length; j++) {
+        inputs[j] = apply(style, inputs[j]);
+      }
+    } else {
+      Arrays.parallelSetAll(inputs, j -> apply(style, inputs[j]));
+    }
+    return inputs;
+  }
+
+  /**
+   * Returns a collector that applies the given style to each string of a stream and collects the
+   * results into a list. Parallel streams are formatted in parallel.
+   *
+   * @param style the style to apply
+   * @return the collector
+   */
+  public @NonNull Collector<String, ?, List<String>> toStyledList(@NonNull Style style) {
+    return Collector.of(
+        ArrayList::new,
+        (list, input) -> list.add(apply(style, input)),
+        (left, right) -> {
+          left.addAll(right);
+          return left;
+        });
+  }
+
+  /**
+   * Returns text with the given style that is formatted only when it is rendered, for example with
+   * {@link StyledText#toString()}. The parts are joined, and may be styled text themselves; the
+   * result renders like applying the style to the joined parts, without building the intermediate
+   * strings.
+   *
+   * @param style the style to apply
+   * @param parts the parts of the text
+   * @return the styled text
+   */
+  public @NonNull StyledText styled(@NonNull Style style, @NonNull CharSequence... parts) {
+    return new StyledText(isColorSupported ? style : null, parts.clone());
+  }
+
+  /**
+   * Compiles several styles into a reusable style that applies them in one pass. The result is the
+   * same as nesting the corresponding style methods, the first style being the outermost; for
+   * example {@code style(Style.BOLD, Style.RED)} formats like {@code bold(red(input))}.
+   *
+   * @param styles the styles to combine
+   * @return the compiled style
+   */
+  public @NonNull CompiledStyle style(@NonNull Style... styles) {
+    if (!isColorSupported) {
+      return CompiledStyle.IDENTITY;
+    }
+    return styles.length == 1 ? CompiledStyle.of(styles[0]) : CompiledStyle.compile(styles);
+  }
+
+  /**
+   * Returns the compiled template for the given markup, such as {@code "<red>ERR</red> {}"}. See
+   * {@link Template} for the syntax. Compiled templates are cached, so calling this method with
+   * the same markup again is cheap; when colors are disabled, the tags are left out.
+   *
+   * @param markup the markup to compile
+   * @return the compiled template
+   * @throws IllegalArgumentException if the markup is malformed
+   */
+  public @NonNull Template template(@NonNull String markup) {
+    return Template.of(markup, isColorSupported);
+  }
+
+  /**
+   * Returns a new instance with the same color depth that counts the styles it applies, for
+   * example to find out how much of the output of an application is escape sequences. Each call
+   * returns an instance with its own counts; the instance this method is called on is not
+   * affected.
+   *
+   * @return the instrumented instance
+   */
+  public @NonNull InstrumentedColors instrumented() {
+    return new InstrumentedColors(colorDepth);
+  }
+
+  /**
+   * Returns a builder of a {@link Highlighter}, which colors the parts of lines matching a set of
+   * keywords and regular expressions in a single scan. The styles of the rules are compiled with
+   * this instance; when colors are disabled, the highlighter leaves lines unchanged.
+   *
+   * @return the builder
+   */
+  public Highlighter.@NonNull Builder highlighter() {
+    return new Highlighter.Builder(this);
+  }
+
+  /**
+   * Returns a theme mapping semantic names to styles, compiled with this instance. See {@link
+   * Theme} for the syntax of the definitions.
+   *
+   * @param definitions the style names of each semantic name, such as {@code "bold red"} for
+   *     {@code "error"}
+   * @return the theme
+   * @throws IllegalArgumentException if a style name is unknown
+   */
+  public @NonNull Theme theme(@NonNull Map<String, String> definitions) {
+    return new Theme(this, null, definitions);
+  }
+
+  /**
+   * Reads a theme mapping semantic names to styles from a properties file, and compiles it with
+   * this instance. See {@link Theme} for the syntax of the file.
+   *
+   * @param file the file defining the theme
+   * @return the theme
+   * @throws IOException if the file cannot be read
+   * @throws IllegalArgumentException if the file names an unknown style
+   */
+  public @NonNull Theme theme(@NonNull Path file) throws IOException {
+    return Theme.load(this, file, false);
+  }
+
+  /**
+   * Reads a theme like {@link #theme(Path)}, and reloads it whenever the file changes until the
+   * theme is closed.
+   *
+   * @param file the file defining the theme
+   * @return the theme
+   * @throws IOException if the file cannot be read or watched
+   * @throws IllegalArgumentException if the file names an unknown style
+   */
+  public @NonNull Theme watchTheme(@NonNull Path file) throws IOException {
+    return Theme.load(this, file, true);
+  }
+
+  /**
+   * Returns a new instance with the same color depth that caches the strings it formats, for
+   * applications that color the same short strings over and over. Each call returns an instance
+   * with its own cache.
+   *
+   * @param maximumSize the maximum number of strings to cache
+   * @param maximumLength the maximum length of the strings to cache; longer strings are formatted
+   *     on every call
+   * @return the caching instance
+   * @throws IllegalArgumentException if the size is not positive or the length is negative
+   */
+  public @NonNull CachingColors cached(int maximumSize, int maximumLength) {
+    if (maximumSize < 1) {
+      throw new IllegalArgumentException("maximumSize must be positive: " + maximumSize);
+    }
+    if (maximumLength < 0) {
+      throw new IllegalArgumentException("maximumLength must not be negative: " + maximumLength);
+    }
+    return new CachingColors(colorDepth, maximumSize, maximumLength);
+  }
+
+  /**
+   * Returns a renderer that appends text with per-character colors and attributes to the given
+   * builder, writing only the attributes that change. Colors are degraded to the color depth of
+   * this instance.
+   *
+   * @param out the builder to append to
+   * @return the renderer
+   */
+  public @NonNull SgrRenderer renderer(@NonNull StringBuilder out) {
+    return new SgrRenderer(colorDepth, out);
+  }
+
+  /**
+   * Colors the text with a foreground gradient, from one color at the first character to another
+   * at the last. Whitespace keeps the color of the character before it, since its color cannot be
+   * seen, and neighbouring characters of the same color share one sequence.
+   *
+   * @param text the text to color
+   * @param from the color of the first character, as {@code 0xRRGGBB}
+   * @param to the color of the last character, as {@code 0xRRGGBB}
+   * @return the colored text
+   */
+  public @NonNull String gradient(@NonNull CharSequence text, int from, int to) {
+    final SgrRenderer renderer = renderer(new StringBuilder(text.length() * 8));
+    final int count = Character.codePointCount(text, 0, text.length());
+
+    int index = 0;
+    for (int i = 0; i < text.length(); ) {
+      final int codePoint = Character.codePointAt(text, i);
+      if (!Character.isWhitespace(codePoint)) {
+        renderer.foreground(interpolate(from, to, index, count - 1));
+      }
+      renderer.appendCodePoint(codePoint);
+      i += Character.charCount(codePoint);
+      index++;
+    }
+    return renderer.finish().toString();
+  }
+
+  private static int interpolate(int from, int to, int step, int steps) {
+    if (steps == 0) {
+      return from;
+    }
+
+    int rgb = 0;
+    for (int shift = 16; shift >= 0; shift -= 8) {
+      final int a = from >>> shift & 0xFF;
+      final int b = to >>> shift & 0xFF;
+      rgb |= a + (b - a) * step / steps << shift;
+    }
+    return rgb;
+  }
+
+  /**
+   * Returns the style for one of the 256 indexed foreground colors. The styles are compiled once
+   * and shared; with {@link ColorDepth#ANSI_16} the nearest basic color is used.
+   *
+   * @param index the color index, from 0 to 255
+   * @return the compiled style
+   * @throws IllegalArgumentException if the index is out of range
+   */
+  public @NonNull CompiledStyle fg256(int index) {
+    return indexed(Palette.checkByte(index, "index"), false);
+  }
+
+  /**
+   * Returns the style for one of the 256 indexed background colors. The styles are compiled once
+   * and shared; with {@link ColorDepth#ANSI_16} the nearest basic color is used.
+   *
+   * @param index the color index, from 0 to 255
+   * @return the compiled style
+   * @throws IllegalArgumentException if the index is out of range
+   */
+  public @NonNull CompiledStyle bg256(int index) {
+    return indexed(Palette.checkByte(index, "index"), true);
+  }
+
+  /**
+   * Returns the style for a truecolor foreground color. Recently used colors are served from a
+   * bounded cache; with a lower color depth the nearest color that can be displayed is used.
+   *
+   * @param r the red component, from 0 to 255
+   * @param g the green component, from 0 to 255
+   * @param b the blue component, from 0 to 255
+   * @return the compiled style
+   * @throws IllegalArgumentException if a component is out of range
+   */
+  public @NonNull CompiledStyle rgb(int r, int g, int b) {
+    return truecolor(Palette.pack(r, g, b), false);
+  }
+
+  /**
+   * Returns the style for a truecolor background color. Recently used colors are served from a
+   * bounded cache; with a lower color depth the nearest color that can be displayed is used.
+   *
+   * @param r the red component, from 0 to 255
+   * @param g the green component, from 0 to 255
+   * @param b the blue component, from 0 to 255
+   * @return the compiled style
+   * @throws IllegalArgumentException if a component is out of range
+   */
+  public @NonNull CompiledStyle bgRgb(int r, int g, int b) {
+    return truecolor(Palette.pack(r, g, b), true);
+  }
+
+  /**
+   * Returns the style for a truecolor foreground color written as {@code #rrggbb} or {@code #rgb},
+   * degraded like {@link #rgb(int, int, int)}.
+   *
+   * @param hex the color, with or without the leading {@code #}
+   * @return the compiled style
+   * @throws IllegalArgumentException if the color is malformed
+   */
+  public @NonNull CompiledStyle hex(@NonNull CharSequence hex) {
+    return truecolor(Palette.parseHex(hex), false);
+  }
+
+  /**
+   * Returns the style for a truecolor background color written as {@code #rrggbb} or {@code #rgb},
+   * degraded like {@link #rgb(int, int, int)}.
+   *
+   * @param hex the color, with or without the leading {@code #}
+   * @return the compiled style
+   * @throws IllegalArgumentException if the color is malformed
+   */
+  public @NonNull CompiledStyle bgHex(@NonNull CharSequence hex) {
+    return truecolor(Palette.parseHex(hex), true);
+  }
+
+  private @NonNull CompiledStyle indexed(int index, boolean background) {
+    switch (colorDepth) {
+      case NONE:
+        return CompiledStyle.IDENTITY;
+      case ANSI_16:
+        return Palette.basic(Quantizer.indexedTo16(index), background);
+      default:
+        return Palette.indexed(index, background);
+    }
+  }
+
+  private @NonNull CompiledStyle truecolor(int rgb, boolean background) {
+    switch (colorDepth) {
+      case NONE:
+        return CompiledStyle.IDENTITY;
+      case ANSI_16:
+        return Palette.basic(Quantizer.to16(rgb), background);
+      case ANSI_256:
+        return Palette.indexed(Quantizer.to256(rgb), background);
+      default:
+        return Palette.rgb(rgb, background);
+    }
   }
 
   /**
@@ -111,12 +547,31 @@ public class Colors {
    * @return the formatted string with reset formatting
    */
   public @NonNull String reset(@NonNull String input) {
-    return reset.apply(input);
+    return apply(Style.RESET, input);
   }
 
-  @NonNull Colors setReset(@NonNull UnaryOperator<String> reset) {
-    this.reset = reset;
-    return this;
+  /**
+   * Resets all text formatting to default and appends the result to the given builder.
+   *
+   * @param input the input to format
+   * @param out the builder to append to
+   * @return the given builder
+   */
+  public @NonNull StringBuilder reset(@NonNull CharSequence input, @NonNull StringBuilder out) {
+    return apply(Style.RESET, input, out);
+  }
+
+  /**
+   * Resets all text formatting to default and appends the result to the given appendable.
+   *
+   * @param input the input to format
+   * @param out the appendable to append to
+   * @return the given appendable
+   * @throws IOException if an I/O error occurs
+   */
+  public @NonNull Appendable reset(@NonNull CharSequence input, @NonNull Appendable out)
+      throws IOException {
+    return apply(Style.RESET, input, out);
   }
 
   /**
@@ -126,12 +581,31 @@ public class Colors {
    * @return the formatted string with bold styling
    */
   public @NonNull String bold(@NonNull String input) {
-    return bold.apply(input);
+    return apply(Style.BOLD, input);
   }
 
-  @NonNull Colors setBold(@NonNull UnaryOperator<String> bold) {
-    this.bold = bold;
-    return this;
+  /**
+   * Applies bold formatting to the input and appends the result to the given builder.
+   *
+   * @param input the input to format
+   * @param out the builder to append to
+   * @return the given builder
+   */
+  public @NonNull StringBuilder bold(@NonNull CharSequence input, @NonNull StringBuilder out) {
+    return apply(Style.BOLD, input, out);
+  }
+
+  /**
+   * Applies bold formatting to the input and appends the result to the given appendable.
+   *
+   * @param input the input to format
+   * @param out the appendable to append to
+   * @return the given appendable
+   * @throws IOException if an I/O error occurs
+   */
+  public @NonNull Appendable bold(@NonNull CharSequence input, @NonNull Appendable out)
+      throws IOException {
+    return apply(Style.BOLD, input, out);
   }
 
   /**
@@ -141,12 +615,31 @@ public class Colors {
    * @return the formatted string with dim styling
    */
   public @NonNull String dim(@NonNull String input) {
-    return dim.apply(input);
+    return apply(Style.DIM, input);
   }
 
-  @NonNull Colors setDim(@NonNull UnaryOperator<String> dim) {
-    this.dim = dim;
-    return this;
+  /**
+   * Applies dim (faint) formatting to the input and appends the result to the given builder.
+   *
+   * @param input the input to format
+   * @param out the builder to append to
+   * @return the given builder
+   */
+  public @NonNull StringBuilder dim(@NonNull CharSequence input, @NonNull StringBuilder out) {
+    return apply(Style.DIM, input, out);
+  }
+
+  /**
+   * Applies dim (faint) formatting to the input and appends the result to the given appendable.
+   *
+   * @param input the input to format
+   * @param out the appendable to append to
+   * @return the given appendable
+   * @throws IOException if an I/O error occurs
+   */
+  public @NonNull Appendable dim(@NonNull CharSequence input, @NonNull Appendable out)
+      throws IOException {
+    return apply(Style.DIM, input, out);
   }
 
   /**
@@ -156,12 +649,31 @@ public class Colors {
    * @return the formatted string with italic styling
    */
   public @NonNull String italic(@NonNull String input) {
-    return italic.apply(input);
+    return apply(Style.ITALIC, input);
   }
 
-  @NonNull Colors setItalic(@NonNull UnaryOperator<String> italic) {
-    this.italic = italic;
-    return this;
+  /**
+   * Applies italic formatting to the input and appends the result to the given builder.
+   *
+   * @param input the input to format
+   * @param out the builder to append to
+   * @return the given builder
+   */
+  public @NonNull StringBuilder italic(@NonNull CharSequence input, @NonNull StringBuilder out) {
+    return apply(Style.ITALIC, input, out);
+  }
+
+  /**
+   * Applies italic formatting to the input and appends the result to the given appendable.
+   *
+   * @param input the input to format
+   * @param out the appendable to append to
+   * @return the given appendable
+   * @throws IOException if an I/O error occurs
+   */
+  public @NonNull Appendable italic(@NonNull CharSequence input, @NonNull Appendable out)
+      throws IOException {
+    return apply(Style.ITALIC, input, out);
   }
 
   /**
@@ -171,12 +683,31 @@ public class Colors {
    * @return the formatted string with underline styling
    */
   public @NonNull String underline(@NonNull String input) {
-    return underline.apply(input);
+    return apply(Style.UNDERLINE, input);
+  }
+
+  /**
+   * Applies underline formatting to the input and appends the result to the given builder.
+   *
+   * @param input the input to format
+   * @param out the builder to append to
+   * @return the given builder
+   */
+  public @NonNull StringBuilder underline(@NonNull CharSequence input, @NonNull StringBuilder out) {
+    return apply(Style.UNDERLINE, input, out);
   }
 
-  @NonNull Colors setUnderline(@NonNull UnaryOperator<String> underline) {
-    this.underline = underline;
-    return this;
+  /**
+   * Applies underline formatting to the input and appends the result to the given appendable.
+   *
+   * @param input the input to format
+   * @param out the appendable to append to
+   * @return the given appendable
+   * @throws IOException if an I/O error occurs
+   */
+  public @NonNull Appendable underline(@NonNull CharSequence input, @NonNull Appendable out)
+      throws IOException {
+    return apply(Style.UNDERLINE, input, out);
   }
 
   /**
@@ -187,12 +718,32 @@ public class Colors {
    * @return the formatted string with inverse styling
    */
   public @NonNull String inverse(@NonNull String input) {
-    return inverse.apply(input);
+    return apply(Style.INVERSE, input);
   }
 
-  @NonNull Colors setInverse(@NonNull UnaryOperator<String> inverse) {
-    this.inverse = inverse;
-    return this;
+  /**
+   * Applies inverse (reverse) formatting to the input and appends the result to the given builder.
+   *
+   * @param input the input to format
+   * @param out the builder to append to
+   * @return the given builder
+   */
+  public @NonNull StringBuilder inverse(@NonNull CharSequence input, @NonNull StringBuilder out) {
+    return apply(Style.INVERSE, input, out);
+  }
+
+  /**
+   * Applies inverse (reverse) formatting to the input and appends the result to the given
+   * appendable.
+   *
+   * @param input the input to format
+   * @param out the appendable to append to
+   * @return the given appendable
+   * @throws IOException if an I/O error occurs
+   */
+  public @NonNull Appendable inverse(@NonNull CharSequence input, @NonNull Appendable out)
+      throws IOException {
+    return apply(Style.INVERSE, input, out);
   }
 
   /**
@@ -202,12 +753,32 @@ public class Colors {
    * @return the formatted string with hidden styling
    */
   public @NonNull String hidden(@NonNull String input) {
-    return hidden.apply(input);
+    return apply(Style.HIDDEN, input);
   }
 
-  @NonNull Colors setHidden(@NonNull UnaryOperator<String> hidden) {
-    this.hidden = hidden;
-    return this;
+  /**
+   * Applies hidden (invisible) formatting to the input and appends the result to the given builder.
+   *
+   * @param input the input to format
+   * @param out the builder to append to
+   * @return the given builder
+   */
+  public @NonNull StringBuilder hidden(@NonNull CharSequence input, @NonNull StringBuilder out) {
+    return apply(Style.HIDDEN, input, out);
+  }
+
+  /**
+   * Applies hidden (invisible) formatting to the input and appends the result to the given
+   * appendable.
+   *
+   * @param input the input to format
+   * @param out the appendable to append to
+   * @return the given appendable
+   * @throws IOException if an I/O error occurs
+   */
+  public @NonNull Appendable hidden(@NonNull CharSequence input, @NonNull Appendable out)
+      throws IOException {
+    return apply(Style.HIDDEN, input, out);
   }
 
   /**
@@ -217,12 +788,32 @@ public class Colors {
    * @return the formatted string with strikethrough styling
    */
   public @NonNull String strikethrough(@NonNull String input) {
-    return strikethrough.apply(input);
+    return apply(Style.STRIKETHROUGH, input);
   }
 
-  @NonNull Colors setStrikethrough(@NonNull UnaryOperator<String> strikethrough) {
-    this.strikethrough = strikethrough;
-    return this;
+  /**
+   * Applies strikethrough formatting to the input and appends the result to the given builder.
+   *
+   * @param input the input to format
+   * @param out the builder to append to
+   * @return the given builder
+   */
+  public @NonNull StringBuilder strikethrough(
+      @NonNull CharSequence input, @NonNull StringBuilder out) {
+    return apply(Style.STRIKETHROUGH, input, out);
+  }
+
+  /**
+   * Applies strikethrough formatting to the input and appends the result to the given appendable.
+   *
+   * @param input the input to format
+   * @param out the appendable to append to
+   * @return the given appendable
+   * @throws IOException if an I/O error occurs
+   */
+  public @NonNull Appendable strikethrough(@NonNull CharSequence input, @NonNull Appendable out)
+      throws IOException {
+    return apply(Style.STRIKETHROUGH, input, out);
   }
 
   /**
@@ -232,12 +823,31 @@ public class Colors {
    * @return the formatted string with black color
    */
   public @NonNull String black(@NonNull String input) {
-    return black.apply(input);
+    return apply(Style.BLACK, input);
   }
 
-  @NonNull Colors setBlack(@NonNull UnaryOperator<String> black) {
-    this.black = black;
-    return this;
+  /**
+   * Applies black foreground color to the input and appends the result to the given builder.
+   *
+   * @param input the input to format
+   * @param out the builder to append to
+   * @return the given builder
+   */
+  public @NonNull StringBuilder black(@NonNull CharSequence input, @NonNull StringBuilder out) {
+    return apply(Style.BLACK, input, out);
+  }
+
+  /**
+   * Applies black foreground color to the input and appends the result to the given appendable.
+   *
+   * @param input the input to format
+   * @param out the appendable to append to
+   * @return the given appendable
+   * @throws IOException if an I/O error occurs
+   */
+  public @NonNull Appendable black(@NonNull CharSequence input, @NonNull Appendable out)
+      throws IOException {
+    return apply(Style.BLACK, input, out);
   }
 
   /**
@@ -247,12 +857,31 @@ public class Colors {
    * @return the formatted string with red color
    */
   public @NonNull String red(@NonNull String input) {
-    return red.apply(input);
+    return apply(Style.RED, input);
   }
 
-  @NonNull Colors setRed(@NonNull UnaryOperator<String> red) {
-    this.red = red;
-    return this;
+  /**
+   * Applies red foreground color to the input and appends the result to the given builder.
+   *
+   * @param input the input to format
+   * @param out the builder to append to
+   * @return the given builder
+   */
+  public @NonNull StringBuilder red(@NonNull CharSequence input, @NonNull StringBuilder out) {
+    return apply(Style.RED, input, out);
+  }
+
+  /**
+   * Applies red foreground color to the input and appends the result to the given appendable.
+   *
+   * @param input the input to format
+   * @param out the appendable to append to
+   * @return the given appendable
+   * @throws IOException if an I/O error occurs
+   */
+  public @NonNull Appendable red(@NonNull CharSequence input, @NonNull Appendable out)
+      throws IOException {
+    return apply(Style.RED, input, out);
   }
 
   /**
@@ -262,12 +891,31 @@ public class Colors {
    * @return the formatted string with green color
    */
   public @NonNull String green(@NonNull String input) {
-    return green.apply(input);
+    return apply(Style.GREEN, input);
   }
 
-  @NonNull Colors setGreen(@NonNull UnaryOperator<String> green) {
-    this.green = green;
-    return this;
+  /**
+   * Applies green foreground color to the input and appends the result to the given builder.
+   *
+   * @param input the input to format
+   * @param out the builder to append to
+   * @return the given builder
+   */
+  public @NonNull StringBuilder green(@NonNull CharSequence input, @NonNull StringBuilder out) {
+    return apply(Style.GREEN, input, out);
+  }
+
+  /**
+   * Applies green foreground color to the input and appends the result to the given appendable.
+   *
+   * @param input the input to format
+   * @param out the appendable to append to
+   * @return the given appendable
+   * @throws IOException if an I/O error occurs
+   */
+  public @NonNull Appendable green(@NonNull CharSequence input, @NonNull Appendable out)
+      throws IOException {
+    return apply(Style.GREEN, input, out);
   }
 
   /**
@@ -277,12 +925,31 @@ public class Colors {
    * @return the formatted string with yellow color
    */
   public @NonNull String yellow(@NonNull String input) {
-    return yellow.apply(input);
+    return apply(Style.YELLOW, input);
   }
 
-  @NonNull Colors setYellow(@NonNull UnaryOperator<String> yellow) {
-    this.yellow = yellow;
-    return this;
+  /**
+   * Applies yellow foreground color to the input and appends the result to the given builder.
+   *
+   * @param input the input to format
+   * @param out the builder to append to
+   * @return the given builder
+   */
+  public @NonNull StringBuilder yellow(@NonNull CharSequence input, @NonNull StringBuilder out) {
+    return apply(Style.YELLOW, input, out);
+  }
+
+  /**
+   * Applies yellow foreground color to the input and appends the result to the given appendable.
+   *
+   * @param input the input to format
+   * @param out the appendable to append to
+   * @return the given appendable
+   * @throws IOException if an I/O error occurs
+   */
+  public @NonNull Appendable yellow(@NonNull CharSequence input, @NonNull Appendable out)
+      throws IOException {
+    return apply(Style.YELLOW, input, out);
   }
 
   /**
@@ -292,12 +959,31 @@ public class Colors {
    * @return the formatted string with blue color
    */
   public @NonNull String blue(@NonNull String input) {
-    return blue.apply(input);
+    return apply(Style.BLUE, input);
   }
 
-  @NonNull Colors setBlue(@NonNull UnaryOperator<String> blue) {
-    this.blue = blue;
-    return this;
+  /**
+   * Applies blue foreground color to the input and appends the result to the given builder.
+   *
+   * @param input the input to format
+   * @param out the builder to append to
+   * @return the given builder
+   */
+  public @NonNull StringBuilder blue(@NonNull CharSequence input, @NonNull StringBuilder out) {
+    return apply(Style.BLUE, input, out);
+  }
+
+  /**
+   * Applies blue foreground color to the input and appends the result to the given appendable.
+   *
+   * @param input the input to format
+   * @param out the appendable to append to
+   * @return the given appendable
+   * @throws IOException if an I/O error occurs
+   */
+  public @NonNull Appendable blue(@NonNull CharSequence input, @NonNull Appendable out)
+      throws IOException {
+    return apply(Style.BLUE, input, out);
   }
 
   /**
@@ -307,12 +993,31 @@ public class Colors {
    * @return the formatted string with magenta color
    */
   public @NonNull String magenta(@NonNull String input) {
-    return magenta.apply(input);
+    return apply(Style.MAGENTA, input);
   }
 
-  @NonNull Colors setMagenta(@NonNull UnaryOperator<String> magenta) {
-    this.magenta = magenta;
-    return this;
+  /**
+   * Applies magenta foreground color to the input and appends the result to the given builder.
+   *
+   * @param input the input to format
+   * @param out the builder to append to
+   * @return the given builder
+   */
+  public @NonNull StringBuilder magenta(@NonNull CharSequence input, @NonNull StringBuilder out) {
+    return apply(Style.MAGENTA, input, out);
+  }
+
+  /**
+   * Applies magenta foreground color to the input and appends the result to the given appendable.
+   *
+   * @param input the input to format
+   * @param out the appendable to append to
+   * @return the given appendable
+   * @throws IOException if an I/O error occurs
+   */
+  public @NonNull Appendable magenta(@NonNull CharSequence input, @NonNull Appendable out)
+      throws IOException {
+    return apply(Style.MAGENTA, input, out);
   }
 
   /**
@@ -322,12 +1027,31 @@ public class Colors {
    * @return the formatted string with cyan color
    */
   public @NonNull String cyan(@NonNull String input) {
-    return cyan.apply(input);
+    return apply(Style.CYAN, input);
+  }
+
+  /**
+   * Applies cyan foreground color to the input and appends the result to the given builder.
+   *
+   * @param input the input to format
+   * @param out the builder to append to
+   * @return the given builder
+   */
+  public @NonNull StringBuilder cyan(@NonNull CharSequence input, @NonNull StringBuilder out) {
+    return apply(Style.CYAN, input, out);
   }
 
-  @NonNull Colors setCyan(@NonNull UnaryOperator<String> cyan) {
-    this.cyan = cyan;
-    return this;
+  /**
+   * Applies cyan foreground color to the input and appends the result to the given appendable.
+   *
+   * @param input the input to format
+   * @param out the appendable to append to
+   * @return the given appendable
+   * @throws IOException if an I/O error occurs
+   */
+  public @NonNull Appendable cyan(@NonNull CharSequence input, @NonNull Appendable out)
+      throws IOException {
+    return apply(Style.CYAN, input, out);
   }
 
   /**
@@ -337,12 +1061,31 @@ public class Colors {
    * @return the formatted string with white color
    */
   public @NonNull String white(@NonNull String input) {
-    return white.apply(input);
+    return apply(Style.WHITE, input);
   }
 
-  @NonNull Colors setWhite(@NonNull UnaryOperator<String> white) {
-    this.white = white;
-    return this;
+  /**
+   * Applies white foreground color to the input and appends the result to the given builder.
+   *
+   * @param input the input to format
+   * @param out the builder to append to
+   * @return the given builder
+   */
+  public @NonNull StringBuilder white(@NonNull CharSequence input, @NonNull StringBuilder out) {
+    return apply(Style.WHITE, input, out);
+  }
+
+  /**
+   * Applies white foreground color to the input and appends the result to the given appendable.
+   *
+   * @param input the input to format
+   * @param out the appendable to append to
+   * @return the given appendable
+   * @throws IOException if an I/O error occurs
+   */
+  public @NonNull Appendable white(@NonNull CharSequence input, @NonNull Appendable out)
+      throws IOException {
+    return apply(Style.WHITE, input, out);
   }
 
   /**
@@ -352,12 +1095,31 @@ public class Colors {
    * @return the formatted string with gray color
    */
   public @NonNull String gray(@NonNull String input) {
-    return gray.apply(input);
+    return apply(Style.GRAY, input);
   }
 
-  @NonNull Colors setGray(@NonNull UnaryOperator<String> gray) {
-    this.gray = gray;
-    return this;
+  /**
+   * Applies gray foreground color to the input and appends the result to the given builder.
+   *
+   * @param input the input to format
+   * @param out the builder to append to
+   * @return the given builder
+   */
+  public @NonNull StringBuilder gray(@NonNull CharSequence input, @NonNull StringBuilder out) {
+    return apply(Style.GRAY, input, out);
+  }
+
+  /**
+   * Applies gray foreground color to the input and appends the result to the given appendable.
+   *
+   * @param input the input to format
+   * @param out the appendable to append to
+   * @return the given appendable
+   * @throws IOException if an I/O error occurs
+   */
+  public @NonNull Appendable gray(@NonNull CharSequence input, @NonNull Appendable out)
+      throws IOException {
+    return apply(Style.GRAY, input, out);
   }
 
   /**
@@ -367,12 +1129,31 @@ public class Colors {
    * @return the formatted string with black background
    */
   public @NonNull String bgBlack(@NonNull String input) {
-    return bgBlack.apply(input);
+    return apply(Style.BG_BLACK, input);
+  }
+
+  /**
+   * Applies black background color to the input and appends the result to the given builder.
+   *
+   * @param input the input to format
+   * @param out the builder to append to
+   * @return the given builder
+   */
+  public @NonNull StringBuilder bgBlack(@NonNull CharSequence input, @NonNull StringBuilder out) {
+    return apply(Style.BG_BLACK, input, out);
   }
 
-  @NonNull Colors setBgBlack(@NonNull UnaryOperator<String> bgBlack) {
-    this.bgBlack = bgBlack;
-    return this;
+  /**
+   * Applies black background color to the input and appends the result to the given appendable.
+   *
+   * @param input the input to format
+   * @param out the appendable to append to
+   * @return the given appendable
+   * @throws IOException if an I/O error occurs
+   */
+  public @NonNull Appendable bgBlack(@NonNull CharSequence input, @NonNull Appendable out)
+      throws IOException {
+    return apply(Style.BG_BLACK, input, out);
   }
 
   /**
@@ -382,12 +1163,31 @@ public class Colors {
    * @return the formatted string with red background
    */
   public @NonNull String bgRed(@NonNull String input) {
-    return bgRed.apply(input);
+    return apply(Style.BG_RED, input);
   }
 
-  @NonNull Colors setBgRed(@NonNull UnaryOperator<String> bgRed) {
-    this.bgRed = bgRed;
-    return this;
+  /**
+   * Applies red background color to the input and appends the result to the given builder.
+   *
+   * @param input the input to format
+   * @param out the builder to append to
+   * @return the given builder
+   */
+  public @NonNull StringBuilder bgRed(@NonNull CharSequence input, @NonNull StringBuilder out) {
+    return apply(Style.BG_RED, input, out);
+  }
+
+  /**
+   * Applies red background color to the input and appends the result to the given appendable.
+   *
+   * @param input the input to format
+   * @param out the appendable to append to
+   * @return the given appendable
+   * @throws IOException if an I/O error occurs
+   */
+  public @NonNull Appendable bgRed(@NonNull CharSequence input, @NonNull Appendable out)
+      throws IOException {
+    return apply(Style.BG_RED, input, out);
   }
 
   /**
@@ -397,12 +1197,31 @@ public class Colors {
    * @return the formatted string with green background
    */
   public @NonNull String bgGreen(@NonNull String input) {
-    return bgGreen.apply(input);
+    return apply(Style.BG_GREEN, input);
+  }
+
+  /**
+   * Applies green background color to the input and appends the result to the given builder.
+   *
+   * @param input the input to format
+   * @param out the builder to append to
+   * @return the given builder
+   */
+  public @NonNull StringBuilder bgGreen(@NonNull CharSequence input, @NonNull StringBuilder out) {
+    return apply(Style.BG_GREEN, input, out);
   }
 
-  @NonNull Colors setBgGreen(@NonNull UnaryOperator<String> bgGreen) {
-    this.bgGreen = bgGreen;
-    return this;
+  /**
+   * Applies green background color to the input and appends the result to the given appendable.
+   *
+   * @param input the input to format
+   * @param out the appendable to append to
+   * @return the given appendable
+   * @throws IOException if an I/O error occurs
+   */
+  public @NonNull Appendable bgGreen(@NonNull CharSequence input, @NonNull Appendable out)
+      throws IOException {
+    return apply(Style.BG_GREEN, input, out);
   }
 
   /**
@@ -412,12 +1231,31 @@ public class Colors {
    * @return the formatted string with yellow background
    */
   public @NonNull String bgYellow(@NonNull String input) {
-    return bgYellow.apply(input);
+    return apply(Style.BG_YELLOW, input);
+  }
+
+  /**
+   * Applies yellow background color to the input and appends the result to the given builder.
+   *
+   * @param input the input to format
+   * @param out the builder to append to
+   * @return the given builder
+   */
+  public @NonNull StringBuilder bgYellow(@NonNull CharSequence input, @NonNull StringBuilder out) {
+    return apply(Style.BG_YELLOW, input, out);
   }
 
-  @NonNull Colors setBgYellow(@NonNull UnaryOperator<String> bgYellow) {
-    this.bgYellow = bgYellow;
-    return this;
+  /**
+   * Applies yellow background color to the input and appends the result to the given appendable.
+   *
+   * @param input the input to format
+   * @param out the appendable to append to
+   * @return the given appendable
+   * @throws IOException if an I/O error occurs
+   */
+  public @NonNull Appendable bgYellow(@NonNull CharSequence input, @NonNull Appendable out)
+      throws IOException {
+    return apply(Style.BG_YELLOW, input, out);
   }
 
   /**
@@ -427,12 +1265,31 @@ public class Colors {
    * @return the formatted string with blue background
    */
   public @NonNull String bgBlue(@NonNull String input) {
-    return bgBlue.apply(input);
+    return apply(Style.BG_BLUE, input);
   }
 
-  @NonNull Colors setBgBlue(@NonNull UnaryOperator<String> bgBlue) {
-    this.bgBlue = bgBlue;
-    return this;
+  /**
+   * Applies blue background color to the input and appends the result to the given builder.
+   *
+   * @param input the input to format
+   * @param out the builder to append to
+   * @return the given builder
+   */
+  public @NonNull StringBuilder bgBlue(@NonNull CharSequence input, @NonNull StringBuilder out) {
+    return apply(Style.BG_BLUE, input, out);
+  }
+
+  /**
+   * Applies blue background color to the input and appends the result to the given appendable.
+   *
+   * @param input the input to format
+   * @param out the appendable to append to
+   * @return the given appendable
+   * @throws IOException if an I/O error occurs
+   */
+  public @NonNull Appendable bgBlue(@NonNull CharSequence input, @NonNull Appendable out)
+      throws IOException {
+    return apply(Style.BG_BLUE, input, out);
   }
 
   /**
@@ -442,12 +1299,31 @@ public class Colors {
    * @return the formatted string with magenta background
    */
   public @NonNull String bgMagenta(@NonNull String input) {
-    return bgMagenta.apply(input);
+    return apply(Style.BG_MAGENTA, input);
+  }
+
+  /**
+   * Applies magenta background color to the input and appends the result to the given builder.
+   *
+   * @param input the input to format
+   * @param out the builder to append to
+   * @return the given builder
+   */
+  public @NonNull StringBuilder bgMagenta(@NonNull CharSequence input, @NonNull StringBuilder out) {
+    return apply(Style.BG_MAGENTA, input, out);
   }
 
-  @NonNull Colors setBgMagenta(@NonNull UnaryOperator<String> bgMagenta) {
-    this.bgMagenta = bgMagenta;
-    return this;
+  /**
+   * Applies magenta background color to the input and appends the result to the given appendable.
+   *
+   * @param input the input to format
+   * @param out the appendable to append to
+   * @return the given appendable
+   * @throws IOException if an I/O error occurs
+   */
+  public @NonNull Appendable bgMagenta(@NonNull CharSequence input, @NonNull Appendable out)
+      throws IOException {
+    return apply(Style.BG_MAGENTA, input, out);
   }
 
   /**
@@ -457,12 +1333,31 @@ public class Colors {
    * @return the formatted string with cyan background
    */
   public @NonNull String bgCyan(@NonNull String input) {
-    return bgCyan.apply(input);
+    return apply(Style.BG_CYAN, input);
+  }
+
+  /**
+   * Applies cyan background color to the input and appends the result to the given builder.
+   *
+   * @param input the input to format
+   * @param out the builder to append to
+   * @return the given builder
+   */
+  public @NonNull StringBuilder bgCyan(@NonNull CharSequence input, @NonNull StringBuilder out) {
+    return apply(Style.BG_CYAN, input, out);
   }
 
-  @NonNull Colors setBgCyan(@NonNull UnaryOperator<String> bgCyan) {
-    this.bgCyan = bgCyan;
-    return this;
+  /**
+   * Applies cyan background color to the input and appends the result to the given appendable.
+   *
+   * @param input the input to format
+   * @param out the appendable to append to
+   * @return the given appendable
+   * @throws IOException if an I/O error occurs
+   */
+  public @NonNull Appendable bgCyan(@NonNull CharSequence input, @NonNull Appendable out)
+      throws IOException {
+    return apply(Style.BG_CYAN, input, out);
   }
 
   /**
@@ -472,11 +1367,36 @@ public class Colors {
    * @return the formatted string with white background
    */
   public @NonNull String bgWhite(@NonNull String input) {
-    return bgWhite.apply(input);
+    return apply(Style.BG_WHITE, input);
   }
 
-  @NonNull Colors setBgWhite(@NonNull UnaryOperator<String> bgWhite) {
-    this.bgWhite = bgWhite;
-    return this;
+  /**
+   * Applies white background color to the input and appends the result to the given builder.
+   *
+   * @param input the input to format
+   * @param out the builder to append to
+   * @return the given builder
+   */
+  public @NonNull StringBuilder bgWhite(@NonNull CharSequence input, @NonNull StringBuilder out) {
+    return apply(Style.BG_WHITE, input, out);
+  }
+
+  /**
+   * Applies white background color to the input and appends the result to the given appendable.
+   *
+   * @param input the input to format
+   * @param out the appendable to append to
+   * @return the given appendable
+   * @throws IOException if an I/O error occurs
+   */
+  public @NonNull Appendable bgWhite(@NonNull CharSequence input, @NonNull Appendable out)
+      throws IOException {
+    return apply(Style.BG_WHITE, input, out);
+  }
+
+  /** Holds the detected instance, so that it is detected on first use and only once. */
+  private static final class Detected {
+
+    static final Colors COLORS = createColors(TerminalDetector.detect());
   }
 }
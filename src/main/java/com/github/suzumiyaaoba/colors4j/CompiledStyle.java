@@ -0,0 +1,458 @@
+package com.github.suzumiyaaoba.colors4j;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.function.UnaryOperator;
+import org.jspecify.annotations.NonNull;
+
+/**
+ * CompiledStyle class.
+ *
+ * <p>A reusable style that applies several attributes at once. Applying a compiled style gives the
+ * same result as nesting the corresponding {@link Colors} methods, the first style being the
+ * outermost, but the open and close sequences are joined ahead of time and the input is scanned
+ * only once for all relevant close sequences.
+ *
+ * <p>The sequences are also kept pre-encoded in UTF-8, so styled text can be put straight into a
+ * {@link ByteBuffer}, for example one that is then written to a channel, without building a
+ * {@code String} in between.
+ *
+ * <p>Instances are immutable and can be shared between threads.
+ */
+public final class CompiledStyle implements UnaryOperator<String> {
+
+  /** The compiled style that leaves its input unchanged. */
+  static final CompiledStyle IDENTITY =
+      new CompiledStyle("", "", new String[0], new String[0], new Format[0], 0, 0);
+
+  private static final CompiledStyle[] SINGLES =
+      Arrays.stream(Style.values()).map(style -> compile(style)).toArray(CompiledStyle[]::new);
+
+  private final String open;
+  private final String close;
+  private final String[] closes;
+  private final String[] replaces;
+  private final Format[] layers;
+  private final int threshold;
+  private final int tailThreshold;
+
+  private final byte[] openBytes;
+  private final byte[] closeBytes;
+  private final byte[][] closesBytes;
+  private final byte[][] replacesBytes;
+
+  private CompiledStyle(
+      @NonNull String open,
+      @NonNull String close,
+      @NonNull String[] closes,
+      @NonNull String[] replaces,
+      @NonNull Format[] layers,
+      int threshold,
+      int tailThreshold) {
+    this.open = open;
+    this.close = close;
+    this.closes = closes;
+    this.replaces = replaces;
+    this.layers = layers;
+    this.threshold = threshold;
+    this.tailThreshold = tailThreshold;
+    this.openBytes = open.getBytes(StandardCharsets.UTF_8);
+    this.closeBytes = close.getBytes(StandardCharsets.UTF_8);
+    this.closesBytes = new byte[closes.length][];
+    this.replacesBytes = new byte[replaces.length][];
+    for (int i = 0; i < closes.length; i++) {
+      closesBytes[i] = closes[i].getBytes(StandardCharsets.UTF_8);
+      replacesBytes[i] = replaces[i].getBytes(StandardCharsets.UTF_8);
+    }
+  }
+
+  /**
+   * Returns the shared compiled form of a single style.
+   *
+   * @param style the style
+   * @return the compiled style
+   */
+  static @NonNull CompiledStyle of(@NonNull Style style) {
+    return SINGLES[style.ordinal()];
+  }
+
+  /**
+   * Compiles the given styles into a single style, the first style being the outermost.
+   *
+   * @param styles the styles to combine
+   * @return the compiled style
+   */
+  static @NonNull CompiledStyle compile(@NonNull Style... styles) {
+    final String[] opens = new String[styles.length];
+    final String[] closes = new String[styles.length];
+    final String[] replaces = new String[styles.length];
+
+    for (int i = 0; i < styles.length; i++) {
+      opens[i] = styles[i].open();
+      closes[i] = styles[i].close();
+      replaces[i] = styles[i].replace();
+    }
+    return compile(opens, closes, replaces);
+  }
+
+  /**
+   * Compiles layers of open, close and replace sequences into a single style, the first layer
+   * being the outermost. Like {@link Utils#format}, each layer does not search the first characters
+   * of its input, as many as its open sequence is long.
+   *
+   * @param opens the opening ANSI escape sequences of each layer
+   * @param closes the closing ANSI escape sequences of each layer
+   * @param replaces the replacement sequences of each layer
+   * @return the compiled style
+   */
+  static @NonNull CompiledStyle compile(
+      @NonNull String[] opens, @NonNull String[] closes, @NonNull String[] replaces) {
+    final int[] fromIndexes = new int[opens.length];
+    for (int i = 0; i < opens.length; i++) {
+      fromIndexes[i] = opens[i].length();
+    }
+    return compile(opens, closes, replaces, fromIndexes);
+  }
+
+  /**
+   * Compiles layers of open, close and replace sequences into a single style, the first layer
+   * being the outermost.
+   *
+   * <p>Every sequence emitted by an inner layer passes through the nested-close rewriting of the
+   * layers around it, exactly as it does when the formatting functions are nested. Each layer
+   * starts searching its input for its close sequence at the given index. Inputs whose first close
+   * sequence lies before that index are rare and are formatted layer by layer, so the result is
+   * always the same as nesting.
+   *
+   * @param opens the opening ANSI escape sequences of each layer
+   * @param closes the closing ANSI escape sequences of each layer
+   * @param replaces the replacement sequences of each layer
+   * @param fromIndexes the index of its input each layer starts searching from
+   * @return the compiled style
+   */
+  static @NonNull CompiledStyle compile(
+      @NonNull String[] opens,
+      @NonNull String[] closes,
+      @NonNull String[] replaces,
+      int[] fromIndexes) {
+    final int count = opens.length;
+    if (count == 0) {
+      return IDENTITY;
+    }
+
+    final Format[] layers = new Format[count];
+    String open = opens[count - 1];
+    String close = closes[count - 1];
+    int threshold = 0;
+    int tailThreshold = 0;
+
+    for (int i = count - 1; i >= 0; i--) {
+      layers[i] = new Format(opens[i], closes[i], replaces[i], fromIndexes[i]);
+      if (i < count - 1) {
+        final int skip = fromIndexes[i] - open.length();
+        if (close.contains(closes[i])) {
+          tailThreshold = Math.max(tailThreshold, skip);
+        }
+        open = opens[i] + rewrite(open, closes[i], replaces[i], fromIndexes[i]);
+        close = rewrite(close, closes[i], replaces[i], 0) + closes[i];
+      }
+      threshold = Math.max(threshold, fromIndexes[i] - (open.length() - opens[i].length()));
+    }
+
+    final String[] distinct = Arrays.stream(closes).distinct().toArray(String[]::new);
+    final String[] composed = new String[distinct.length];
+
+    for (int d = 0; d < distinct.length; d++) {
+      String sequence = distinct[d];
+      for (int i = count - 1; i >= 0; i--) {
+        sequence = rewrite(sequence, closes[i], replaces[i], 0);
+      }
+      composed[d] = sequence;
+    }
+
+    return new CompiledStyle(open, close, distinct, composed, layers, threshold, tailThreshold);
+  }
+
+  private static @NonNull String rewrite(
+      @NonNull String string, @NonNull String close, @NonNull String replace, int fromIndex) {
+    final int index = string.indexOf(close, fromIndex);
+
+    return index == -1 ? string : Utils.replaceClose(string, close, replace, index);
+  }
+
+  /**
+   * Returns the layers of this style, the first layer being the outermost.
+   *
+   * @return the layers of this style
+   */
+  @NonNull Format @NonNull [] layers() {
+    return layers;
+  }
+
+  /**
+   * Applies this style to the input string.
+   *
+   * @param input the input string to format
+   * @return the formatted string
+   */
+  @Override
+  public @NonNull String apply(@NonNull String input) {
+    if (closes.length == 0) {
+      return input;
+    }
+
+    final int index = nextClose(input, 0);
+    if (index != -1 && index < threshold || input.length() < tailThreshold) {
+      return applyLayers(input);
+    }
+
+    if (index == -1) {
+      return open + input + close;
+    }
+
+    final StringBuilder out =
+        new StringBuilder(open.length() + input.length() + close.length() + 16).append(open);
+    return appendReplacingClose(out, input, index).append(close).toString();
+  }
+
+  /**
+   * Applies this style to the input and appends the result to the given builder.
+   *
+   * @param input the input to format
+   * @param out the builder to append to
+   * @return the given builder
+   */
+  public @NonNull StringBuilder apply(@NonNull CharSequence input, @NonNull StringBuilder out) {
+    if (closes.length == 0) {
+      return out.append(input);
+    }
+
+    final int index = nextClose(input, 0);
+    if (index != -1 && index < threshold || input.length() < tailThreshold) {
+      return out.append(applyLayers(input.toString()));
+    }
+
+    out.append(open);
+    if (index == -1) {
+      out.append(input);
+    } else {
+      appendReplacingClose(out, input, index);
+    }
+    return out.append(close);
+  }
+
+  /**
+   * Applies this style to the input and appends the result to the given appendable.
+   *
+   * @param input the input to format
+   * @param out the appendable to append to
+   * @return the given appendable
+   * @throws IOException if an I/O error occurs
+   */
+  public @NonNull Appendable apply(@NonNull CharSequence input, @NonNull Appendable out)
+      throws IOException {
+    if (closes.length == 0) {
+      return out.append(input);
+    }
+
+    final int index = nextClose(input, 0);
+    if (index != -1 && index < threshold || input.length() < tailThreshold) {
+      return out.append(applyLayers(input.toString()));
+    }
+
+    out.append(open);
+    if (index == -1) {
+      out.append(input);
+    } else {
+      appendReplacingClose(out, input, index);
+    }
+    return out.append(close);
+  }
+
+  /**
+   * Applies this style to the input and puts the UTF-8 encoded result into the given buffer, which
+   * may be a heap or a direct buffer. The escape sequences are copied from pre-encoded arrays and
+   * ASCII text takes a fast path, so no intermediate {@code String} is built.
+   *
+   * @param input the input to format
+   * @param dst the buffer to put the formatted bytes into
+   * @return the given buffer
+   * @throws BufferOverflowException if the buffer has not enough room, in which case its position
+   *     is left unchanged
+   */
+  public @NonNull ByteBuffer apply(@NonNull CharSequence input, @NonNull ByteBuffer dst) {
+    final int start = dst.position();
+
+    try {
+      if (closes.length == 0) {
+        Utf8.encode(input, 0, input.length(), dst);
+        return dst;
+      }
+
+      int index = nextClose(input, 0);
+      if (index != -1 && index < threshold || input.length() < tailThreshold) {
+        final String result = applyLayers(input.toString());
+        Utf8.encode(result, 0, result.length(), dst);
+        return dst;
+      }
+
+      dst.put(openBytes);
+      int cursor = 0;
+      while (index != -1) {
+        final int matched = matchAt(input, index);
+        Utf8.encode(input, cursor, index, dst);
+        dst.put(replacesBytes[matched]);
+        cursor = index + closes[matched].length();
+        index = nextClose(input, cursor);
+      }
+      Utf8.encode(input, cursor, input.length(), dst);
+      return dst.put(closeBytes);
+    } catch (BufferOverflowException e) {
+      dst.position(start);
+      throw e;
+    }
+  }
+
+  /**
+   * Applies this style to UTF-8 encoded input and puts the encoded result into the given buffer.
+   * The input is scanned for escape bytes eight bytes at a time and copied as is between close
+   * sequences.
+   *
+   * @param input the array holding the UTF-8 encoded input
+   * @param offset the index of the first byte of the input
+   * @param length the number of bytes of the input
+   * @param dst the buffer to put the formatted bytes into
+   * @return the given buffer
+   * @throws BufferOverflowException if the buffer has not enough room, in which case its position
+   *     is left unchanged
+   */
+  public @NonNull ByteBuffer apply(
+      byte @NonNull [] input, int offset, int length, @NonNull ByteBuffer dst) {
+    final int start = dst.position();
+    final int end = offset + length;
+
+    try {
+      if (closes.length == 0) {
+        return dst.put(input, offset, length);
+      }
+
+      int index = nextClose(input, offset, end);
+      if (index != -1
+              && index - offset < threshold * 3
+              && Utf8.utf16Length(input, offset, index) < threshold
+          || length < tailThreshold * 3 && Utf8.utf16Length(input, offset, end) < tailThreshold) {
+        final String result =
+            applyLayers(new String(input, offset, length, StandardCharsets.UTF_8));
+        return dst.put(result.getBytes(StandardCharsets.UTF_8));
+      }
+
+      dst.put(openBytes);
+      int cursor = offset;
+      while (index != -1) {
+        final int matched = matchAt(input, index, end);
+        dst.put(input, cursor, index - cursor).put(replacesBytes[matched]);
+        cursor = index + closesBytes[matched].length;
+        index = nextClose(input, cursor, end);
+      }
+      return dst.put(input, cursor, end - cursor).put(closeBytes);
+    } catch (BufferOverflowException e) {
+      dst.position(start);
+      throw e;
+    }
+  }
+
+  private @NonNull String applyLayers(@NonNull String input) {
+    String result = input;
+    for (int i = layers.length - 1; i >= 0; i--) {
+      result = layers[i].apply(result);
+    }
+    return result;
+  }
+
+  private @NonNull StringBuilder appendReplacingClose(
+      @NonNull StringBuilder out, @NonNull CharSequence input, int index) {
+    int cursor = 0;
+
+    do {
+      final int matched = matchAt(input, index);
+      out.append(input, cursor, index).append(replaces[matched]);
+      cursor = index + closes[matched].length();
+      index = nextClose(input, cursor);
+    } while (index != -1);
+
+    return out.append(input, cursor, input.length());
+  }
+
+  private @NonNull Appendable appendReplacingClose(
+      @NonNull Appendable out, @NonNull CharSequence input, int index) throws IOException {
+    int cursor = 0;
+
+    do {
+      final int matched = matchAt(input, index);
+      out.append(input, cursor, index).append(replaces[matched]);
+      cursor = index + closes[matched].length();
+      index = nextClose(input, cursor);
+    } while (index != -1);
+
+    return out.append(input, cursor, input.length());
+  }
+
+  /**
+   * Returns the index of the next close sequence of this style in the input.
+   *
+   * @param input the input to search in
+   * @param fromIndex the index to start the search from
+   * @return the index of the next close sequence, or -1 if there is none
+   */
+  private int nextClose(@NonNull CharSequence input, int fromIndex) {
+    for (int i = EscapeScanner.indexOf(input, fromIndex);
+        i != -1;
+        i = EscapeScanner.indexOf(input, i + 1)) {
+      if (matchAt(input, i) != -1) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private int nextClose(byte @NonNull [] input, int fromIndex, int toIndex) {
+    for (int i = EscapeScanner.indexOf(input, fromIndex, toIndex);
+        i != -1;
+        i = EscapeScanner.indexOf(input, i + 1, toIndex)) {
+      if (matchAt(input, i, toIndex) != -1) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private int matchAt(byte @NonNull [] input, int index, int toIndex) {
+    for (int i = 0; i < closesBytes.length; i++) {
+      final byte[] close = closesBytes[i];
+      if (index + close.length <= toIndex
+          && Arrays.equals(input, index, index + close.length, close, 0, close.length)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Returns which close sequence of this style occurs at the given index.
+   *
+   * @param input the input to check
+   * @param index the index in the input
+   * @return the position of the matching close sequence, or -1 if none matches
+   */
+  private int matchAt(@NonNull CharSequence input, int index) {
+    for (int i = 0; i < closes.length; i++) {
+      if (Utils.regionMatches(input, index, closes[i])) {
+        return i;
+      }
+    }
+    return -1;
+  }
+}
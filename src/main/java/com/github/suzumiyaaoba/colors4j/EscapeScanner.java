@@ -0,0 +1,102 @@
+package com.github.suzumiyaaoba.colors4j;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import org.jspecify.annotations.NonNull;
+
+/**
+ * Finds ESC characters, the first character of every ANSI escape sequence, in large inputs.
+ *
+ * <p>Close sequences are only looked for at the positions returned by this scanner, so a single
+ * pass over the input serves any number of close sequences. Strings are searched with {@link
+ * String#indexOf(int, int)}, which the JIT compiles to vectorized code. Byte arrays are searched
+ * eight bytes at a time using SWAR (SIMD within a register) word tricks, falling back to a scalar
+ * loop for the remaining bytes.
+ */
+final class EscapeScanner {
+
+  /** The escape character. */
+  static final char ESC = '\u001B';
+
+  private static final VarHandle LONGS =
+      MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+  private static final long ESCAPES = 0x1B1B1B1B1B1B1B1BL;
+  private static final long LOW_BITS = 0x0101010101010101L;
+  private static final long HIGH_BITS = 0x8080808080808080L;
+
+  /** Private constructor to prevent instantiation. */
+  private EscapeScanner() {}
+
+  /**
+   * Returns the index of the first ESC character in the sequence, starting at the given index.
+   *
+   * @param input the sequence to search in
+   * @param fromIndex the index to start the search from
+   * @return the index of the first ESC character, or -1 if there is none
+   */
+  static int indexOf(@NonNull CharSequence input, int fromIndex) {
+    if (input instanceof String) {
+      return ((String) input).indexOf(ESC, fromIndex);
+    }
+
+    final int length = input.length();
+    for (int i = Math.max(fromIndex, 0); i < length; i++) {
+      if (input.charAt(i) == ESC) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Returns the index of the first ESC character in the given range of the sequence. Ranges that
+   * end with the sequence are searched like {@link #indexOf(CharSequence, int)}; others are
+   * searched one character at a time, so that a small range of a large string costs no more than
+   * its length.
+   *
+   * @param input the sequence to search in
+   * @param fromIndex the index to start the search from, inclusive
+   * @param toIndex the index to end the search at, exclusive
+   * @return the index of the first ESC character, or -1 if there is none
+   */
+  static int indexOf(@NonNull CharSequence input, int fromIndex, int toIndex) {
+    if (toIndex >= input.length()) {
+      return indexOf(input, fromIndex);
+    }
+
+    for (int i = Math.max(fromIndex, 0); i < toIndex; i++) {
+      if (input.charAt(i) == ESC) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Returns the index of the first ESC byte in the given range of the array.
+   *
+   * @param bytes the array to search in
+   * @param fromIndex the index to start the search from, inclusive
+   * @param toIndex the index to end the search at, exclusive
+   * @return the index of the first ESC byte, or -1 if there is none
+   */
+  static int indexOf(byte @NonNull [] bytes, int fromIndex, int toIndex) {
+    int i = fromIndex;
+
+    for (; i + Long.BYTES <= toIndex; i += Long.BYTES) {
+      final long word = (long) LONGS.get(bytes, i) ^ ESCAPES;
+      final long found = (word - LOW_BITS) & ~word & HIGH_BITS;
+      if (found != 0) {
+        return i + (Long.numberOfTrailingZeros(found) >>> 3);
+      }
+    }
+    for (; i < toIndex; i++) {
+      if (bytes[i] == ESC) {
+        return i;
+      }
+    }
+    return -1;
+  }
+}
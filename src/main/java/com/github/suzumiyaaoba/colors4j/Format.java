@@ -0,0 +1,88 @@
+package com.github.suzumiyaaoba.colors4j;
+
+import java.util.function.UnaryOperator;
+import org.jspecify.annotations.NonNull;
+
+/**
+ * A formatting function that wraps text with an ANSI open and close sequence. Close sequences found
+ * in the input are replaced with the replace sequence to maintain proper nesting of formatting.
+ */
+final class Format implements UnaryOperator<String> {
+
+  private final String open;
+  private final String close;
+  private final String replace;
+  private final int fromIndex;
+
+  /**
+   * Creates a new format that, like picocolors, does not search the first characters of its input
+   * for the close sequence, as many as the open sequence is long.
+   *
+   * @param open the opening ANSI escape sequence
+   * @param close the closing ANSI escape sequence
+   * @param replace the replacement sequence for nested close sequences
+   */
+  Format(@NonNull String open, @NonNull String close, @NonNull String replace) {
+    this(open, close, replace, open.length());
+  }
+
+  /**
+   * Creates a new format.
+   *
+   * @param open the opening ANSI escape sequence
+   * @param close the closing ANSI escape sequence
+   * @param replace the replacement sequence for nested close sequences
+   * @param fromIndex the index of the input to start searching for the close sequence from
+   */
+  Format(@NonNull String open, @NonNull String close, @NonNull String replace, int fromIndex) {
+    this.open = open;
+    this.close = close;
+    this.replace = replace;
+    this.fromIndex = fromIndex;
+  }
+
+  /**
+   * Returns the opening ANSI escape sequence.
+   *
+   * @return the opening ANSI escape sequence
+   */
+  @NonNull String open() {
+    return open;
+  }
+
+  /**
+   * Returns the closing ANSI escape sequence.
+   *
+   * @return the closing ANSI escape sequence
+   */
+  @NonNull String close() {
+    return close;
+  }
+
+  /**
+   * Returns the replacement sequence for nested close sequences.
+   *
+   * @return the replacement sequence
+   */
+  @NonNull String replace() {
+    return replace;
+  }
+
+  /**
+   * Returns the index of the input to start searching for the close sequence from.
+   *
+   * @return the index to start the search from
+   */
+  int fromIndex() {
+    return fromIndex;
+  }
+
+  @Override
+  public @NonNull String apply(@NonNull String input) {
+    final int index = input.indexOf(close, fromIndex);
+
+    return index == -1
+        ? open + input + close
+        : open + Utils.replaceClose(input, close, replace, index) + close;
+  }
+}
@@ -0,0 +1,625 @@
+package com.github.suzumiyaaoba.colors4j;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.function.UnaryOperator;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Highlighter class.
+ *
+ * <p>Colors the parts of lines that match a set of rules, such as {@code ERROR} in bold red, UUIDs
+ * in cyan and numbers in yellow. Rules are either keywords, which match whole words, or regular
+ * expressions. All keywords are compiled into one Aho-Corasick automaton and all regular
+ * expressions into one pattern, so a line is scanned once for all rules instead of once per rule.
+ *
+ * <pre>{@code
+ * Highlighter highlighter = colors.highlighter()
+ *     .keywords(List.of("ERROR", "FATAL"), Style.BOLD, Style.RED)
+ *     .pattern("[0-9a-f]{8}(-[0-9a-f]{4}){3}-[0-9a-f]{12}", Style.CYAN)
+ *     .pattern("\\b\\d+\\b", Style.YELLOW)
+ *     .build();
+ * }</pre>
+ *
+ * <p>Matches are colored from left to right and never overlap. Where matches overlap, the one that
+ * starts first wins; of the matches that start at the same place, the one of the rule added first
+ * wins. Escape sequences already in a line are kept as they are and never matched, and matches do
+ * not span them.
+ *
+ * <p>Instances are immutable and can be shared between threads. A highlighter created from a
+ * {@link Colors} instance with colors disabled leaves lines unchanged.
+ */
+public final class Highlighter implements UnaryOperator<String> {
+
+  private static final int MAX_RETAINED_CAPACITY = 16 * 1024;
+
+  /** The number of characters looked up in a table at the root of the automaton. */
+  private static final int ROOT_TABLE_SIZE = 128;
+
+  private static final Highlighter IDENTITY =
+      new Highlighter(
+          new CompiledStyle[0],
+          new Keywords(List.of(), List.of()),
+          null,
+          new int[0],
+          new Pattern[0],
+          new int[0]);
+
+  private final CompiledStyle[] styles;
+  private final Keywords keywords;
+  private final @Nullable Pattern pattern;
+
+  /** The rule of each group of the pattern, or -1 for the groups of the rules themselves. */
+  private final int[] groupRules;
+
+  /** The expression of each pattern rule on its own, tried after another rule matches empty. */
+  private final Pattern[] patterns;
+
+  /** The rule of each of the patterns. */
+  private final int[] patternRules;
+
+  private final ThreadLocal<StringBuilder> builders =
+      ThreadLocal.withInitial(() -> new StringBuilder(256));
+
+  private Highlighter(
+      @NonNull CompiledStyle[] styles,
+      @NonNull Keywords keywords,
+      @Nullable Pattern pattern,
+      int @NonNull [] groupRules,
+      @NonNull Pattern[] patterns,
+      int @NonNull [] patternRules) {
+    this.styles = styles;
+    this.keywords = keywords;
+    this.pattern = pattern;
+    this.groupRules = groupRules;
+    this.patterns = patterns;
+    this.patternRules = patternRules;
+  }
+
+  /**
+   * Highlights the line.
+   *
+   * @param line the line to highlight
+   * @return the highlighted line; the line itself if nothing matched
+   */
+  @Override
+  public @NonNull String apply(@NonNull String line) {
+    if (styles.length == 0) {
+      return line;
+    }
+
+    StringBuilder out = builders.get();
+    if (out.capacity() > MAX_RETAINED_CAPACITY) {
+      out = new StringBuilder(256);
+      builders.set(out);
+    }
+    out.setLength(0);
+
+    return highlight(line, out) ? out.toString() : line;
+  }
+
+  /**
+   * Highlights the line and appends the result to the given builder, which may be reused from line
+   * to line.
+   *
+   * @param line the line to highlight
+   * @param out the builder to append to
+   * @return the given builder
+   */
+  public @NonNull StringBuilder apply(@NonNull CharSequence line, @NonNull StringBuilder out) {
+    if (styles.length == 0) {
+      return out.append(line);
+    }
+
+    highlight(line, out);
+    return out;
+  }
+
+  /**
+   * Highlights the line into the builder, one run of text between escape sequences at a time.
+   *
+   * @return true if anything matched
+   */
+  private boolean highlight(@NonNull CharSequence line, @NonNull StringBuilder out) {
+    final int length = line.length();
+    final Scan scan = new Scan(line, out);
+
+    int from = 0;
+    while (true) {
+      final int esc = EscapeScanner.indexOf(line, from);
+      if (esc == -1) {
+        scan.run(from, length);
+        return scan.matched;
+      }
+      scan.run(from, esc);
+
+      int state = Ansi.ESCAPE;
+      int i = esc + 1;
+      while (i < length) {
+        state = Ansi.next(state, line.charAt(i));
+        if (state == Ansi.TEXT) {
+          // The character aborted the sequence and is text.
+          break;
+        }
+        i++;
+        if (state == Ansi.END) {
+          break;
+        }
+      }
+      out.append(line, esc, i);
+      from = i;
+    }
+  }
+
+  /** The state of highlighting one line. */
+  private final class Scan {
+
+    private final CharSequence line;
+    private final StringBuilder out;
+    private final Slice run;
+    private final Slice match;
+    private final @Nullable Matcher matcher;
+    private @Nullable Matcher[] matchers;
+
+    private int runStart;
+    private int runEnd;
+
+    // The next match of each kind, from the last position searched; start is -1 if there is none.
+    private int keywordStart;
+    private int keywordEnd;
+    private int keywordRule;
+    private int patternStart;
+    private int patternEnd;
+    private int patternRule;
+
+    boolean matched;
+
+    Scan(@NonNull CharSequence line, @NonNull StringBuilder out) {
+      this.line = line;
+      this.out = out;
+      this.run = new Slice(line);
+      this.match = new Slice(line);
+      this.matcher = pattern == null ? null : pattern.matcher(run);
+      if (matcher != null) {
+        // Lookarounds and boundaries see the whole run but nothing beyond it.
+        matcher.useTransparentBounds(true).useAnchoringBounds(false);
+      }
+    }
+
+    /** Highlights a run of text holding no escape sequences. */
+    void run(int from, int to) {
+      if (from == to) {
+        return;
+      }
+      runStart = from;
+      runEnd = to;
+      run.set(from, to);
+
+      keywordStart = keywords.isEmpty() ? -1 : findKeyword(from);
+      patternStart = matcher == null ? -1 : findPattern(from);
+
+      int position = from;
+      while (keywordStart != -1 || patternStart != -1) {
+        final int start;
+        final int end;
+        final int rule;
+        if (patternStart == -1
+            || keywordStart != -1
+                && (keywordStart < patternStart
+                    || keywordStart == patternStart && keywordRule < patternRule)) {
+          start = keywordStart;
+          end = keywordEnd;
+          rule = keywordRule;
+        } else {
+          start = patternStart;
+          end = patternEnd;
+          rule = patternRule;
+        }
+
+        out.append(line, position, start);
+        styles[rule].apply(match.set(start, end), out);
+        matched = true;
+        position = end;
+
+        if (keywordStart != -1 && keywordStart < position) {
+          keywordStart = findKeyword(position);
+        }
+        if (patternStart != -1 && patternStart < position) {
+          patternStart = findPattern(position);
+        }
+      }
+      out.append(line, position, to);
+    }
+
+    /** Finds the first keyword match at or after the position, and returns its start or -1. */
+    private int findKeyword(int from) {
+      final int maxLength = keywords.maxLength;
+      int bestStart = -1;
+      int bestRule = Integer.MAX_VALUE;
+      int state = 0;
+
+      for (int i = from; i < runEnd; i++) {
+        if (bestStart != -1 && i >= bestStart + maxLength) {
+          break;
+        }
+        state = keywords.next(state, line.charAt(i));
+
+        for (int node = keywords.firstOutput(state);
+            node != -1;
+            node = keywords.outputLinks[node]) {
+          final int start = i + 1 - keywords.depths[node];
+          final int rule = keywords.rules[node];
+          if ((bestStart == -1 || start < bestStart || start == bestStart && rule < bestRule)
+              && isWordBoundary(start)
+              && isWordBoundary(i + 1)) {
+            bestStart = start;
+            bestRule = rule;
+            keywordEnd = i + 1;
+          }
+        }
+      }
+      keywordRule = bestRule;
+      return bestStart;
+    }
+
+    /** Finds the first non-empty pattern match at or after the position. */
+    private int findPattern(int from) {
+      int position = from;
+      while (position < runEnd) {
+        matcher.region(position - runStart, runEnd - runStart);
+        if (!matcher.find()) {
+          return -1;
+        }
+        final int start = matcher.start() + runStart;
+        final int end = matcher.end() + runStart;
+        if (start < end) {
+          patternEnd = end;
+          patternRule = patternRule(matcher);
+          return start;
+        }
+        // The empty match hides the rules after it, which may match something here.
+        if (findLaterPattern(start, patternRule(matcher))) {
+          return start;
+        }
+        position = start + 1;
+      }
+      return -1;
+    }
+
+    /** Finds a non-empty match at the position of a pattern rule added after the given rule. */
+    private boolean findLaterPattern(int start, int rule) {
+      for (int i = 0; i < patterns.length; i++) {
+        if (patternRules[i] <= rule) {
+          continue;
+        }
+        final Matcher later = matcher(i);
+        later.region(start - runStart, runEnd - runStart);
+        if (later.lookingAt() && later.end() > later.start()) {
+          patternEnd = later.end() + runStart;
+          patternRule = patternRules[i];
+          return true;
+        }
+      }
+      return false;
+    }
+
+    private @NonNull Matcher matcher(int index) {
+      if (matchers == null) {
+        matchers = new Matcher[patterns.length];
+      }
+      if (matchers[index] == null) {
+        matchers[index] =
+            patterns[index].matcher(run).useTransparentBounds(true).useAnchoringBounds(false);
+      }
+      return matchers[index];
+    }
+
+    private int patternRule(@NonNull Matcher matcher) {
+      for (int group = 1; group < groupRules.length; group++) {
+        if (groupRules[group] != -1 && matcher.start(group) != -1) {
+          return groupRules[group];
+        }
+      }
+      throw new IllegalStateException("No rule matched");
+    }
+
+    private boolean isWordBoundary(int index) {
+      return index == runStart
+          || index == runEnd
+          || !isWordChar(line.charAt(index - 1))
+          || !isWordChar(line.charAt(index));
+    }
+  }
+
+  private static boolean isWordChar(char c) {
+    return c == '_' || Character.isLetterOrDigit(c);
+  }
+
+  /** A reusable view of a range of a character sequence. */
+  private static final class Slice implements CharSequence {
+
+    private final CharSequence text;
+    private int offset;
+    private int length;
+
+    Slice(@NonNull CharSequence text) {
+      this.text = text;
+    }
+
+    @NonNull Slice set(int start, int end) {
+      this.offset = start;
+      this.length = end - start;
+      return this;
+    }
+
+    @Override
+    public int length() {
+      return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+      return text.charAt(offset + index);
+    }
+
+    @Override
+    public @NonNull CharSequence subSequence(int start, int end) {
+      return text.subSequence(offset + start, offset + end);
+    }
+
+    @Override
+    public @NonNull String toString() {
+      return text.subSequence(offset, offset + length).toString();
+    }
+  }
+
+  /**
+   * The Aho-Corasick automaton of the keywords. Each node is a prefix of some keywords; the
+   * transitions of a node are kept sorted, and found with a binary search, except at the root,
+   * where ASCII characters are looked up in a table.
+   */
+  private static final class Keywords {
+
+    private final char[][] keys;
+    private final int[][] targets;
+    private final int[] failures;
+
+    /** The rule of the keyword ending at each node, or -1. */
+    private final int[] rules;
+
+    /** The nearest node along the failure links that ends a keyword, or -1. */
+    private final int[] outputLinks;
+
+    private final int[] depths;
+    private final int[] rootTable = new int[ROOT_TABLE_SIZE];
+    private final int maxLength;
+
+    Keywords(@NonNull List<String> words, @NonNull List<Integer> wordRules) {
+      final List<Map<Character, Integer>> children = new ArrayList<>();
+      final List<Integer> nodeRules = new ArrayList<>();
+      final List<Integer> nodeDepths = new ArrayList<>();
+      children.add(new HashMap<>());
+      nodeRules.add(-1);
+      nodeDepths.add(0);
+
+      int longest = 0;
+      for (int w = 0; w < words.size(); w++) {
+        final String word = words.get(w);
+        int node = 0;
+        for (int i = 0; i < word.length(); i++) {
+          Integer child = children.get(node).get(word.charAt(i));
+          if (child == null) {
+            child = children.size();
+            children.get(node).put(word.charAt(i), child);
+            children.add(new HashMap<>());
+            nodeRules.add(-1);
+            nodeDepths.add(i + 1);
+          }
+          node = child;
+        }
+        // A keyword added twice keeps its first rule.
+        if (nodeRules.get(node) == -1) {
+          nodeRules.set(node, wordRules.get(w));
+        }
+        longest = Math.max(longest, word.length());
+      }
+
+      final int size = children.size();
+      this.keys = new char[size][];
+      this.targets = new int[size][];
+      this.failures = new int[size];
+      this.rules = new int[size];
+      this.outputLinks = new int[size];
+      this.depths = new int[size];
+      this.maxLength = longest;
+
+      for (int node = 0; node < size; node++) {
+        final Character[] sorted = children.get(node).keySet().toArray(new Character[0]);
+        Arrays.sort(sorted);
+        keys[node] = new char[sorted.length];
+        targets[node] = new int[sorted.length];
+        for (int i = 0; i < sorted.length; i++) {
+          keys[node][i] = sorted[i];
+          targets[node][i] = children.get(node).get(sorted[i]);
+        }
+        rules[node] = nodeRules.get(node);
+        depths[node] = nodeDepths.get(node);
+      }
+
+      for (char c = 0; c < ROOT_TABLE_SIZE; c++) {
+        rootTable[c] = transition(0, c);
+      }
+
+      // The failure links, in breadth-first order so that shorter prefixes come first.
+      outputLinks[0] = -1;
+      final Queue<Integer> queue = new ArrayDeque<>();
+      for (int i = 0; i < keys[0].length; i++) {
+        failures[targets[0][i]] = 0;
+        outputLinks[targets[0][i]] = -1;
+        queue.add(targets[0][i]);
+      }
+      while (!queue.isEmpty()) {
+        final int node = queue.remove();
+        for (int i = 0; i < keys[node].length; i++) {
+          final int child = targets[node][i];
+          final int failure = next(failures[node], keys[node][i]);
+          failures[child] = failure;
+          outputLinks[child] = rules[failure] != -1 ? failure : outputLinks[failure];
+          queue.add(child);
+        }
+      }
+    }
+
+    boolean isEmpty() {
+      return maxLength == 0;
+    }
+
+    /** Returns the node reached from the given node by reading the character. */
+    int next(int node, char c) {
+      while (true) {
+        if (node == 0) {
+          return c < ROOT_TABLE_SIZE ? rootTable[c] : transition(0, c);
+        }
+        final int target = transition(node, c);
+        if (target != -1) {
+          return target;
+        }
+        node = failures[node];
+      }
+    }
+
+    /** Returns the first node ending a keyword that is a suffix of the node, or -1. */
+    int firstOutput(int node) {
+      return rules[node] != -1 ? node : outputLinks[node];
+    }
+
+    private int transition(int node, char c) {
+      final int index = Arrays.binarySearch(keys[node], c);
+      return index >= 0 ? targets[node][index] : node == 0 ? 0 : -1;
+    }
+  }
+
+  /**
+   * Builder class.
+   *
+   * <p>Collects the rules of a highlighter, created with {@link Colors#highlighter()}. Rules are
+   * tried in the order they are added when matches start at the same place.
+   */
+  public static final class Builder {
+
+    private final Colors colors;
+    private final List<CompiledStyle> styles = new ArrayList<>();
+    private final List<String> words = new ArrayList<>();
+    private final List<Integer> wordRules = new ArrayList<>();
+    private final StringBuilder regex = new StringBuilder();
+    private final List<Integer> groupRules = new ArrayList<>(List.of(-1));
+    private final List<Pattern> patterns = new ArrayList<>();
+    private final List<Integer> patternRules = new ArrayList<>();
+
+    /**
+     * Creates a new builder.
+     *
+     * @param colors the colors to compile the styles with
+     */
+    Builder(@NonNull Colors colors) {
+      this.colors = colors;
+    }
+
+    /**
+     * Adds a rule coloring a keyword wherever it appears as a whole word.
+     *
+     * @param keyword the keyword to color
+     * @param styles the styles to apply, the first being the outermost
+     * @return this builder
+     * @throws IllegalArgumentException if the keyword is empty
+     */
+    public @NonNull Builder keyword(@NonNull String keyword, @NonNull Style... styles) {
+      return keywords(List.of(keyword), styles);
+    }
+
+    /**
+     * Adds a rule coloring keywords wherever they appear as whole words.
+     *
+     * @param keywords the keywords to color
+     * @param styles the styles to apply, the first being the outermost
+     * @return this builder
+     * @throws IllegalArgumentException if a keyword is empty
+     */
+    public @NonNull Builder keywords(
+        @NonNull Collection<String> keywords, @NonNull Style... styles) {
+      for (String keyword : keywords) {
+        if (keyword.isEmpty()) {
+          throw new IllegalArgumentException("Keywords must not be empty");
+        }
+      }
+
+      final int rule = addRule(styles);
+      for (String keyword : keywords) {
+        words.add(keyword);
+        wordRules.add(rule);
+      }
+      return this;
+    }
+
+    /**
+     * Adds a rule coloring the matches of a regular expression. Matches that are empty are
+     * ignored, and the rules added later are tried in their place. Since the expressions of all
+     * rules are joined into one pattern, an expression should not refer to its groups by number.
+     *
+     * @param regex the regular expression to match
+     * @param styles the styles to apply, the first being the outermost
+     * @return this builder
+     * @throws java.util.regex.PatternSyntaxException if the expression is malformed
+     */
+    public @NonNull Builder pattern(@NonNull String regex, @NonNull Style... styles) {
+      final Pattern pattern = Pattern.compile(regex);
+      final int groups = pattern.matcher("").groupCount();
+
+      final int rule = addRule(styles);
+      patterns.add(pattern);
+      patternRules.add(rule);
+      if (this.regex.length() > 0) {
+        this.regex.append('|');
+      }
+      this.regex.append('(').append(regex).append(')');
+      groupRules.add(rule);
+      for (int i = 0; i < groups; i++) {
+        groupRules.add(-1);
+      }
+      return this;
+    }
+
+    /**
+     * Compiles the rules into a highlighter.
+     *
+     * @return the highlighter
+     */
+    public @NonNull Highlighter build() {
+      if (!colors.isColorSupported() || styles.isEmpty()) {
+        return IDENTITY;
+      }
+
+      return new Highlighter(
+          styles.toArray(new CompiledStyle[0]),
+          new Keywords(words, wordRules),
+          regex.length() == 0 ? null : Pattern.compile(regex.toString()),
+          groupRules.stream().mapToInt(Integer::intValue).toArray(),
+          patterns.toArray(new Pattern[0]),
+          patternRules.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    private int addRule(@NonNull Style... styles) {
+      this.styles.add(colors.style(styles));
+      return this.styles.size() - 1;
+    }
+  }
+}
@@ -0,0 +1,209 @@
+package com.github.suzumiyaaoba.colors4j;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import org.jspecify.annotations.NonNull;
+
+/**
+ * InstrumentedColors class.
+ *
+ * <p>A {@link Colors} that counts, for each {@link Style}, how many times the style is applied, how
+ * many bytes its escape sequences add to the text, and how many calls have to rewrite nested close
+ * sequences. The formatted text is the same as that of a plain instance with the same color depth.
+ *
+ * <p>Instrumentation is opt-in: instances are created with {@link Colors#instrumented()}, and the
+ * shared instances returned by {@link Colors#createColors(boolean)} are not affected. Counts are
+ * kept in {@link LongAdder}s, so threads formatting at the same time do not contend on them. They
+ * can be read with {@link #snapshot()}, or over JMX once {@link #registerMBean(String)} is called.
+ *
+ * <p>The styles of {@link Style} are counted, whether applied with {@link #apply(Style, String)},
+ * with a named method such as {@link #bold(String)} or in bulk; compiled styles, templates and
+ * styled text are not.
+ */
+public final class InstrumentedColors extends Colors {
+
+  private static final Style[] STYLES = Style.values();
+
+  private final LongAdder[] calls = adders();
+  private final LongAdder[] bytesAdded = adders();
+  private final LongAdder[] rewrites = adders();
+
+  /**
+   * Creates a new instrumented instance.
+   *
+   * @param colorDepth the number of colors the terminal can display
+   */
+  InstrumentedColors(@NonNull ColorDepth colorDepth) {
+    super(colorDepth);
+  }
+
+  @Override
+  public @NonNull String apply(@NonNull Style style, @NonNull String input) {
+    record(style, input);
+    return super.apply(style, input);
+  }
+
+  @Override
+  public @NonNull StringBuilder apply(
+      @NonNull Style style, @NonNull CharSequence input, @NonNull StringBuilder out) {
+    record(style, input);
+    return super.apply(style, input, out);
+  }
+
+  @Override
+  public @NonNull Appendable apply(
+      @NonNull Style style, @NonNull CharSequence input, @NonNull Appendable out)
+      throws IOException {
+    record(style, input);
+    return super.apply(style, input, out);
+  }
+
+  @Override
+  public @NonNull ByteBuffer apply(
+      @NonNull Style style, @NonNull CharSequence input, @NonNull ByteBuffer dst) {
+    // Text that does not fit is not written, so it is not counted.
+    final ByteBuffer result = super.apply(style, input, dst);
+    record(style, input);
+    return result;
+  }
+
+  /**
+   * Returns the counts recorded so far, for every style. Counts recorded while the snapshot is
+   * taken may or may not be included.
+   *
+   * @return an unmodifiable map from each style to its counts
+   */
+  public @NonNull Map<Style, StyleMetrics> snapshot() {
+    final Map<Style, StyleMetrics> snapshot = new EnumMap<>(Style.class);
+    for (Style style : STYLES) {
+      final int i = style.ordinal();
+      snapshot.put(
+          style, new StyleMetrics(style, calls[i].sum(), bytesAdded[i].sum(), rewrites[i].sum()));
+    }
+    return Collections.unmodifiableMap(snapshot);
+  }
+
+  /** Sets all counts back to zero. */
+  public void resetCounts() {
+    for (int i = 0; i < STYLES.length; i++) {
+      calls[i].reset();
+      bytesAdded[i].reset();
+      rewrites[i].reset();
+    }
+  }
+
+  /**
+   * Registers the counts of this instance with the platform MBean server, under the name {@code
+   * com.github.suzumiyaaoba.colors4j:type=Colors,name=<name>}.
+   *
+   * @param name the name telling this instance apart from other registered instances
+   * @return the name the MBean was registered under, to unregister it with
+   * @throws JMException if the name is malformed or already registered
+   */
+  public @NonNull ObjectName registerMBean(@NonNull String name) throws JMException {
+    final ObjectName objectName =
+        new ObjectName(
+            "com.github.suzumiyaaoba.colors4j:type=Colors,name=" + ObjectName.quote(name));
+    ManagementFactory.getPlatformMBeanServer().registerMBean(new MBean(), objectName);
+    return objectName;
+  }
+
+  /**
+   * Records a call. The close sequences of the style found in the input are counted with the same
+   * search the formatting does, so that the counts match the text written.
+   */
+  private void record(@NonNull Style style, @NonNull CharSequence input) {
+    final int i = style.ordinal();
+    calls[i].increment();
+    if (!isColorSupported()) {
+      return;
+    }
+
+    final String close = style.close();
+    int count = 0;
+    int index = Utils.indexOf(input, close, style.open().length());
+    while (index != -1) {
+      count++;
+      index = Utils.indexOf(input, close, index + close.length());
+    }
+
+    bytesAdded[i].add(
+        style.open().length()
+            + close.length()
+            + count * (long) (style.replace().length() - close.length()));
+    if (count > 0) {
+      rewrites[i].increment();
+    }
+  }
+
+  private static @NonNull LongAdder[] adders() {
+    final LongAdder[] adders = new LongAdder[STYLES.length];
+    Arrays.setAll(adders, i -> new LongAdder());
+    return adders;
+  }
+
+  /** Exposes the counts of the enclosing instance over JMX. */
+  private final class MBean implements InstrumentedColorsMXBean {
+
+    @Override
+    public long getCalls() {
+      return total(calls);
+    }
+
+    @Override
+    public long getBytesAdded() {
+      return total(bytesAdded);
+    }
+
+    @Override
+    public long getRewrites() {
+      return total(rewrites);
+    }
+
+    @Override
+    public Map<String, Long> getCallsByStyle() {
+      return byStyle(StyleMetrics::calls);
+    }
+
+    @Override
+    public Map<String, Long> getBytesAddedByStyle() {
+      return byStyle(StyleMetrics::bytesAdded);
+    }
+
+    @Override
+    public Map<String, Long> getRewritesByStyle() {
+      return byStyle(StyleMetrics::rewrites);
+    }
+
+    @Override
+    public void resetCounts() {
+      InstrumentedColors.this.resetCounts();
+    }
+
+    private long total(@NonNull LongAdder[] adders) {
+      long total = 0;
+      for (LongAdder adder : adders) {
+        total += adder.sum();
+      }
+      return total;
+    }
+
+    private Map<String, Long> byStyle(@NonNull ToLongFunction<StyleMetrics> count) {
+      final Map<String, Long> counts = new LinkedHashMap<>();
+      for (StyleMetrics metrics : snapshot().values()) {
+        counts.put(metrics.style().name(), count.applyAsLong(metrics));
+      }
+      return counts;
+    }
+  }
+}
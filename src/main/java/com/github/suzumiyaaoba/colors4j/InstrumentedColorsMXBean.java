@@ -0,0 +1,55 @@
+package com.github.suzumiyaaoba.colors4j;
+
+import java.util.Map;
+
+/**
+ * The management interface of {@link InstrumentedColors}, registered with {@link
+ * InstrumentedColors#registerMBean(String)}. The per-style attributes are keyed by style name.
+ */
+public interface InstrumentedColorsMXBean {
+
+  /**
+   * Returns the number of times any style was applied.
+   *
+   * @return the number of calls
+   */
+  long getCalls();
+
+  /**
+   * Returns the number of bytes escape sequences added to the text, for all styles.
+   *
+   * @return the number of bytes added
+   */
+  long getBytesAdded();
+
+  /**
+   * Returns the number of calls that had to rewrite nested close sequences, for all styles.
+   *
+   * @return the number of calls with rewrites
+   */
+  long getRewrites();
+
+  /**
+   * Returns the number of times each style was applied.
+   *
+   * @return the number of calls by style name
+   */
+  Map<String, Long> getCallsByStyle();
+
+  /**
+   * Returns the number of bytes escape sequences added to the text, for each style.
+   *
+   * @return the number of bytes added by style name
+   */
+  Map<String, Long> getBytesAddedByStyle();
+
+  /**
+   * Returns the number of calls that had to rewrite nested close sequences, for each style.
+   *
+   * @return the number of calls with rewrites by style name
+   */
+  Map<String, Long> getRewritesByStyle();
+
+  /** Sets all counts back to zero. */
+  void resetCounts();
+}
@@ -0,0 +1,194 @@
+package com.github.suzumiyaaoba.colors4j;
+
+import org.jspecify.annotations.NonNull;
+
+/**
+ * Compiled styles for 16-color, 256-color and truecolor (24-bit RGB) foreground and background
+ * colors.
+ *
+ * <p>The 16 basic colors share the styles of the corresponding {@link Style} constants where there
+ * is one, so they format exactly like the style methods of {@link Colors}.
+ *
+ * <p>The 256 indexed colors are compiled once into tables. Truecolor styles are kept in a bounded,
+ * direct-mapped cache, so frequently used colors are not compiled again on every call. Entries are
+ * immutable, so the cache needs no locking: a racing thread at worst compiles the same style twice.
+ */
+final class Palette {
+
+  private static final String FOREGROUND_CLOSE = "\u001B[39m";
+  private static final String BACKGROUND_CLOSE = "\u001B[49m";
+
+  private static final int CACHE_SIZE = 1024;
+
+  private static final CompiledStyle[] FOREGROUND_16 = new CompiledStyle[16];
+  private static final CompiledStyle[] BACKGROUND_16 = new CompiledStyle[16];
+
+  private static final CompiledStyle[] FOREGROUND_256 = new CompiledStyle[256];
+  private static final CompiledStyle[] BACKGROUND_256 = new CompiledStyle[256];
+
+  private static final Entry[] RGB_CACHE = new Entry[CACHE_SIZE];
+
+  static {
+    for (int i = 0; i < 8; i++) {
+      FOREGROUND_16[i] = CompiledStyle.of(Style.values()[Style.BLACK.ordinal() + i]);
+      BACKGROUND_16[i] = CompiledStyle.of(Style.values()[Style.BG_BLACK.ordinal() + i]);
+      FOREGROUND_16[8 + i] = basic("\u001B[" + (90 + i) + 'm', FOREGROUND_CLOSE);
+      BACKGROUND_16[8 + i] = basic("\u001B[" + (100 + i) + 'm', BACKGROUND_CLOSE);
+    }
+    FOREGROUND_16[8] = CompiledStyle.of(Style.GRAY);
+
+    for (int i = 0; i < 256; i++) {
+      FOREGROUND_256[i] = compile("\u001B[38;5;" + i + "m", FOREGROUND_CLOSE);
+      BACKGROUND_256[i] = compile("\u001B[48;5;" + i + "m", BACKGROUND_CLOSE);
+    }
+  }
+
+  /** Private constructor to prevent instantiation. */
+  private Palette() {}
+
+  /**
+   * Returns the style for one of the 16 basic colors.
+   *
+   * @param index the color index, from 0 to 15
+   * @param background true for a background color, false for a foreground color
+   * @return the compiled style
+   */
+  static @NonNull CompiledStyle basic(int index, boolean background) {
+    return background ? BACKGROUND_16[index] : FOREGROUND_16[index];
+  }
+
+  /**
+   * Returns the style for one of the 256 indexed colors.
+   *
+   * @param index the color index, from 0 to 255
+   * @param background true for a background color, false for a foreground color
+   * @return the compiled style
+   */
+  static @NonNull CompiledStyle indexed(int index, boolean background) {
+    return background ? BACKGROUND_256[index] : FOREGROUND_256[index];
+  }
+
+  /**
+   * Returns the style for a truecolor color.
+   *
+   * @param rgb the color as {@code 0xRRGGBB}
+   * @param background true for a background color, false for a foreground color
+   * @return the compiled style
+   */
+  static @NonNull CompiledStyle rgb(int rgb, boolean background) {
+    final int key = background ? rgb | 1 << 24 : rgb;
+    final int slot = (key ^ key >>> 10 ^ key >>> 20) & CACHE_SIZE - 1;
+
+    final Entry entry = RGB_CACHE[slot];
+    if (entry != null && entry.key == key) {
+      return entry.style;
+    }
+
+    final String open =
+        (background ? "\u001B[48;2;" : "\u001B[38;2;")
+            + (rgb >>> 16 & 0xFF)
+            + ';'
+            + (rgb >>> 8 & 0xFF)
+            + ';'
+            + (rgb & 0xFF)
+            + 'm';
+    final CompiledStyle style = compile(open, background ? BACKGROUND_CLOSE : FOREGROUND_CLOSE);
+
+    RGB_CACHE[slot] = new Entry(key, style);
+    return style;
+  }
+
+  /**
+   * Parses a color written as {@code #rrggbb} or {@code #rgb}, with or without the leading
+   * {@code #}, without allocating.
+   *
+   * @param hex the color to parse
+   * @return the color as {@code 0xRRGGBB}
+   * @throws IllegalArgumentException if the color is malformed
+   */
+  static int parseHex(@NonNull CharSequence hex) {
+    final int start = hex.length() > 0 && hex.charAt(0) == '#' ? 1 : 0;
+    final int digits = hex.length() - start;
+
+    if (digits != 6 && digits != 3) {
+      throw new IllegalArgumentException("Malformed hex color: " + hex);
+    }
+
+    int rgb = 0;
+    for (int i = start; i < hex.length(); i++) {
+      final int digit = hexDigit(hex.charAt(i));
+      if (digit == -1) {
+        throw new IllegalArgumentException("Malformed hex color: " + hex);
+      }
+      rgb = digits == 6 ? rgb << 4 | digit : rgb << 8 | digit << 4 | digit;
+    }
+    return rgb;
+  }
+
+  /** Returns the value of an ASCII hex digit, or -1 if the character is not one. */
+  private static int hexDigit(char c) {
+    if (c >= '0' && c <= '9') {
+      return c - '0';
+    } else if (c >= 'a' && c <= 'f') {
+      return c - 'a' + 10;
+    } else if (c >= 'A' && c <= 'F') {
+      return c - 'A' + 10;
+    }
+    return -1;
+  }
+
+  /**
+   * Packs color components into {@code 0xRRGGBB}.
+   *
+   * @param r the red component, from 0 to 255
+   * @param g the green component, from 0 to 255
+   * @param b the blue component, from 0 to 255
+   * @return the color as {@code 0xRRGGBB}
+   * @throws IllegalArgumentException if a component is out of range
+   */
+  static int pack(int r, int g, int b) {
+    return checkByte(r, "r") << 16 | checkByte(g, "g") << 8 | checkByte(b, "b");
+  }
+
+  /**
+   * Checks that a color component or index is between 0 and 255.
+   *
+   * @param value the value to check
+   * @param name the name of the value for the error message
+   * @return the value
+   * @throws IllegalArgumentException if the value is out of range
+   */
+  static int checkByte(int value, @NonNull String name) {
+    if (value < 0 || value > 255) {
+      throw new IllegalArgumentException(name + " must be between 0 and 255: " + value);
+    }
+    return value;
+  }
+
+  /** Compiles a basic color style, which formats like the basic color styles of {@link Style}. */
+  private static @NonNull CompiledStyle basic(@NonNull String open, @NonNull String close) {
+    return CompiledStyle.compile(new String[] {open}, new String[] {close}, new String[] {open});
+  }
+
+  /**
+   * Compiles a color style. The open sequences of these colors are much longer than those of the
+   * basic colors, so, unlike {@link Utils#format}, the whole input is searched for nested close
+   * sequences; otherwise a close sequence right after a short nested string would be missed.
+   */
+  private static @NonNull CompiledStyle compile(@NonNull String open, @NonNull String close) {
+    return CompiledStyle.compile(
+        new String[] {open}, new String[] {close}, new String[] {open}, new int[] {0});
+  }
+
+  /** A cached truecolor style. */
+  private static final class Entry {
+
+    private final int key;
+    private final CompiledStyle style;
+
+    Entry(int key, @NonNull CompiledStyle style) {
+      this.key = key;
+      this.style = style;
+    }
+  }
+}
@@ -0,0 +1,159 @@
+package com.github.suzumiyaaoba.colors4j;
+
+/**
+ * Maps RGB colors to the nearest of the 256 xterm colors or of the 16 basic ANSI colors.
+ *
+ * <p>The nearest colors are precomputed for every RGB color reduced to 5 bits per channel, so a
+ * lookup is a single array access. Distances are squared Euclidean distances in RGB space, measured
+ * from the center of each 5-bit cell; the color found is therefore at most {@code 2 * sqrt(48)}
+ * further from the requested color than the exact nearest color.
+ *
+ * <p>The 16 system colors are left out of the 256-color table, because terminals commonly let
+ * users redefine them; they are the targets of the 16-color table, with the default xterm values.
+ */
+final class Quantizer {
+
+  private static final int BITS = 5;
+  private static final int SIZE = 1 << 3 * BITS;
+
+  private static final int[] ANSI_16 = {
+    0x000000, 0xcd0000, 0x00cd00, 0xcdcd00, 0x0000ee, 0xcd00cd, 0x00cdcd, 0xe5e5e5,
+    0x7f7f7f, 0xff0000, 0x00ff00, 0xffff00, 0x5c5cff, 0xff00ff, 0x00ffff, 0xffffff
+  };
+
+  private static final int[] CUBE_LEVELS = {0, 95, 135, 175, 215, 255};
+
+  private static final byte[] TO_256 = new byte[SIZE];
+  private static final byte[] TO_16 = new byte[SIZE];
+  private static final byte[] INDEXED_TO_16 = new byte[256];
+
+  static {
+    for (int key = 0; key < SIZE; key++) {
+      final int rgb = center(key >>> 2 * BITS) << 16 | center(key >>> BITS) << 8 | center(key);
+      TO_256[key] = (byte) nearest256(rgb);
+      TO_16[key] = (byte) nearest16(rgb);
+    }
+    for (int i = 0; i < 256; i++) {
+      INDEXED_TO_16[i] = (byte) (i < 16 ? i : nearest16(rgb256(i)));
+    }
+  }
+
+  /** Private constructor to prevent instantiation. */
+  private Quantizer() {}
+
+  /**
+   * Returns the xterm color nearest to the given color.
+   *
+   * @param rgb the color as {@code 0xRRGGBB}
+   * @return the color index, from 16 to 255
+   */
+  static int to256(int rgb) {
+    return TO_256[key(rgb)] & 0xFF;
+  }
+
+  /**
+   * Returns the basic ANSI color nearest to the given color.
+   *
+   * @param rgb the color as {@code 0xRRGGBB}
+   * @return the color index, from 0 to 15
+   */
+  static int to16(int rgb) {
+    return TO_16[key(rgb)];
+  }
+
+  /**
+   * Returns the basic ANSI color nearest to the given xterm color.
+   *
+   * @param index the xterm color index, from 0 to 255
+   * @return the color index, from 0 to 15
+   */
+  static int indexedTo16(int index) {
+    return INDEXED_TO_16[index];
+  }
+
+  /**
+   * Returns the default RGB value of an xterm color.
+   *
+   * @param index the color index, from 0 to 255
+   * @return the color as {@code 0xRRGGBB}
+   */
+  static int rgb256(int index) {
+    if (index < 16) {
+      return ANSI_16[index];
+    }
+    if (index >= 232) {
+      final int level = 8 + (index - 232) * 10;
+      return level << 16 | level << 8 | level;
+    }
+    final int cube = index - 16;
+    return CUBE_LEVELS[cube / 36] << 16 | CUBE_LEVELS[cube / 6 % 6] << 8 | CUBE_LEVELS[cube % 6];
+  }
+
+  /**
+   * Returns the squared Euclidean distance between two colors.
+   *
+   * @param a a color as {@code 0xRRGGBB}
+   * @param b a color as {@code 0xRRGGBB}
+   * @return the squared distance
+   */
+  static int distance(int a, int b) {
+    final int dr = (a >>> 16 & 0xFF) - (b >>> 16 & 0xFF);
+    final int dg = (a >>> 8 & 0xFF) - (b >>> 8 & 0xFF);
+    final int db = (a & 0xFF) - (b & 0xFF);
+    return dr * dr + dg * dg + db * db;
+  }
+
+  private static int key(int rgb) {
+    return (rgb >>> 19 & 0x1F) << 2 * BITS | (rgb >>> 11 & 0x1F) << BITS | rgb >>> 3 & 0x1F;
+  }
+
+  private static int center(int channel) {
+    return (channel & 0x1F) << 8 - BITS | 1 << 7 - BITS;
+  }
+
+  /**
+   * Finds the nearest color of the 6x6x6 cube and of the gray ramp. The cube is a product of
+   * levels, so its nearest color is made of the nearest level of each channel.
+   */
+  private static int nearest256(int rgb) {
+    final int cube =
+        16
+            + 36 * nearestLevel(rgb >>> 16 & 0xFF)
+            + 6 * nearestLevel(rgb >>> 8 & 0xFF)
+            + nearestLevel(rgb & 0xFF);
+
+    int best = cube;
+    int bestDistance = distance(rgb, rgb256(cube));
+    for (int i = 232; i < 256; i++) {
+      final int d = distance(rgb, rgb256(i));
+      if (d < bestDistance) {
+        best = i;
+        bestDistance = d;
+      }
+    }
+    return best;
+  }
+
+  private static int nearestLevel(int value) {
+    int best = 0;
+    for (int i = 1; i < CUBE_LEVELS.length; i++) {
+      if (Math.abs(CUBE_LEVELS[i] - value) < Math.abs(CUBE_LEVELS[best] - value)) {
+        best = i;
+      }
+    }
+    return best;
+  }
+
+  private static int nearest16(int rgb) {
+    int best = 0;
+    int bestDistance = Integer.MAX_VALUE;
+    for (int i = 0; i < ANSI_16.length; i++) {
+      final int d = distance(rgb, ANSI_16[i]);
+      if (d < bestDistance) {
+        best = i;
+        bestDistance = d;
+      }
+    }
+    return best;
+  }
+}
@@ -0,0 +1,82 @@
+package com.github.suzumiyaaoba.colors4j;
+
+import org.jspecify.annotations.NonNull;
+
+/**
+ * A cursor over the parameters of an SGR sequence, the part between {@code ESC[} and {@code m}.
+ * Parameters are separated by {@code ;}, and sub-parameters by {@code :}; an empty parameter reads
+ * as 0. The cursor is reused from sequence to sequence, so reading allocates nothing.
+ */
+final class SgrParameters {
+
+  private static final int MAX_VALUE = 99_999;
+
+  private CharSequence input = "";
+  private int position;
+  private int end;
+  private boolean colon;
+
+  /**
+   * Starts reading the parameters in the given range.
+   *
+   * @param input the sequence holding the parameters
+   * @param fromIndex the index of the first parameter character
+   * @param toIndex the index after the last parameter character
+   * @return this cursor
+   */
+  @NonNull SgrParameters reset(@NonNull CharSequence input, int fromIndex, int toIndex) {
+    this.input = input;
+    this.position = fromIndex;
+    this.end = toIndex;
+    this.colon = false;
+    return this;
+  }
+
+  /**
+   * Checks if there is another parameter. A range ending with a separator ends with an empty
+   * parameter.
+   *
+   * @return true if there is another parameter, false otherwise
+   */
+  boolean hasNext() {
+    return position <= end;
+  }
+
+  /**
+   * Reads the next parameter.
+   *
+   * @return the value of the parameter, 0 if it is empty
+   */
+  int next() {
+    int value = 0;
+    int i = position;
+    while (i < end) {
+      final char c = input.charAt(i);
+      if (c < '0' || c > '9') {
+        break;
+      }
+      value = Math.min(value * 10 + c - '0', MAX_VALUE);
+      i++;
+    }
+
+    colon = i < end && input.charAt(i) == ':';
+    position = i + 1;
+    return value;
+  }
+
+  /**
+   * Checks if the parameter just read is followed by a sub-parameter.
+   *
+   * @return true if the next parameter is a sub-parameter, false otherwise
+   */
+  boolean colonFollows() {
+    return colon && position <= end;
+  }
+
+  /** Skips the remaining sub-parameters of the parameter just read. */
+  void skipSubParameters() {
+    while (colonFollows()) {
+      next();
+    }
+  }
+}
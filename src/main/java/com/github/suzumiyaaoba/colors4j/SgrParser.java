@@ -0,0 +1,185 @@
+package com.github.suzumiyaaoba.colors4j;
+
+import org.jspecify.annotations.NonNull;
+
+/**
+ * SgrParser class.
+ *
+ * <p>Reads text with ANSI escape sequences, such as the colored output of another tool, and
+ * reports its visible text in spans, each with the {@link SgrState} it is displayed with. Input
+ * can be given in chunks of any size: escape sequences split between chunks are recognized, so a
+ * stream can be parsed as it arrives.
+ *
+ * <p>Spans are reported as ranges of the chunk being parsed, and the state passed along is the
+ * parser's own, so parsing allocates nothing per span or per character; a handler that keeps a
+ * span must copy it, for example with {@link SgrState#SgrState(SgrState)}. Neighbouring spans may
+ * have the same state, when they are separated by a chunk boundary or by a sequence that changes
+ * nothing. Escape sequences other than SGR sequences are skipped.
+ *
+ * <pre>{@code
+ * SgrParser parser = new SgrParser((text, start, end, state) -> {
+ *   if (state.isBold()) {
+ *     highlights.add(text.subSequence(start, end).toString());
+ *   }
+ * });
+ * parser.parse(chunk);
+ * parser.finish();
+ * }</pre>
+ *
+ * <p>This class is not thread-safe.
+ */
+public final class SgrParser {
+
+  /** The longest parameter list read; longer SGR sequences are skipped. */
+  private static final int MAX_PARAMETERS_LENGTH = 256;
+
+  /** Receives the visible text of the input. */
+  @FunctionalInterface
+  public interface SpanHandler {
+
+    /**
+     * Receives a span of visible text.
+     *
+     * @param text the chunk holding the text
+     * @param start the index of the first character of the span
+     * @param end the index after the last character of the span
+     * @param state the state the span is displayed with, valid until this method returns
+     */
+    void span(@NonNull CharSequence text, int start, int end, @NonNull SgrState state);
+  }
+
+  private final SpanHandler handler;
+  private final SgrState current = new SgrState();
+  private final SgrParameters parameters = new SgrParameters();
+  private final StringBuilder sequence = new StringBuilder();
+  private final CharArrayView view = new CharArrayView();
+
+  private int state = Ansi.TEXT;
+
+  /**
+   * Creates a new parser.
+   *
+   * @param handler the handler to report spans to
+   */
+  public SgrParser(@NonNull SpanHandler handler) {
+    this.handler = handler;
+  }
+
+  /**
+   * Parses the whole input and reports its spans.
+   *
+   * @param input the input to parse
+   * @param handler the handler to report spans to
+   */
+  public static void parse(@NonNull CharSequence input, @NonNull SpanHandler handler) {
+    final SgrParser parser = new SgrParser(handler);
+    parser.parse(input);
+    parser.finish();
+  }
+
+  /**
+   * Parses a chunk of the input.
+   *
+   * @param chunk the chunk to parse
+   */
+  public void parse(@NonNull CharSequence chunk) {
+    parse(chunk, 0, chunk.length());
+  }
+
+  /**
+   * Parses a chunk of the input held in an array. Spans are reported as ranges of the array.
+   *
+   * @param chunk the array holding the chunk
+   * @param offset the index of the first character of the chunk
+   * @param length the number of characters of the chunk
+   */
+  public void parse(char @NonNull [] chunk, int offset, int length) {
+    try {
+      parse(view.wrap(chunk), offset, offset + length);
+    } finally {
+      view.clear();
+    }
+  }
+
+  /**
+   * Parses a range of a chunk of the input. Spans are reported as ranges of the chunk.
+   *
+   * @param chunk the chunk holding the input
+   * @param fromIndex the index of the first character to parse
+   * @param toIndex the index after the last character to parse
+   */
+  public void parse(@NonNull CharSequence chunk, int fromIndex, int toIndex) {
+    int i = fromIndex;
+
+    while (i < toIndex) {
+      if (state == Ansi.TEXT) {
+        int stop = EscapeScanner.indexOf(chunk, i, toIndex);
+        if (stop == -1) {
+          stop = toIndex;
+        }
+
+        if (stop > i) {
+          handler.span(chunk, i, stop, current);
+        }
+        i = stop;
+        if (stop < toIndex) {
+          state = Ansi.ESCAPE;
+          sequence.setLength(0);
+          i++;
+        }
+      } else {
+        final char c = chunk.charAt(i);
+        final int next = Ansi.next(state, c);
+
+        if (next == Ansi.TEXT) {
+          handler.span(chunk, i, i + 1, current);
+        } else if (next == Ansi.END) {
+          if (state == Ansi.CSI && c == 'm') {
+            applySgr();
+          }
+        } else if (next == Ansi.CSI && state == Ansi.CSI) {
+          if (sequence.length() <= MAX_PARAMETERS_LENGTH) {
+            sequence.append(c);
+          }
+        } else if (next == Ansi.ESCAPE) {
+          sequence.setLength(0);
+        }
+        state = next == Ansi.END ? Ansi.TEXT : next;
+        i++;
+      }
+    }
+  }
+
+  /**
+   * Ends the input. An incomplete escape sequence at its end is discarded; the state is kept, so
+   * that parsing can go on with more input.
+   */
+  public void finish() {
+    state = Ansi.TEXT;
+    sequence.setLength(0);
+  }
+
+  /**
+   * Returns the state the text parsed so far ends with. The state is the parser's own and changes
+   * as parsing goes on.
+   *
+   * @return the current state
+   */
+  public @NonNull SgrState state() {
+    return current;
+  }
+
+  private void applySgr() {
+    final int length = sequence.length();
+    if (length > MAX_PARAMETERS_LENGTH) {
+      return;
+    }
+    for (int i = 0; i < length; i++) {
+      final char c = sequence.charAt(i);
+      if ((c < '0' || c > '9') && c != ';' && c != ':') {
+        return;
+      }
+    }
+    current.apply(parameters.reset(sequence, 0, length));
+  }
+}
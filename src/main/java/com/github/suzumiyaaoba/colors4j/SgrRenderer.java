@@ -0,0 +1,256 @@
+package com.github.suzumiyaaoba.colors4j;
+
+import org.jspecify.annotations.NonNull;
+
+/**
+ * SgrRenderer class.
+ *
+ * <p>Renders text whose colors and attributes change from one character to the next, such as
+ * gradients, progress bars and heatmaps. Instead of wrapping each piece of text in its own open
+ * and close sequences, the renderer keeps track of the attributes in effect and, before each piece
+ * of text, writes only the attributes that change, combined into one {@code ESC[a;b;cm} sequence.
+ * Truecolor colors are degraded to the color depth of the {@link Colors} instance the renderer was
+ * created from, and nothing but the text is written when colors are disabled.
+ *
+ * <pre>{@code
+ * SgrRenderer renderer = colors.renderer(new StringBuilder());
+ * for (int i = 0; i < cells.length; i++) {
+ *   renderer.foreground(heat(cells[i])).append('#');
+ * }
+ * String line = renderer.finish().toString();
+ * }</pre>
+ *
+ * <p>This class is not thread-safe.
+ */
+public final class SgrRenderer {
+
+  private final ColorDepth colorDepth;
+  private final StringBuilder out;
+
+  private final SgrState current = new SgrState();
+  private final SgrState pending = new SgrState();
+
+  /**
+   * Creates a new renderer.
+   *
+   * @param colorDepth the number of colors the terminal can display
+   * @param out the builder to append to
+   */
+  SgrRenderer(@NonNull ColorDepth colorDepth, @NonNull StringBuilder out) {
+    this.colorDepth = colorDepth;
+    this.out = out;
+  }
+
+  /**
+   * Sets the foreground color of the following text to a truecolor color.
+   *
+   * @param rgb the color as {@code 0xRRGGBB}
+   * @return this renderer
+   */
+  public @NonNull SgrRenderer foreground(int rgb) {
+    pending.foreground(degrade(rgb & 0xFFFFFF));
+    return this;
+  }
+
+  /**
+   * Sets the background color of the following text to a truecolor color.
+   *
+   * @param rgb the color as {@code 0xRRGGBB}
+   * @return this renderer
+   */
+  public @NonNull SgrRenderer background(int rgb) {
+    pending.background(degrade(rgb & 0xFFFFFF));
+    return this;
+  }
+
+  /**
+   * Sets the foreground color of the following text to one of the 256 indexed colors.
+   *
+   * @param index the color index, from 0 to 255
+   * @return this renderer
+   * @throws IllegalArgumentException if the index is out of range
+   */
+  public @NonNull SgrRenderer foreground256(int index) {
+    pending.foreground(degradeIndexed(Palette.checkByte(index, "index")));
+    return this;
+  }
+
+  /**
+   * Sets the background color of the following text to one of the 256 indexed colors.
+   *
+   * @param index the color index, from 0 to 255
+   * @return this renderer
+   * @throws IllegalArgumentException if the index is out of range
+   */
+  public @NonNull SgrRenderer background256(int index) {
+    pending.background(degradeIndexed(Palette.checkByte(index, "index")));
+    return this;
+  }
+
+  /**
+   * Sets the foreground color of the following text to the default color.
+   *
+   * @return this renderer
+   */
+  public @NonNull SgrRenderer defaultForeground() {
+    pending.foreground(SgrState.DEFAULT_COLOR);
+    return this;
+  }
+
+  /**
+   * Sets the background color of the following text to the default color.
+   *
+   * @return this renderer
+   */
+  public @NonNull SgrRenderer defaultBackground() {
+    pending.background(SgrState.DEFAULT_COLOR);
+    return this;
+  }
+
+  /**
+   * Sets whether the following text is bold.
+   *
+   * @param on true to make the text bold
+   * @return this renderer
+   */
+  public @NonNull SgrRenderer bold(boolean on) {
+    pending.attribute(SgrState.BOLD, on);
+    return this;
+  }
+
+  /**
+   * Sets whether the following text is dim.
+   *
+   * @param on true to make the text dim
+   * @return this renderer
+   */
+  public @NonNull SgrRenderer dim(boolean on) {
+    pending.attribute(SgrState.DIM, on);
+    return this;
+  }
+
+  /**
+   * Sets whether the following text is italic.
+   *
+   * @param on true to make the text italic
+   * @return this renderer
+   */
+  public @NonNull SgrRenderer italic(boolean on) {
+    pending.attribute(SgrState.ITALIC, on);
+    return this;
+  }
+
+  /**
+   * Sets whether the following text is underlined.
+   *
+   * @param on true to underline the text
+   * @return this renderer
+   */
+  public @NonNull SgrRenderer underline(boolean on) {
+    pending.attribute(SgrState.UNDERLINE, on);
+    return this;
+  }
+
+  /**
+   * Sets whether the foreground and background colors of the following text are swapped.
+   *
+   * @param on true to swap the colors
+   * @return this renderer
+   */
+  public @NonNull SgrRenderer inverse(boolean on) {
+    pending.attribute(SgrState.INVERSE, on);
+    return this;
+  }
+
+  /**
+   * Sets whether the following text is struck through.
+   *
+   * @param on true to strike the text through
+   * @return this renderer
+   */
+  public @NonNull SgrRenderer strikethrough(boolean on) {
+    pending.attribute(SgrState.STRIKETHROUGH, on);
+    return this;
+  }
+
+  /**
+   * Sets the colors and attributes of the following text back to the defaults.
+   *
+   * @return this renderer
+   */
+  public @NonNull SgrRenderer reset() {
+    pending.reset();
+    return this;
+  }
+
+  /**
+   * Appends a character with the current colors and attributes.
+   *
+   * @param c the character to append
+   * @return this renderer
+   */
+  public @NonNull SgrRenderer append(char c) {
+    sync();
+    out.append(c);
+    return this;
+  }
+
+  /**
+   * Appends a code point with the current colors and attributes.
+   *
+   * @param codePoint the code point to append
+   * @return this renderer
+   */
+  public @NonNull SgrRenderer appendCodePoint(int codePoint) {
+    sync();
+    out.appendCodePoint(codePoint);
+    return this;
+  }
+
+  /**
+   * Appends text with the current colors and attributes.
+   *
+   * @param text the text to append
+   * @return this renderer
+   */
+  public @NonNull SgrRenderer append(@NonNull CharSequence text) {
+    if (text.length() > 0) {
+      sync();
+      out.append(text);
+    }
+    return this;
+  }
+
+  /**
+   * Resets the colors and attributes if any are in effect, so that the text that follows the
+   * rendered text is not affected, and returns the builder.
+   *
+   * @return the builder the text was appended to
+   */
+  public @NonNull StringBuilder finish() {
+    pending.reset();
+    sync();
+    return out;
+  }
+
+  private void sync() {
+    if (colorDepth != ColorDepth.NONE) {
+      current.transition(pending, out);
+    }
+  }
+
+  private int degrade(int rgb) {
+    switch (colorDepth) {
+      case ANSI_16:
+        return Quantizer.to16(rgb);
+      case ANSI_256:
+        return Quantizer.to256(rgb);
+      default:
+        return SgrState.RGB_FLAG | rgb;
+    }
+  }
+
+  private int degradeIndexed(int index) {
+    return colorDepth == ColorDepth.ANSI_16 ? Quantizer.indexedTo16(index) : index;
+  }
+}
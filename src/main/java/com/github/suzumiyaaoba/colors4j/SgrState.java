@@ -0,0 +1,523 @@
+package com.github.suzumiyaaoba.colors4j;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * SgrState class.
+ *
+ * <p>The text attributes and colors set by SGR (Select Graphic Rendition) escape sequences, such as
+ * {@code ESC[1;31m}, at some point of a text. Colors are encoded as ints: {@link #DEFAULT_COLOR}
+ * for the default color, 0 to 255 for the indexed colors, the first 16 being the basic colors, and
+ * {@link #RGB_FLAG}{@code | 0xRRGGBB} for a truecolor color, and {@link #UNKNOWN_COLOR} for a
+ * color set by a sequence that could not be read.
+ *
+ * <p>A state can write the shortest sequence that changes it into another state, which is how
+ * renderers avoid repeating attributes that are already set. This class is not thread-safe.
+ */
+public final class SgrState {
+
+  /** The default foreground or background color. */
+  public static final int DEFAULT_COLOR = -1;
+
+  /** A color set by a malformed or unsupported sequence. */
+  public static final int UNKNOWN_COLOR = -2;
+
+  /** The flag of truecolor colors. */
+  public static final int RGB_FLAG = 1 << 24;
+
+  /** Returned by {@link #apply} if a parameter was not understood. */
+  static final int UNKNOWN = 1;
+
+  /** Returned by {@link #apply} if the parameters included a reset. */
+  static final int RESET = 1 << 1;
+
+  static final int BOLD = 1;
+  static final int DIM = 1 << 1;
+  static final int ITALIC = 1 << 2;
+  static final int UNDERLINE = 1 << 3;
+  static final int INVERSE = 1 << 4;
+  static final int HIDDEN = 1 << 5;
+  static final int STRIKETHROUGH = 1 << 6;
+
+  private static final int[] ATTRIBUTES = {
+    BOLD, DIM, ITALIC, UNDERLINE, INVERSE, HIDDEN, STRIKETHROUGH
+  };
+  private static final int[] ON_CODES = {1, 2, 3, 4, 7, 8, 9};
+  private static final int[] OFF_CODES = {22, 22, 23, 24, 27, 28, 29};
+
+  private int attributes;
+
+  /**
+   * The attributes set by forms this class cannot write back, such as the curly underline {@code
+   * 4:3} or the double underline {@code 21}. They are written again whenever they change.
+   */
+  private int variants;
+
+  private int foreground = DEFAULT_COLOR;
+  private int background = DEFAULT_COLOR;
+
+  /** Creates a new state with no attributes and the default colors. */
+  public SgrState() {}
+
+  /**
+   * Creates a copy of the given state.
+   *
+   * @param other the state to copy
+   */
+  public SgrState(@NonNull SgrState other) {
+    set(other);
+  }
+
+  /**
+   * Checks if this state has no attributes and the default colors, as after {@code ESC[0m}.
+   *
+   * @return true if this is the default state, false otherwise
+   */
+  public boolean isDefault() {
+    return attributes == 0 && foreground == DEFAULT_COLOR && background == DEFAULT_COLOR;
+  }
+
+  /**
+   * Checks if the text is bold.
+   *
+   * @return true if the text is bold, false otherwise
+   */
+  public boolean isBold() {
+    return (attributes & BOLD) != 0;
+  }
+
+  /**
+   * Checks if the text is dim.
+   *
+   * @return true if the text is dim, false otherwise
+   */
+  public boolean isDim() {
+    return (attributes & DIM) != 0;
+  }
+
+  /**
+   * Checks if the text is italic.
+   *
+   * @return true if the text is italic, false otherwise
+   */
+  public boolean isItalic() {
+    return (attributes & ITALIC) != 0;
+  }
+
+  /**
+   * Checks if the text is underlined.
+   *
+   * @return true if the text is underlined, false otherwise
+   */
+  public boolean isUnderline() {
+    return (attributes & UNDERLINE) != 0;
+  }
+
+  /**
+   * Checks if the foreground and background colors are swapped.
+   *
+   * @return true if the colors are swapped, false otherwise
+   */
+  public boolean isInverse() {
+    return (attributes & INVERSE) != 0;
+  }
+
+  /**
+   * Checks if the text is hidden.
+   *
+   * @return true if the text is hidden, false otherwise
+   */
+  public boolean isHidden() {
+    return (attributes & HIDDEN) != 0;
+  }
+
+  /**
+   * Checks if the text is struck through.
+   *
+   * @return true if the text is struck through, false otherwise
+   */
+  public boolean isStrikethrough() {
+    return (attributes & STRIKETHROUGH) != 0;
+  }
+
+  /**
+   * Returns the foreground color.
+   *
+   * @return the encoded foreground color
+   */
+  public int foreground() {
+    return foreground;
+  }
+
+  /**
+   * Returns the background color.
+   *
+   * @return the encoded background color
+   */
+  public int background() {
+    return background;
+  }
+
+  void set(@NonNull SgrState other) {
+    this.attributes = other.attributes;
+    this.variants = other.variants;
+    this.foreground = other.foreground;
+    this.background = other.background;
+  }
+
+  void reset() {
+    attributes = 0;
+    variants = 0;
+    foreground = DEFAULT_COLOR;
+    background = DEFAULT_COLOR;
+  }
+
+  void attribute(int attribute, boolean on) {
+    attributes = on ? attributes | attribute : attributes & ~attribute;
+    variants &= ~attribute;
+  }
+
+  void foreground(int color) {
+    this.foreground = color;
+  }
+
+  void background(int color) {
+    this.background = color;
+  }
+
+  /**
+   * Applies the parameters of an SGR sequence to this state. Parameters that are not understood,
+   * such as blinking, are skipped; a color that cannot be read becomes {@link #UNKNOWN_COLOR}.
+   * Extended colors are read in both their {@code 38;5;n} and {@code 38:5:n} forms. Underline
+   * styles, such as {@code 4:3} or {@code 21}, underline the text but are reported as not
+   * understood, since they cannot be written back.
+   *
+   * @param parameters the parameters to apply
+   * @return {@link #UNKNOWN} if a parameter was not understood, {@link #RESET} if the parameters
+   *     included a reset, both combined, or 0
+   */
+  int apply(@NonNull SgrParameters parameters) {
+    int flags = 0;
+
+    while (parameters.hasNext()) {
+      final int code = parameters.next();
+      final boolean colon = parameters.colonFollows();
+
+      if (code == 38 || code == 48) {
+        final int color = colon ? readColonColor(parameters) : readColor(parameters);
+        if (color == UNKNOWN_COLOR) {
+          flags |= UNKNOWN;
+        }
+        if (code == 38) {
+          foreground = color;
+        } else {
+          background = color;
+        }
+        continue;
+      }
+      if (code == 4 && colon) {
+        // 4:0 is no underline, 4:1 a single underline, and 4:2 to 4:5 other underline styles.
+        final int style = parameters.next();
+        final boolean known = style <= 1 && !parameters.colonFollows();
+        parameters.skipSubParameters();
+        attribute(UNDERLINE, style != 0);
+        if (!known) {
+          variants |= UNDERLINE;
+          flags |= UNKNOWN;
+        }
+        continue;
+      }
+      if (colon) {
+        parameters.skipSubParameters();
+        flags |= UNKNOWN;
+        continue;
+      }
+
+      if (code == 0) {
+        reset();
+        flags |= RESET;
+      } else if (code == 21) {
+        attribute(UNDERLINE, true);
+        variants |= UNDERLINE;
+        flags |= UNKNOWN;
+      } else if (code == 22) {
+        attribute(BOLD | DIM, false);
+      } else if (code >= 30 && code <= 37) {
+        foreground = code - 30;
+      } else if (code == 39) {
+        foreground = DEFAULT_COLOR;
+      } else if (code >= 40 && code <= 47) {
+        background = code - 40;
+      } else if (code == 49) {
+        background = DEFAULT_COLOR;
+      } else if (code >= 90 && code <= 97) {
+        foreground = code - 90 + 8;
+      } else if (code >= 100 && code <= 107) {
+        background = code - 100 + 8;
+      } else if (!applyAttribute(code)) {
+        flags |= UNKNOWN;
+      }
+    }
+    return flags;
+  }
+
+  private boolean applyAttribute(int code) {
+    for (int i = 0; i < ATTRIBUTES.length; i++) {
+      if (code == ON_CODES[i]) {
+        attribute(ATTRIBUTES[i], true);
+        return true;
+      } else if (code == OFF_CODES[i] && code != 22) {
+        attribute(ATTRIBUTES[i], false);
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** Reads the rest of a color written as {@code 38;5;n} or {@code 38;2;r;g;b}. */
+  private static int readColor(@NonNull SgrParameters parameters) {
+    if (!parameters.hasNext()) {
+      return UNKNOWN_COLOR;
+    }
+
+    final int mode = parameters.next();
+    if (mode == 5 && parameters.hasNext()) {
+      return indexed(parameters.next());
+    } else if (mode == 2) {
+      final int r = parameters.hasNext() ? parameters.next() : -1;
+      final int g = parameters.hasNext() ? parameters.next() : -1;
+      final int b = parameters.hasNext() ? parameters.next() : -1;
+      return rgb(r, g, b);
+    }
+    return UNKNOWN_COLOR;
+  }
+
+  /**
+   * Reads the rest of a color written as {@code 38:5:n}, {@code 38:2:r:g:b} or {@code
+   * 38:2:id:r:g:b}, where the color space id is usually empty.
+   */
+  private static int readColonColor(@NonNull SgrParameters parameters) {
+    final int mode = parameters.next();
+
+    int count = 0;
+    int first = -1;
+    int second = -1;
+    int third = -1;
+    int fourth = -1;
+    while (parameters.colonFollows()) {
+      final int value = parameters.next();
+      if (count == 0) {
+        first = value;
+      } else if (count == 1) {
+        second = value;
+      } else if (count == 2) {
+        third = value;
+      } else {
+        fourth = value;
+      }
+      count++;
+    }
+
+    if (mode == 5 && count == 1) {
+      return indexed(first);
+    } else if (mode == 2 && count == 3) {
+      return rgb(first, second, third);
+    } else if (mode == 2 && count == 4) {
+      return rgb(second, third, fourth);
+    }
+    return UNKNOWN_COLOR;
+  }
+
+  private static int indexed(int index) {
+    return index >= 0 && index <= 255 ? index : UNKNOWN_COLOR;
+  }
+
+  private static int rgb(int r, int g, int b) {
+    if ((r | g | b) < 0 || r > 255 || g > 255 || b > 255) {
+      return UNKNOWN_COLOR;
+    }
+    return RGB_FLAG | r << 16 | g << 8 | b;
+  }
+
+  /**
+   * Appends the shortest SGR sequence that changes this state into the target state, and makes
+   * this state equal to the target. Attributes that do not change are not written, several
+   * changes share one sequence, and a reset is used when it is shorter than turning attributes off
+   * one by one.
+   *
+   * @param target the state to change to
+   * @param out the builder to append to
+   * @return true if a sequence was appended, false if the states were already equal
+   */
+  boolean transition(@NonNull SgrState target, @NonNull StringBuilder out) {
+    return transition(target, out, true);
+  }
+
+  /**
+   * Appends the shortest SGR sequence that changes this state into the target state, like {@link
+   * #transition(SgrState, StringBuilder)}, but only uses a reset if allowed. A reset must not be
+   * used while attributes this class does not track, such as blinking, are in effect.
+   *
+   * @param target the state to change to
+   * @param out the builder to append to
+   * @param allowReset true if a reset may be used
+   * @return true if a sequence was appended, false if the states were already equal
+   */
+  boolean transition(@NonNull SgrState target, @NonNull StringBuilder out, boolean allowReset) {
+    if (equals(target)) {
+      return false;
+    }
+
+    final int start = out.length();
+    out.append(EscapeScanner.ESC).append('[');
+    appendDelta(target, out);
+
+    if (allowReset && out.length() - start - 3 > 1 + target.parametersLength()) {
+      out.setLength(start + 2);
+      out.append('0');
+      target.appendParameters(out);
+    }
+    out.setCharAt(out.length() - 1, 'm');
+
+    set(target);
+    return true;
+  }
+
+  /** Appends the parameters turning this state into the target, each followed by {@code ;}. */
+  private void appendDelta(@NonNull SgrState target, @NonNull StringBuilder out) {
+    final int off = attributes & ~target.attributes;
+    // Attributes set in a form the target does not share are written again to replace it.
+    final int replaced = variants & ~target.variants;
+    int on = target.attributes & ~(attributes & ~replaced);
+
+    if ((off & (BOLD | DIM)) != 0) {
+      out.append("22;");
+      on |= target.attributes & (BOLD | DIM);
+    }
+    for (int i = 2; i < ATTRIBUTES.length; i++) {
+      if ((off & ATTRIBUTES[i]) != 0) {
+        out.append(OFF_CODES[i]).append(';');
+      }
+    }
+    for (int i = 0; i < ATTRIBUTES.length; i++) {
+      if ((on & ATTRIBUTES[i]) != 0) {
+        out.append(ON_CODES[i]).append(';');
+      }
+    }
+    if (foreground != target.foreground) {
+      appendColor(target.foreground, false, out);
+    }
+    if (background != target.background) {
+      appendColor(target.background, true, out);
+    }
+  }
+
+  /** Appends the parameters setting this state after a reset, each preceded by {@code ;}. */
+  private void appendParameters(@NonNull StringBuilder out) {
+    for (int i = 0; i < ATTRIBUTES.length; i++) {
+      if ((attributes & ATTRIBUTES[i]) != 0) {
+        out.append(';').append(ON_CODES[i]);
+      }
+    }
+    if (foreground != DEFAULT_COLOR) {
+      out.append(';');
+      appendColor(foreground, false, out);
+      out.setLength(out.length() - 1);
+    }
+    if (background != DEFAULT_COLOR) {
+      out.append(';');
+      appendColor(background, true, out);
+      out.setLength(out.length() - 1);
+    }
+    out.append(';');
+  }
+
+  /** Returns the length of the parameters written by {@link #appendParameters}, but the last. */
+  private int parametersLength() {
+    int length = 0;
+    for (int i = 0; i < ATTRIBUTES.length; i++) {
+      if ((attributes & ATTRIBUTES[i]) != 0) {
+        length += 2;
+      }
+    }
+    if (foreground != DEFAULT_COLOR) {
+      length += 1 + colorLength(foreground, false);
+    }
+    if (background != DEFAULT_COLOR) {
+      length += 1 + colorLength(background, true);
+    }
+    return length;
+  }
+
+  /** Appends the parameters of a color, followed by {@code ;}. */
+  private static void appendColor(int color, boolean background, @NonNull StringBuilder out) {
+    final int base = background ? 40 : 30;
+    if (color == UNKNOWN_COLOR) {
+      out.append('?');
+    } else if (color == DEFAULT_COLOR) {
+      out.append(base + 9);
+    } else if (color < 8) {
+      out.append(base + color);
+    } else if (color < 16) {
+      out.append(base + 60 + color - 8);
+    } else if (color < 256) {
+      out.append(base + 8).append(";5;").append(color);
+    } else {
+      out.append(base + 8)
+          .append(";2;")
+          .append(color >>> 16 & 0xFF)
+          .append(';')
+          .append(color >>> 8 & 0xFF)
+          .append(';')
+          .append(color & 0xFF);
+    }
+    out.append(';');
+  }
+
+  /** Returns the length of the parameters of a non-default color. */
+  private static int colorLength(int color, boolean background) {
+    if (color < 8) {
+      return 2;
+    } else if (color < 16) {
+      return background ? 3 : 2;
+    } else if (color < 256) {
+      return 5 + digits(color);
+    }
+    return 7 + digits(color >>> 16 & 0xFF) + digits(color >>> 8 & 0xFF) + digits(color & 0xFF);
+  }
+
+  private static int digits(int value) {
+    return value < 10 ? 1 : value < 100 ? 2 : 3;
+  }
+
+  @Override
+  public boolean equals(@Nullable Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof SgrState)) {
+      return false;
+    }
+    final SgrState other = (SgrState) obj;
+    return attributes == other.attributes
+        && variants == other.variants
+        && foreground == other.foreground
+        && background == other.background;
+  }
+
+  @Override
+  public int hashCode() {
+    return ((attributes * 31 + variants) * 31 + foreground) * 31 + background;
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder out = new StringBuilder("SgrState[");
+    new SgrState().appendDelta(this, out);
+    if (out.charAt(out.length() - 1) == ';') {
+      out.setLength(out.length() - 1);
+    }
+    return out.append(']').toString();
+  }
+}
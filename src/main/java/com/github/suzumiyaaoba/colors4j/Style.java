@@ -0,0 +1,103 @@
+package com.github.suzumiyaaoba.colors4j;
+
+import org.jspecify.annotations.NonNull;
+
+/**
+ * Style enum.
+ *
+ * <p>Enumerates the text attributes and colors supported by {@link Colors}, together with their
+ * ANSI open, close and replace sequences.
+ */
+public enum Style {
+  /** Resets all text formatting to default. */
+  RESET("\u001B[0m", "\u001B[0m"),
+  /** Bold text. */
+  BOLD("\u001B[1m", "\u001B[22m", "\u001B[22m\u001B[1m"),
+  /** Dim (faint) text. */
+  DIM("\u001B[2m", "\u001B[22m", "\u001B[22m\u001B[2m"),
+  /** Italic text. */
+  ITALIC("\u001B[3m", "\u001B[23m"),
+  /** Underlined text. */
+  UNDERLINE("\u001B[4m", "\u001B[24m"),
+  /** Inverse (reverse) text. */
+  INVERSE("\u001B[7m", "\u001B[27m"),
+  /** Hidden (invisible) text. */
+  HIDDEN("\u001B[8m", "\u001B[28m"),
+  /** Strikethrough text. */
+  STRIKETHROUGH("\u001B[9m", "\u001B[29m"),
+  /** Black foreground color. */
+  BLACK("\u001B[30m", "\u001B[39m"),
+  /** Red foreground color. */
+  RED("\u001B[31m", "\u001B[39m"),
+  /** Green foreground color. */
+  GREEN("\u001B[32m", "\u001B[39m"),
+  /** Yellow foreground color. */
+  YELLOW("\u001B[33m", "\u001B[39m"),
+  /** Blue foreground color. */
+  BLUE("\u001B[34m", "\u001B[39m"),
+  /** Magenta foreground color. */
+  MAGENTA("\u001B[35m", "\u001B[39m"),
+  /** Cyan foreground color. */
+  CYAN("\u001B[36m", "\u001B[39m"),
+  /** White foreground color. */
+  WHITE("\u001B[37m", "\u001B[39m"),
+  /** Gray foreground color. */
+  GRAY("\u001B[90m", "\u001B[39m"),
+  /** Black background color. */
+  BG_BLACK("\u001B[40m", "\u001B[49m"),
+  /** Red background color. */
+  BG_RED("\u001B[41m", "\u001B[49m"),
+  /** Green background color. */
+  BG_GREEN("\u001B[42m", "\u001B[49m"),
+  /** Yellow background color. */
+  BG_YELLOW("\u001B[43m", "\u001B[49m"),
+  /** Blue background color. */
+  BG_BLUE("\u001B[44m", "\u001B[49m"),
+  /** Magenta background color. */
+  BG_MAGENTA("\u001B[45m", "\u001B[49m"),
+  /** Cyan background color. */
+  BG_CYAN("\u001B[46m", "\u001B[49m"),
+  /** White background color. */
+  BG_WHITE("\u001B[47m", "\u001B[49m");
+
+  private final String open;
+  private final String close;
+  private final String replace;
+
+  Style(@NonNull String open, @NonNull String close) {
+    this(open, close, open);
+  }
+
+  Style(@NonNull String open, @NonNull String close, @NonNull String replace) {
+    this.open = open;
+    this.close = close;
+    this.replace = replace;
+  }
+
+  /**
+   * Returns the ANSI escape sequence that opens this style.
+   *
+   * @return the opening ANSI escape sequence
+   */
+  public @NonNull String open() {
+    return open;
+  }
+
+  /**
+   * Returns the ANSI escape sequence that closes this style.
+   *
+   * @return the closing ANSI escape sequence
+   */
+  public @NonNull String close() {
+    return close;
+  }
+
+  /**
+   * Returns the sequence that replaces nested close sequences so that this style stays in effect.
+   *
+   * @return the replacement sequence for nested close sequences
+   */
+  public @NonNull String replace() {
+    return replace;
+  }
+}
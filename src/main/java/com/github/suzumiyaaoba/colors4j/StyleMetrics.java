@@ -0,0 +1,93 @@
+package com.github.suzumiyaaoba.colors4j;
+
+import org.jspecify.annotations.NonNull;
+
+/**
+ * StyleMetrics class.
+ *
+ * <p>The counts recorded by {@link InstrumentedColors} for one style at the time of a snapshot.
+ *
+ * <p>Instances are immutable and can be shared between threads.
+ */
+public final class StyleMetrics {
+
+  private final Style style;
+  private final long calls;
+  private final long bytesAdded;
+  private final long rewrites;
+
+  /**
+   * Creates new metrics.
+   *
+   * @param style the style counted
+   * @param calls the number of times the style was applied
+   * @param bytesAdded the number of bytes the escape sequences added to the text
+   * @param rewrites the number of calls whose input held close sequences that had to be rewritten
+   */
+  StyleMetrics(@NonNull Style style, long calls, long bytesAdded, long rewrites) {
+    this.style = style;
+    this.calls = calls;
+    this.bytesAdded = bytesAdded;
+    this.rewrites = rewrites;
+  }
+
+  /**
+   * Returns the style counted.
+   *
+   * @return the style
+   */
+  public @NonNull Style style() {
+    return style;
+  }
+
+  /**
+   * Returns the number of times the style was applied.
+   *
+   * @return the number of calls
+   */
+  public long calls() {
+    return calls;
+  }
+
+  /**
+   * Returns the number of bytes the escape sequences added to the text. Escape sequences are ASCII,
+   * so this is also the number of characters added.
+   *
+   * @return the number of bytes added
+   */
+  public long bytesAdded() {
+    return bytesAdded;
+  }
+
+  /**
+   * Returns the number of calls whose input held close sequences of the style, nested styles for
+   * example, that had to be rewritten to keep the style in effect.
+   *
+   * @return the number of calls with rewrites
+   */
+  public long rewrites() {
+    return rewrites;
+  }
+
+  /**
+   * Returns the fraction of calls that had to rewrite nested close sequences.
+   *
+   * @return the rewrite rate, from 0 to 1; 0 if the style was not applied
+   */
+  public double rewriteRate() {
+    return calls == 0 ? 0 : (double) rewrites / calls;
+  }
+
+  @Override
+  public String toString() {
+    return "StyleMetrics["
+        + style
+        + ", calls="
+        + calls
+        + ", bytesAdded="
+        + bytesAdded
+        + ", rewrites="
+        + rewrites
+        + "]";
+  }
+}
@@ -0,0 +1,272 @@
+package com.github.suzumiyaaoba.colors4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * StyledText class.
+ *
+ * <p>Text with a style that is applied only when the text is rendered, created with {@link
+ * Colors#styled(Style, CharSequence...)}. Creating styled text only records the style and its
+ * parts, so text built for a message that is never written, such as a log message below the
+ * configured level, costs almost nothing.
+ *
+ * <p>Parts may themselves be styled text. Rendering walks the whole tree once, writing straight
+ * to the target, and gives the same result as nesting the corresponding {@link Colors} methods:
+ * {@code styled(Style.RED, "a", styled(Style.BOLD, "b"))} renders like {@code red("a" +
+ * bold("b"))}, without building the intermediate strings.
+ *
+ * <pre>{@code
+ * logger.fine(() -> colors.styled(Style.GRAY, "cache ", colors.styled(Style.BOLD, key), " hit")
+ *     .toString());
+ * }</pre>
+ *
+ * <p>Parts are read when the text is rendered. {@link #toString()} keeps the string it renders,
+ * and the {@link CharSequence} methods use it, so styled text whose parts do not change can be
+ * rendered any number of times and shared between threads.
+ */
+public final class StyledText implements CharSequence {
+
+  private final @Nullable Style style;
+  private final CharSequence[] parts;
+
+  private @Nullable String rendered;
+
+  /**
+   * Creates new styled text.
+   *
+   * @param style the style to apply, or null to leave the parts as they are
+   * @param parts the parts of the text
+   */
+  StyledText(@Nullable Style style, @NonNull CharSequence[] parts) {
+    this.style = style;
+    this.parts = parts;
+  }
+
+  /**
+   * Renders the text and appends it to the given builder.
+   *
+   * @param out the builder to append to
+   * @return the given builder
+   */
+  public @NonNull StringBuilder appendTo(@NonNull StringBuilder out) {
+    try {
+      appendTo((Appendable) out);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return out;
+  }
+
+  /**
+   * Renders the text and appends it to the given appendable.
+   *
+   * @param out the appendable to append to
+   * @return the given appendable
+   * @throws IOException if an I/O error occurs
+   */
+  public @NonNull Appendable appendTo(@NonNull Appendable out) throws IOException {
+    final String cached = rendered;
+    if (cached != null) {
+      return out.append(cached);
+    }
+
+    render(this, new Output(out));
+    return out;
+  }
+
+  @Override
+  public int length() {
+    return toString().length();
+  }
+
+  @Override
+  public char charAt(int index) {
+    return toString().charAt(index);
+  }
+
+  @Override
+  public @NonNull CharSequence subSequence(int start, int end) {
+    return toString().substring(start, end);
+  }
+
+  @Override
+  public @NonNull String toString() {
+    String cached = rendered;
+    if (cached == null) {
+      cached = appendTo(new StringBuilder(estimateLength())).toString();
+      rendered = cached;
+    }
+    return cached;
+  }
+
+  private int estimateLength() {
+    int length = style == null ? 0 : style.open().length() + style.close().length();
+    for (CharSequence part : parts) {
+      length += part instanceof StyledText ? ((StyledText) part).estimateLength() : part.length();
+    }
+    return length;
+  }
+
+  /** Writes the text to the sink, with each close sequence of the style in the parts rewritten. */
+  private static void render(@NonNull StyledText text, @NonNull Sink sink) throws IOException {
+    if (text.style == null) {
+      for (CharSequence part : text.parts) {
+        write(part, sink);
+      }
+      return;
+    }
+
+    final Style style = text.style;
+    sink.write(style.open(), 0, style.open().length());
+    final CloseRewriter rewriter = new CloseRewriter(style, sink);
+    for (CharSequence part : text.parts) {
+      write(part, rewriter);
+    }
+    rewriter.flush();
+    sink.write(style.close(), 0, style.close().length());
+  }
+
+  private static void write(@NonNull CharSequence part, @NonNull Sink sink) throws IOException {
+    if (part instanceof StyledText) {
+      final StyledText text = (StyledText) part;
+      if (text.rendered == null) {
+        render(text, sink);
+        return;
+      }
+      part = text.rendered;
+    }
+    sink.write(part, 0, part.length());
+  }
+
+  /** Receives rendered text. */
+  private interface Sink {
+
+    void write(@NonNull CharSequence text, int fromIndex, int toIndex) throws IOException;
+  }
+
+  /** The sink appending to the target. */
+  private static final class Output implements Sink {
+
+    private final Appendable out;
+
+    Output(@NonNull Appendable out) {
+      this.out = out;
+    }
+
+    @Override
+    public void write(@NonNull CharSequence text, int fromIndex, int toIndex) throws IOException {
+      out.append(text, fromIndex, toIndex);
+    }
+  }
+
+  /**
+   * A sink that rewrites the close sequences of a style in the text it receives, as {@link
+   * Utils#apply(String, String, String, String)} does for its input, and passes the result on.
+   * Text arrives in pieces, so the start of a close sequence at the end of a piece is held back
+   * until the next piece tells whether the sequence is complete. Close sequences hold no ESC but
+   * their first character, so a held-back start that turns out not to be a close sequence cannot
+   * hide the start of another one.
+   */
+  private static final class CloseRewriter implements Sink {
+
+    private final String close;
+    private final String replace;
+    private final int skip;
+    private final Sink next;
+
+    /** The number of characters received so far. */
+    private long position;
+
+    /** The number of characters of a close sequence held back. */
+    private int pending;
+
+    /** The position of the close sequence held back. */
+    private long pendingPosition;
+
+    CloseRewriter(@NonNull Style style, @NonNull Sink next) {
+      this.close = style.close();
+      this.replace = style.replace();
+      this.skip = style.open().length();
+      this.next = next;
+    }
+
+    @Override
+    public void write(@NonNull CharSequence text, int fromIndex, int toIndex) throws IOException {
+      int i = fromIndex;
+
+      if (pending > 0) {
+        while (pending < close.length()
+            && i < toIndex
+            && text.charAt(i) == close.charAt(pending)) {
+          pending++;
+          i++;
+        }
+        if (pending == close.length()) {
+          rewrite(pendingPosition);
+          pending = 0;
+        } else if (i < toIndex) {
+          next.write(close, 0, pending);
+          pending = 0;
+        }
+      }
+
+      int run = i;
+      while (i < toIndex) {
+        final int index = EscapeScanner.indexOf(text, i, toIndex);
+        if (index == -1) {
+          break;
+        }
+
+        final int matched = matchLength(text, index, toIndex);
+        if (matched == close.length()) {
+          next.write(text, run, index);
+          rewrite(position + index - fromIndex);
+          i = run = index + matched;
+        } else if (index + matched == toIndex) {
+          next.write(text, run, index);
+          pending = matched;
+          pendingPosition = position + index - fromIndex;
+          run = toIndex;
+          break;
+        } else {
+          i = index + 1;
+        }
+      }
+
+      if (run < toIndex) {
+        next.write(text, run, toIndex);
+      }
+      position += toIndex - fromIndex;
+    }
+
+    /** Passes on the close sequence held back, if any, once all the text has been received. */
+    void flush() throws IOException {
+      if (pending > 0) {
+        next.write(close, 0, pending);
+        pending = 0;
+      }
+    }
+
+    /** Returns the number of characters at the index that match the start of the close sequence. */
+    private int matchLength(@NonNull CharSequence text, int index, int toIndex) {
+      final int max = Math.min(close.length(), toIndex - index);
+      int n = 0;
+      while (n < max && text.charAt(index + n) == close.charAt(n)) {
+        n++;
+      }
+      return n;
+    }
+
+    /**
+     * Passes on the replacement of a close sequence. Like {@link String#indexOf(String, int)} in
+     * {@code Utils}, sequences within the length of the open sequence from the start are kept.
+     */
+    private void rewrite(long at) throws IOException {
+      final String sequence = at < skip ? close : replace;
+      next.write(sequence, 0, sequence.length());
+    }
+  }
+}
@@ -0,0 +1,318 @@
+package com.github.suzumiyaaoba.colors4j;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Template class.
+ *
+ * <p>A message template written in a small markup language, such as {@code "<red>ERR</red> {}"},
+ * compiled once and rendered many times. Tags are named after the style methods of {@link Colors},
+ * for example {@code <bold>} or {@code <bgRed>}, and must be closed in order; {@code {}} is a
+ * placeholder for an argument; a backslash makes the next character literal, so {@code \<} and
+ * <code>\{</code> can be written.
+ *
+ * <p>Tags are resolved when the template is compiled: the literal parts are stored already
+ * formatted, with nested close sequences rewritten, so rendering only appends them. Only the
+ * arguments are searched for the close sequences of the tags around them, which are rewritten like
+ * the nested style methods do. Unlike the style methods, close sequences at the very start of an
+ * argument are rewritten too.
+ *
+ * <p>Instances are immutable and thread-safe.
+ */
+public final class Template {
+
+  private static final int CACHE_LIMIT = 256;
+
+  private static final Map<String, Style> TAGS = new HashMap<>();
+
+  private static final Map<String, Template> STYLED = new ConcurrentHashMap<>();
+  private static final Map<String, Template> PLAIN = new ConcurrentHashMap<>();
+
+  static {
+    for (Style style : Style.values()) {
+      TAGS.put(tagName(style), style);
+    }
+  }
+
+  private final String[] literals;
+  private final Hole[] holes;
+  private final int literalLength;
+
+  private Template(@NonNull String[] literals, @NonNull Hole[] holes) {
+    this.literals = literals;
+    this.holes = holes;
+
+    int length = 0;
+    for (String literal : literals) {
+      length += literal.length();
+    }
+    this.literalLength = length;
+  }
+
+  /**
+   * Returns the compiled template for the given markup. Compiled templates are cached, up to a
+   * fixed number of distinct markups; beyond that, templates are compiled on every call.
+   *
+   * @param markup the markup to compile
+   * @param isColorSupported true to format the tags, false to leave them out
+   * @return the compiled template
+   * @throws IllegalArgumentException if the markup is malformed
+   */
+  static @NonNull Template of(@NonNull String markup, boolean isColorSupported) {
+    final Map<String, Template> cache = isColorSupported ? STYLED : PLAIN;
+
+    final Template cached = cache.get(markup);
+    if (cached != null) {
+      return cached;
+    }
+
+    final Template template = compile(markup, isColorSupported);
+    if (cache.size() < CACHE_LIMIT) {
+      cache.putIfAbsent(markup, template);
+    }
+    return template;
+  }
+
+  /**
+   * Compiles the given markup.
+   *
+   * @param markup the markup to compile
+   * @param isColorSupported true to format the tags, false to leave them out
+   * @return the compiled template
+   * @throws IllegalArgumentException if the markup is malformed
+   */
+  static @NonNull Template compile(@NonNull String markup, boolean isColorSupported) {
+    final List<Element> stack = new ArrayList<>();
+    Element current = new Element(null);
+
+    int i = 0;
+    while (i < markup.length()) {
+      final char c = markup.charAt(i);
+
+      if (c == '\\' && i + 1 < markup.length()) {
+        current.text.append(markup.charAt(i + 1));
+        i += 2;
+      } else if (c == '{' && i + 1 < markup.length() && markup.charAt(i + 1) == '}') {
+        current.hole();
+        i += 2;
+      } else if (c == '<' && tagEnd(markup, i) != -1) {
+        final int end = tagEnd(markup, i);
+        final boolean closing = markup.charAt(i + 1) == '/';
+        final String name = markup.substring(closing ? i + 2 : i + 1, end);
+        final Style style = TAGS.get(name);
+
+        if (style == null) {
+          throw new IllegalArgumentException("Unknown tag <" + name + "> at index " + i);
+        }
+        if (!closing) {
+          stack.add(current);
+          current = new Element(style);
+        } else if (current.style != style) {
+          throw new IllegalArgumentException(
+              "Unexpected closing tag </" + name + "> at index " + i);
+        } else {
+          final Element parent = stack.remove(stack.size() - 1);
+          parent.append(current, isColorSupported);
+          current = parent;
+        }
+        i = end + 1;
+      } else {
+        current.text.append(c);
+        i++;
+      }
+    }
+
+    if (current.style != null) {
+      throw new IllegalArgumentException("Unclosed tag <" + tagName(current.style) + ">");
+    }
+    return current.toTemplate();
+  }
+
+  /**
+   * Returns the number of placeholders in this template.
+   *
+   * @return the number of placeholders
+   */
+  public int placeholders() {
+    return holes.length;
+  }
+
+  /**
+   * Renders this template with the given arguments. Placeholders without a matching argument are
+   * rendered as {@code {}}, and extra arguments are ignored.
+   *
+   * @param args the arguments to fill the placeholders with, in order
+   * @return the rendered text
+   */
+  public @NonNull String render(@Nullable Object... args) {
+    return render(new StringBuilder(literalLength + 16 * holes.length), args).toString();
+  }
+
+  /**
+   * Renders this template with the given arguments and appends the result to the given builder.
+   * Placeholders without a matching argument are rendered as {@code {}}, and extra arguments are
+   * ignored.
+   *
+   * @param out the builder to append to
+   * @param args the arguments to fill the placeholders with, in order
+   * @return the given builder
+   */
+  public @NonNull StringBuilder render(@NonNull StringBuilder out, @Nullable Object... args) {
+    out.append(literals[0]);
+    for (int i = 0; i < holes.length; i++) {
+      final CharSequence arg = args != null && i < args.length ? toText(args[i]) : "{}";
+      holes[i].render(arg, out);
+      out.append(literals[i + 1]);
+    }
+    return out;
+  }
+
+  private static @NonNull CharSequence toText(@Nullable Object arg) {
+    return arg instanceof CharSequence ? (CharSequence) arg : String.valueOf(arg);
+  }
+
+  /**
+   * Returns the index of the {@code >} ending a tag starting at the given index, or -1 if no tag
+   * starts there.
+   */
+  private static int tagEnd(@NonNull String markup, int start) {
+    int i = start + 1;
+    if (i < markup.length() && markup.charAt(i) == '/') {
+      i++;
+    }
+
+    final int nameStart = i;
+    while (i < markup.length() && Character.isLetterOrDigit(markup.charAt(i))) {
+      i++;
+    }
+    return i > nameStart && i < markup.length() && markup.charAt(i) == '>' ? i : -1;
+  }
+
+  /**
+   * Returns the style named like the style method of {@link Colors}, such as {@code bgRed}.
+   *
+   * @param name the name of the style
+   * @return the style, or null if there is no style with that name
+   */
+  static @Nullable Style styleNamed(@NonNull String name) {
+    return TAGS.get(name);
+  }
+
+  /** Returns the tag name of a style, the name of its method in {@link Colors}. */
+  private static @NonNull String tagName(@NonNull Style style) {
+    final String[] words = style.name().toLowerCase(Locale.ROOT).split("_");
+
+    final StringBuilder name = new StringBuilder(words[0]);
+    for (int i = 1; i < words.length; i++) {
+      name.append(Character.toUpperCase(words[i].charAt(0))).append(words[i], 1, words[i].length());
+    }
+    return name.toString();
+  }
+
+  /** An element being compiled, as alternating literal parts and placeholders. */
+  private static final class Element {
+
+    private final @Nullable Style style;
+    private final List<String> literals = new ArrayList<>();
+    private final List<List<Style>> holes = new ArrayList<>();
+
+    private StringBuilder text = new StringBuilder();
+
+    Element(@Nullable Style style) {
+      this.style = style;
+    }
+
+    void hole() {
+      literals.add(text.toString());
+      holes.add(new ArrayList<>());
+      text = new StringBuilder();
+    }
+
+    /** Appends a closed child element, formatting it with its style. */
+    void append(@NonNull Element child, boolean isColorSupported) {
+      child.literals.add(child.text.toString());
+
+      final Style childStyle = child.style;
+      for (int i = 0; i < child.literals.size(); i++) {
+        String literal = child.literals.get(i);
+        if (isColorSupported) {
+          literal = literal.replace(childStyle.close(), childStyle.replace());
+          if (i == 0) {
+            literal = childStyle.open() + literal;
+          }
+          if (i == child.literals.size() - 1) {
+            literal = literal + childStyle.close();
+          }
+        }
+
+        text.append(literal);
+        if (i < child.holes.size()) {
+          final List<Style> styles = child.holes.get(i);
+          if (isColorSupported) {
+            styles.add(childStyle);
+          }
+          literals.add(text.toString());
+          holes.add(styles);
+          text = new StringBuilder();
+        }
+      }
+    }
+
+    @NonNull Template toTemplate() {
+      literals.add(text.toString());
+
+      final Hole[] compiled = new Hole[holes.size()];
+      for (int i = 0; i < compiled.length; i++) {
+        compiled[i] = new Hole(holes.get(i));
+      }
+      return new Template(literals.toArray(new String[0]), compiled);
+    }
+  }
+
+  /** A placeholder, with the close sequences of the tags around it, innermost first. */
+  private static final class Hole {
+
+    private final String[] closes;
+    private final String[] replaces;
+
+    Hole(@NonNull List<Style> styles) {
+      this.closes = new String[styles.size()];
+      this.replaces = new String[styles.size()];
+      for (int i = 0; i < closes.length; i++) {
+        closes[i] = styles.get(i).close();
+        replaces[i] = styles.get(i).replace();
+      }
+    }
+
+    void render(@NonNull CharSequence arg, @NonNull StringBuilder out) {
+      if (closes.length == 0 || EscapeScanner.indexOf(arg, 0) == -1) {
+        out.append(arg);
+        return;
+      }
+
+      CharSequence text = arg;
+      for (int i = 0; i < closes.length - 1; i++) {
+        final int index = Utils.indexOf(text, closes[i], 0);
+        if (index != -1) {
+          text =
+              Utils.appendReplacingClose(new StringBuilder(), text, closes[i], replaces[i], index);
+        }
+      }
+
+      final int last = closes.length - 1;
+      final int index = Utils.indexOf(text, closes[last], 0);
+      if (index == -1) {
+        out.append(text);
+      } else {
+        Utils.appendReplacingClose(out, text, closes[last], replaces[last], index);
+      }
+    }
+  }
+}
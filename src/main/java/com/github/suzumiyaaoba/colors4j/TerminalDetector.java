@@ -0,0 +1,310 @@
+package com.github.suzumiyaaoba.colors4j;
+
+import java.io.Console;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Detects the color depth of the terminal the application writes to, from the environment, the
+ * console and the terminfo database. The checks are ordered so that the common terminals are
+ * recognized from environment variables alone; the terminfo database is only read for terminals
+ * the variables do not settle.
+ */
+final class TerminalDetector {
+
+  /** The magic number of terminfo files with 16-bit numbers. */
+  private static final int MAGIC_16 = 0432;
+
+  /** The magic number of terminfo files with 32-bit numbers. */
+  private static final int MAGIC_32 = 01036;
+
+  /** The index of the {@code colors} numeric capability. */
+  private static final int MAX_COLORS = 13;
+
+  /** The size beyond which a file is not taken for a terminfo entry. */
+  private static final long MAX_TERMINFO_SIZE = 64 * 1024;
+
+  private static final String[] SYSTEM_TERMINFO_DIRECTORIES = {
+    "/etc/terminfo", "/lib/terminfo", "/usr/share/terminfo", "/usr/lib/terminfo"
+  };
+
+  /**
+   * {@code Console.isTerminal()}, or null before Java 22, which added it when {@link
+   * System#console()} started returning a console that may not be a terminal.
+   */
+  private static final @Nullable Method IS_TERMINAL = isTerminalMethod();
+
+  /** Private constructor to prevent instantiation. */
+  private TerminalDetector() {}
+
+  /**
+   * Detects the color depth of the terminal of this process.
+   *
+   * @return the color depth
+   */
+  static @NonNull ColorDepth detect() {
+    Map<String, String> env;
+    try {
+      env = System.getenv();
+    } catch (SecurityException e) {
+      env = Map.of();
+    }
+    return detect(env, isTerminal(System.console(), IS_TERMINAL), terminfoDirectories(env));
+  }
+
+  /**
+   * Tells whether a console is attached to a terminal.
+   *
+   * @param console the console, or null if there is none
+   * @param isTerminal the {@code isTerminal()} method of the console, or null if it has none, in
+   *     which case having a console means having a terminal
+   * @return true if the console is attached to a terminal
+   */
+  static boolean isTerminal(@Nullable Object console, @Nullable Method isTerminal) {
+    if (console == null) {
+      return false;
+    }
+    if (isTerminal == null) {
+      return true;
+    }
+    try {
+      return Boolean.TRUE.equals(isTerminal.invoke(console));
+    } catch (IllegalAccessException | InvocationTargetException | RuntimeException e) {
+      return true;
+    }
+  }
+
+  /**
+   * Looks up {@code Console.isTerminal()}.
+   *
+   * @return the method, or null if this Java has none
+   */
+  static @Nullable Method isTerminalMethod() {
+    try {
+      return Console.class.getMethod("isTerminal");
+    } catch (NoSuchMethodException | SecurityException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Detects the color depth of a terminal.
+   *
+   * <ol>
+   *   <li>{@code NO_COLOR}, when set and not empty, turns colors off.
+   *   <li>{@code FORCE_COLOR} turns colors off if it is {@code 0} or {@code false}. Otherwise it
+   *       turns them on even without a console: {@code 2} and {@code 3} ask for at least 256
+   *       colors and truecolor, any other value for at least 16 colors.
+   *   <li>Without a console, or with {@code TERM=dumb}, colors are off.
+   *   <li>{@code COLORTERM=truecolor} or {@code 24bit}, and Windows Terminal, mean truecolor.
+   *   <li>Without {@code TERM}, colors are off.
+   *   <li>{@code TERM} names ending with {@code -direct} mean truecolor, and those ending with
+   *       {@code -256color} mean 256 colors.
+   *   <li>Other terminals are looked up in the terminfo database, whose {@code colors} capability
+   *       gives the depth. Entries with fewer than 8 colors, or none, mean colors are off;
+   *       terminals that are not found get 16 colors.
+   * </ol>
+   *
+   * @param env the environment variables
+   * @param console true if the process is attached to a console
+   * @param terminfoDirectories the directories to look terminfo entries up in, in order
+   * @return the color depth
+   */
+  static @NonNull ColorDepth detect(
+      @NonNull Map<String, String> env,
+      boolean console,
+      @NonNull List<Path> terminfoDirectories) {
+    final String noColor = env.get("NO_COLOR");
+    if (noColor != null && !noColor.isEmpty()) {
+      return ColorDepth.NONE;
+    }
+
+    final ColorDepth forced = forcedDepth(env.get("FORCE_COLOR"));
+    if (forced == ColorDepth.NONE) {
+      return ColorDepth.NONE;
+    }
+
+    final String term = env.getOrDefault("TERM", "").toLowerCase(Locale.ROOT);
+    if (forced == null && (!console || term.equals("dumb"))) {
+      return ColorDepth.NONE;
+    }
+
+    final ColorDepth detected = terminalDepth(env, term, terminfoDirectories);
+    return forced == null || forced.compareTo(detected) < 0 ? detected : forced;
+  }
+
+  /** Returns the depth FORCE_COLOR asks for, or null if it is not set. */
+  private static @Nullable ColorDepth forcedDepth(@Nullable String forceColor) {
+    if (forceColor == null) {
+      return null;
+    }
+    switch (forceColor.toLowerCase(Locale.ROOT)) {
+      case "0":
+      case "false":
+        return ColorDepth.NONE;
+      case "2":
+        return ColorDepth.ANSI_256;
+      case "3":
+        return ColorDepth.TRUECOLOR;
+      default:
+        return ColorDepth.ANSI_16;
+    }
+  }
+
+  private static @NonNull ColorDepth terminalDepth(
+      @NonNull Map<String, String> env,
+      @NonNull String term,
+      @NonNull List<Path> terminfoDirectories) {
+    final String colorTerm = env.getOrDefault("COLORTERM", "").toLowerCase(Locale.ROOT);
+    if (colorTerm.equals("truecolor")
+        || colorTerm.equals("24bit")
+        || env.containsKey("WT_SESSION")) {
+      return ColorDepth.TRUECOLOR;
+    }
+    if (term.isEmpty() || term.equals("dumb")) {
+      return ColorDepth.NONE;
+    }
+    if (term.endsWith("-direct")) {
+      return ColorDepth.TRUECOLOR;
+    }
+    if (term.endsWith("-256color")) {
+      return ColorDepth.ANSI_256;
+    }
+
+    final int colors = terminfoColors(env.get("TERM"), terminfoDirectories);
+    if (colors < 0) {
+      return ColorDepth.ANSI_16;
+    }
+    if (colors < 8) {
+      return ColorDepth.NONE;
+    }
+    if (colors >= 1 << 24) {
+      return ColorDepth.TRUECOLOR;
+    }
+    if (colors >= 256) {
+      return ColorDepth.ANSI_256;
+    }
+    return ColorDepth.ANSI_16;
+  }
+
+  /**
+   * Returns the directories terminfo entries are looked up in, in the order of ncurses.
+   *
+   * @param env the environment variables
+   * @return the directories
+   */
+  static @NonNull List<Path> terminfoDirectories(@NonNull Map<String, String> env) {
+    final List<String> names = new ArrayList<>();
+    if (env.get("TERMINFO") != null) {
+      names.add(env.get("TERMINFO"));
+    }
+    if (env.get("HOME") != null) {
+      names.add(env.get("HOME") + "/.terminfo");
+    }
+    if (env.get("TERMINFO_DIRS") != null) {
+      for (String name : env.get("TERMINFO_DIRS").split(":")) {
+        // An empty entry stands for the system directories.
+        if (!name.isEmpty()) {
+          names.add(name);
+        }
+      }
+    }
+    names.addAll(List.of(SYSTEM_TERMINFO_DIRECTORIES));
+
+    final List<Path> directories = new ArrayList<>();
+    for (String name : names) {
+      try {
+        directories.add(Path.of(name));
+      } catch (InvalidPathException e) {
+        // Not a directory this file system can have.
+      }
+    }
+    return directories;
+  }
+
+  /**
+   * Returns the {@code colors} capability of the terminfo entry of a terminal.
+   *
+   * @return the number of colors, 0 if the entry has no {@code colors} capability, or -1 if no
+   *     readable entry is found
+   */
+  private static int terminfoColors(@Nullable String term, @NonNull List<Path> directories) {
+    if (term == null || term.isEmpty() || term.contains("/") || term.contains("\\")) {
+      return -1;
+    }
+
+    final char first = term.charAt(0);
+    final String[] subdirectories = {String.valueOf(first), Integer.toHexString(first)};
+    for (Path directory : directories) {
+      for (String subdirectory : subdirectories) {
+        final Path file = directory.resolve(subdirectory).resolve(term);
+        try {
+          if (Files.isRegularFile(file) && Files.size(file) <= MAX_TERMINFO_SIZE) {
+            return maxColors(Files.readAllBytes(file));
+          }
+        } catch (IOException | SecurityException e) {
+          // Unreadable entries are skipped.
+        }
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Reads the {@code colors} capability of a compiled terminfo entry, as described in term(5).
+   *
+   * @param entry the contents of the entry
+   * @return the number of colors, 0 if the capability is missing or cancelled, or -1 if the entry
+   *     is malformed
+   */
+  static int maxColors(byte @NonNull [] entry) {
+    final ByteBuffer buffer = ByteBuffer.wrap(entry).order(ByteOrder.LITTLE_ENDIAN);
+    if (buffer.remaining() < 12) {
+      return -1;
+    }
+
+    final int magic = buffer.getShort();
+    final int numberSize;
+    if (magic == MAGIC_16) {
+      numberSize = 2;
+    } else if (magic == MAGIC_32) {
+      numberSize = 4;
+    } else {
+      return -1;
+    }
+
+    final int namesSize = buffer.getShort();
+    final int booleanCount = buffer.getShort();
+    final int numberCount = buffer.getShort();
+    if (namesSize < 0 || booleanCount < 0 || numberCount < 0) {
+      return -1;
+    }
+
+    // Numbers start on an even offset.
+    int offset = 12 + namesSize + booleanCount;
+    offset += offset & 1;
+    if (offset + numberCount * numberSize > entry.length) {
+      return -1;
+    }
+    if (numberCount <= MAX_COLORS) {
+      return 0;
+    }
+
+    offset += MAX_COLORS * numberSize;
+    final int colors = numberSize == 2 ? buffer.getShort(offset) : buffer.getInt(offset);
+    // Absent and cancelled capabilities are stored as -1 and -2.
+    return colors < 0 ? 0 : colors;
+  }
+}
@@ -0,0 +1,340 @@
+package com.github.suzumiyaaoba.colors4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Theme class.
+ *
+ * <p>Maps semantic names, such as {@code error}, {@code path} or {@code duration}, to styles, so
+ * that the colors of an application are defined in one place instead of in each call. A theme is
+ * defined by a properties file whose values list styles by the names of the style methods of
+ * {@link Colors}, separated by spaces or commas:
+ *
+ * <pre>{@code
+ * error = bold red
+ * warn = yellow
+ * path = underline, cyan
+ * }</pre>
+ *
+ * <p>Each name is compiled once into a {@link CompiledStyle} and given an ID, an index into an
+ * array of compiled styles, so that looking up a style on a hot path is an array access:
+ *
+ * <pre>{@code
+ * Theme theme = colors.watchTheme(Path.of("colors.properties"));
+ * int error = theme.id("error");
+ * ...
+ * out.println(theme.apply(error, message));
+ * }</pre>
+ *
+ * <p>A theme created with {@link Colors#watchTheme(Path)} reloads its file whenever it changes.
+ * The new styles are compiled in the background and swapped in with a single write, so lookups
+ * never lock, never parse and always see either the old or the new styles. IDs stay valid across
+ * reloads; a name that is no longer defined leaves its text unchanged. If a reload fails, for
+ * example because the file is malformed, the previous styles are kept and the failure is reported
+ * by {@link #reloadFailure()}.
+ *
+ * <p>This class is thread-safe.
+ */
+public final class Theme implements Closeable {
+
+  /** How long to wait for more changes to a file before reloading it, in milliseconds. */
+  private static final long RELOAD_DELAY_MILLIS = 50;
+
+  private final Colors colors;
+  private final @Nullable Path file;
+
+  /** The IDs of the names, which are only ever added. Written with the lock held. */
+  private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+
+  private final Object lock = new Object();
+
+  /** The styles of the names defined, guarded by the lock. */
+  private Map<String, CompiledStyle> definitions = Map.of();
+
+  /** The styles by ID, replaced as a whole. */
+  private volatile CompiledStyle[] table = new CompiledStyle[0];
+
+  private volatile @Nullable Exception reloadFailure;
+
+  private @Nullable WatchService watchService;
+  private @Nullable Thread watcher;
+
+  /**
+   * Creates a new theme.
+   *
+   * @param colors the colors to compile the styles with
+   * @param file the file the theme is defined in, or null if it is not read from a file
+   * @param definitions the style names of each semantic name
+   * @throws IllegalArgumentException if a style name is unknown
+   */
+  Theme(@NonNull Colors colors, @Nullable Path file, @NonNull Map<String, String> definitions) {
+    this.colors = colors;
+    this.file = file;
+    publish(compile(colors, definitions));
+  }
+
+  /**
+   * Reads a theme from a file, and watches the file for changes if asked to.
+   *
+   * @param colors the colors to compile the styles with
+   * @param file the properties file defining the theme
+   * @param watch true to reload the file whenever it changes
+   * @return the theme
+   * @throws IOException if the file cannot be read or watched
+   * @throws IllegalArgumentException if the file names an unknown style
+   */
+  static @NonNull Theme load(@NonNull Colors colors, @NonNull Path file, boolean watch)
+      throws IOException {
+    final Theme theme = new Theme(colors, file, read(file));
+    if (watch) {
+      theme.startWatching();
+    }
+    return theme;
+  }
+
+  /**
+   * Returns the ID of a semantic name, to look its style up with. A name that is not defined yet
+   * gets an ID too, whose style leaves text unchanged until a reload defines it.
+   *
+   * @param name the semantic name
+   * @return the ID
+   */
+  public int id(@NonNull String name) {
+    final Integer id = ids.get(name);
+    if (id != null) {
+      return id;
+    }
+
+    synchronized (lock) {
+      final Integer existing = ids.get(name);
+      if (existing != null) {
+        return existing;
+      }
+      final int added = ids.size();
+      ids.put(name, added);
+      final CompiledStyle[] extended = Arrays.copyOf(table, added + 1);
+      extended[added] = definitions.getOrDefault(name, CompiledStyle.IDENTITY);
+      table = extended;
+      return added;
+    }
+  }
+
+  /**
+   * Returns the style with the given ID.
+   *
+   * @param id an ID returned by {@link #id(String)}
+   * @return the style
+   * @throws IndexOutOfBoundsException if the ID was not returned by this theme
+   */
+  public @NonNull CompiledStyle style(int id) {
+    return table[id];
+  }
+
+  /**
+   * Returns the style of a semantic name. Looking styles up by ID is faster.
+   *
+   * @param name the semantic name
+   * @return the style; one that leaves text unchanged if the name is not defined
+   */
+  public @NonNull CompiledStyle style(@NonNull String name) {
+    return table[id(name)];
+  }
+
+  /**
+   * Applies the style with the given ID to the input string.
+   *
+   * @param id an ID returned by {@link #id(String)}
+   * @param input the input string to format
+   * @return the formatted string
+   * @throws IndexOutOfBoundsException if the ID was not returned by this theme
+   */
+  public @NonNull String apply(int id, @NonNull String input) {
+    return table[id].apply(input);
+  }
+
+  /**
+   * Reads the file of the theme again and swaps in its styles. Themes created with {@link
+   * Colors#watchTheme(Path)} do so by themselves when the file changes.
+   *
+   * @throws IOException if the file cannot be read
+   * @throws IllegalArgumentException if the file names an unknown style
+   * @throws IllegalStateException if the theme was not read from a file
+   */
+  public void reload() throws IOException {
+    if (file == null) {
+      throw new IllegalStateException("The theme was not read from a file");
+    }
+    publish(compile(colors, read(file)));
+  }
+
+  /**
+   * Returns the reason the last reload triggered by a change of the file failed.
+   *
+   * @return the failure, or null if the last reload succeeded or none was triggered
+   */
+  public @Nullable Exception reloadFailure() {
+    return reloadFailure;
+  }
+
+  /**
+   * Stops watching the file, if it is watched. The styles are kept.
+   *
+   * @throws IOException if the file watcher cannot be closed
+   */
+  @Override
+  public void close() throws IOException {
+    final WatchService service;
+    final Thread thread;
+    synchronized (lock) {
+      service = watchService;
+      thread = watcher;
+      watchService = null;
+      watcher = null;
+    }
+    if (service == null) {
+      return;
+    }
+
+    service.close();
+    try {
+      thread.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while closing the theme");
+    }
+  }
+
+  /** Swaps in new definitions, giving IDs to the names that have none. */
+  private void publish(@NonNull Map<String, CompiledStyle> compiled) {
+    synchronized (lock) {
+      for (String name : compiled.keySet()) {
+        if (!ids.containsKey(name)) {
+          ids.put(name, ids.size());
+        }
+      }
+
+      final CompiledStyle[] styles = new CompiledStyle[ids.size()];
+      for (Map.Entry<String, Integer> entry : ids.entrySet()) {
+        styles[entry.getValue()] =
+            compiled.getOrDefault(entry.getKey(), CompiledStyle.IDENTITY);
+      }
+      definitions = compiled;
+      table = styles;
+    }
+  }
+
+  private static @NonNull Map<String, String> read(@NonNull Path file) throws IOException {
+    final Properties properties = new Properties();
+    try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+      properties.load(reader);
+    }
+
+    final Map<String, String> definitions = new TreeMap<>();
+    for (String name : properties.stringPropertyNames()) {
+      definitions.put(name, properties.getProperty(name));
+    }
+    return definitions;
+  }
+
+  private static @NonNull Map<String, CompiledStyle> compile(
+      @NonNull Colors colors, @NonNull Map<String, String> definitions) {
+    final Map<String, CompiledStyle> compiled = new TreeMap<>();
+    for (Map.Entry<String, String> definition : definitions.entrySet()) {
+      final List<Style> styles = new ArrayList<>();
+      for (String styleName : definition.getValue().trim().split("[\\s,]+")) {
+        if (styleName.isEmpty()) {
+          continue;
+        }
+        final Style style = Template.styleNamed(styleName);
+        if (style == null) {
+          throw new IllegalArgumentException(
+              "Unknown style " + styleName + " for " + definition.getKey());
+        }
+        styles.add(style);
+      }
+      compiled.put(
+          definition.getKey(),
+          styles.isEmpty() ? CompiledStyle.IDENTITY : colors.style(styles.toArray(new Style[0])));
+    }
+    return compiled;
+  }
+
+  private void startWatching() throws IOException {
+    final Path directory = file.toAbsolutePath().getParent();
+    final WatchService service = directory.getFileSystem().newWatchService();
+    try {
+      directory.register(
+          service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+    } catch (IOException | RuntimeException e) {
+      service.close();
+      throw e;
+    }
+
+    final Thread thread = new Thread(() -> watch(service), "colors4j-theme");
+    thread.setDaemon(true);
+    synchronized (lock) {
+      watchService = service;
+      watcher = thread;
+    }
+    thread.start();
+  }
+
+  /** The loop of the watcher thread. */
+  private void watch(@NonNull WatchService service) {
+    final Path name = file.getFileName();
+    try {
+      while (true) {
+        if (!concerns(service.take(), name)) {
+          continue;
+        }
+
+        // Editors often write a file in several steps; wait for them to finish.
+        WatchKey key;
+        while ((key = service.poll(RELOAD_DELAY_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+          concerns(key, name);
+        }
+
+        try {
+          reload();
+          reloadFailure = null;
+        } catch (IOException | RuntimeException e) {
+          reloadFailure = e;
+        }
+      }
+    } catch (ClosedWatchServiceException | InterruptedException e) {
+      // The theme was closed.
+    }
+  }
+
+  /** Consumes the events of the key and returns whether any may concern the file. */
+  private static boolean concerns(@NonNull WatchKey key, @NonNull Path name) {
+    boolean concerns = false;
+    for (WatchEvent<?> event : key.pollEvents()) {
+      concerns |=
+          event.kind() == StandardWatchEventKinds.OVERFLOW || name.equals(event.context());
+    }
+    key.reset();
+    return concerns;
+  }
+}
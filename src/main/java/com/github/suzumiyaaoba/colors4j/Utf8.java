@@ -0,0 +1,91 @@
+package com.github.suzumiyaaoba.colors4j;
+
+import java.nio.ByteBuffer;
+import org.jspecify.annotations.NonNull;
+
+/** Utility class for encoding text to UTF-8 straight into byte buffers. */
+final class Utf8 {
+
+  /** Private constructor to prevent instantiation. */
+  private Utf8() {}
+
+  /**
+   * Encodes a range of the sequence to UTF-8 and puts the bytes into the buffer. Runs of ASCII
+   * characters are copied straight into the backing array of heap buffers. Unpaired surrogates are
+   * encoded as {@code '?'}, like {@link String#getBytes(java.nio.charset.Charset)} does.
+   *
+   * @param input the sequence to encode
+   * @param fromIndex the index of the first character to encode, inclusive
+   * @param toIndex the index of the last character to encode, exclusive
+   * @param dst the buffer to put the bytes into
+   * @throws java.nio.BufferOverflowException if the buffer has not enough room
+   */
+  static void encode(
+      @NonNull CharSequence input, int fromIndex, int toIndex, @NonNull ByteBuffer dst) {
+    int i = fromIndex;
+
+    if (dst.hasArray()) {
+      final byte[] array = dst.array();
+      final int offset = dst.arrayOffset() + dst.position();
+      final int limit = Math.min(toIndex - i, dst.remaining());
+      int n = 0;
+
+      while (n < limit) {
+        final char c = input.charAt(i + n);
+        if (c >= 0x80) {
+          break;
+        }
+        array[offset + n] = (byte) c;
+        n++;
+      }
+      dst.position(dst.position() + n);
+      i += n;
+    }
+
+    for (; i < toIndex; i++) {
+      final char c = input.charAt(i);
+
+      if (c < 0x80) {
+        dst.put((byte) c);
+      } else if (c < 0x800) {
+        dst.put((byte) (0xC0 | c >> 6)).put((byte) (0x80 | c & 0x3F));
+      } else if (Character.isHighSurrogate(c)
+          && i + 1 < toIndex
+          && Character.isLowSurrogate(input.charAt(i + 1))) {
+        final int codePoint = Character.toCodePoint(c, input.charAt(++i));
+        dst.put((byte) (0xF0 | codePoint >> 18))
+            .put((byte) (0x80 | codePoint >> 12 & 0x3F))
+            .put((byte) (0x80 | codePoint >> 6 & 0x3F))
+            .put((byte) (0x80 | codePoint & 0x3F));
+      } else if (Character.isSurrogate(c)) {
+        dst.put((byte) '?');
+      } else {
+        dst.put((byte) (0xE0 | c >> 12))
+            .put((byte) (0x80 | c >> 6 & 0x3F))
+            .put((byte) (0x80 | c & 0x3F));
+      }
+    }
+  }
+
+  /**
+   * Counts the UTF-16 code units encoded by a range of UTF-8 bytes.
+   *
+   * @param bytes the UTF-8 encoded bytes
+   * @param fromIndex the index of the first byte, inclusive
+   * @param toIndex the index of the last byte, exclusive
+   * @return the number of UTF-16 code units
+   */
+  static int utf16Length(byte @NonNull [] bytes, int fromIndex, int toIndex) {
+    int length = 0;
+
+    for (int i = fromIndex; i < toIndex; i++) {
+      final int unsigned = bytes[i] & 0xFF;
+      if (unsigned >= 0xF0) {
+        length += 2;
+      } else if (unsigned < 0x80 || unsigned >= 0xC0) {
+        length++;
+      }
+    }
+    return length;
+  }
+}
@@ -1,6 +1,6 @@
 package com.github.suzumiyaaoba.colors4j;
 
-import java.util.function.UnaryOperator;
+import java.io.IOException;
 import org.jspecify.annotations.NonNull;
 
 /** Utility class for ANSI escape sequence formatting. */
@@ -17,17 +17,86 @@ class Utils {
    * @param open the opening ANSI escape sequence
    * @param close the closing ANSI escape sequence
    * @param replace the replacement sequence for nested close sequences
-   * @return a UnaryOperator that applies the formatting to input strings
+   * @return a Format that applies the formatting to input strings
    */
-  static @NonNull UnaryOperator<String> format(
+  static @NonNull Format format(
       @NonNull String open, @NonNull String close, @NonNull String replace) {
-    return (String input) -> {
-      final int index = input.indexOf(close, open.length());
+    return new Format(open, close, replace);
+  }
+
+  /**
+   * Wraps the input with ANSI escape sequences. If the close sequence is found within the input, it
+   * is replaced with the replace sequence to maintain proper nesting of formatting.
+   *
+   * @param input the input string to format
+   * @param open the opening ANSI escape sequence
+   * @param close the closing ANSI escape sequence
+   * @param replace the replacement sequence for nested close sequences
+   * @return the formatted string
+   */
+  static @NonNull String apply(
+      @NonNull String input, @NonNull String open, @NonNull String close, @NonNull String replace) {
+    final int index = input.indexOf(close, open.length());
 
-      return index == -1
-          ? open + input + close
-          : open + replaceClose(input, close, replace, index) + close;
-    };
+    return index == -1
+        ? open + input + close
+        : open + replaceClose(input, close, replace, index) + close;
+  }
+
+  /**
+   * Wraps the input with ANSI escape sequences and appends the result to the given builder.
+   *
+   * @param input the input to format
+   * @param open the opening ANSI escape sequence
+   * @param close the closing ANSI escape sequence
+   * @param replace the replacement sequence for nested close sequences
+   * @param out the builder to append to
+   * @return the given builder
+   */
+  static @NonNull StringBuilder apply(
+      @NonNull CharSequence input,
+      @NonNull String open,
+      @NonNull String close,
+      @NonNull String replace,
+      @NonNull StringBuilder out) {
+    final int index = indexOf(input, close, open.length());
+
+    out.append(open);
+    if (index == -1) {
+      out.append(input);
+    } else {
+      appendReplacingClose(out, input, close, replace, index);
+    }
+    return out.append(close);
+  }
+
+  /**
+   * Wraps the input with ANSI escape sequences and appends the result to the given appendable.
+   *
+   * @param input the input to format
+   * @param open the opening ANSI escape sequence
+   * @param close the closing ANSI escape sequence
+   * @param replace the replacement sequence for nested close sequences
+   * @param out the appendable to append to
+   * @return the given appendable
+   * @throws IOException if an I/O error occurs
+   */
+  static @NonNull Appendable apply(
+      @NonNull CharSequence input,
+      @NonNull String open,
+      @NonNull String close,
+      @NonNull String replace,
+      @NonNull Appendable out)
+      throws IOException {
+    final int index = indexOf(input, close, open.length());
+
+    out.append(open);
+    if (index == -1) {
+      out.append(input);
+    } else {
+      appendReplacingClose(out, input, close, replace, index);
+    }
+    return out.append(close);
   }
 
   /**
@@ -43,15 +112,111 @@ class Utils {
    */
   static @NonNull String replaceClose(
       @NonNull String string, @NonNull String close, @NonNull String replace, int index) {
-    final StringBuilder result = new StringBuilder();
+    final StringBuilder result = new StringBuilder(string.length() + replace.length());
+
+    return appendReplacingClose(result, string, close, replace, index).toString();
+  }
+
+  /**
+   * Appends the given sequence to the builder, replacing all occurrences of the close sequence with
+   * the replace sequence.
+   *
+   * @param out the builder to append to
+   * @param input the input sequence to process
+   * @param close the close sequence to replace
+   * @param replace the replacement sequence
+   * @param index the starting index where the first close sequence was found
+   * @return the given builder
+   */
+  static @NonNull StringBuilder appendReplacingClose(
+      @NonNull StringBuilder out,
+      @NonNull CharSequence input,
+      @NonNull String close,
+      @NonNull String replace,
+      int index) {
+    int cursor = 0;
+
+    do {
+      out.append(input, cursor, index).append(replace);
+      cursor = index + close.length();
+      index = indexOf(input, close, cursor);
+    } while (index != -1);
+
+    return out.append(input, cursor, input.length());
+  }
+
+  /**
+   * Appends the given sequence to the appendable, replacing all occurrences of the close sequence
+   * with the replace sequence.
+   *
+   * @param out the appendable to append to
+   * @param input the input sequence to process
+   * @param close the close sequence to replace
+   * @param replace the replacement sequence
+   * @param index the starting index where the first close sequence was found
+   * @return the given appendable
+   * @throws IOException if an I/O error occurs
+   */
+  static @NonNull Appendable appendReplacingClose(
+      @NonNull Appendable out,
+      @NonNull CharSequence input,
+      @NonNull String close,
+      @NonNull String replace,
+      int index)
+      throws IOException {
     int cursor = 0;
 
     do {
-      result.append(string, cursor, index).append(replace);
+      out.append(input, cursor, index).append(replace);
       cursor = index + close.length();
-      index = string.indexOf(close, cursor);
+      index = indexOf(input, close, cursor);
     } while (index != -1);
 
-    return result.append(string.substring(cursor)).toString();
+    return out.append(input, cursor, input.length());
+  }
+
+  /**
+   * Returns the index of the first occurrence of the target within the sequence, starting at the
+   * given index. Strings are delegated to {@link String#indexOf(String, int)}.
+   *
+   * @param input the sequence to search in
+   * @param target the string to search for
+   * @param fromIndex the index to start the search from
+   * @return the index of the first occurrence, or -1 if there is no such occurrence
+   */
+  static int indexOf(@NonNull CharSequence input, @NonNull String target, int fromIndex) {
+    if (input instanceof String) {
+      return ((String) input).indexOf(target, fromIndex);
+    }
+
+    final char first = target.charAt(0);
+    final int max = input.length() - target.length();
+
+    for (int i = Math.max(fromIndex, 0); i <= max; i++) {
+      if (input.charAt(i) == first && regionMatches(input, i, target)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Checks whether the target occurs in the sequence at the given index.
+   *
+   * @param input the sequence to check
+   * @param index the index in the sequence
+   * @param target the string to compare with
+   * @return true if the target occurs at the index, false otherwise
+   */
+  static boolean regionMatches(@NonNull CharSequence input, int index, @NonNull String target) {
+    if (index < 0 || index + target.length() > input.length()) {
+      return false;
+    }
+    for (int i = 0; i < target.length(); i++) {
+      if (input.charAt(index + i) != target.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
   }
 }
@@ -0,0 +1,118 @@
+package com.github.suzumiyaaoba.colors4j;
+
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.List;
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.InjectSoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/** Test class for AnsiHtmlWriter functionality. */
+@ExtendWith(SoftAssertionsExtension.class)
+public class AnsiHtmlWriterTest {
+
+  @InjectSoftAssertions private SoftAssertions softly;
+
+  @ParameterizedTest
+  @MethodSource("provider_styles")
+  void everyStyle(Style style, String expected) {
+    final var sut = Colors.createColors(true);
+
+    softly.assertThat(AnsiHtmlWriter.toHtml(sut.apply(style, "x"))).isEqualTo(expected);
+  }
+
+  static List<Arguments> provider_styles() {
+    return List.of(
+        arguments(Style.RESET, "x"),
+        arguments(Style.BOLD, "<span class=\"ansi-bold\">x</span>"),
+        arguments(Style.DIM, "<span class=\"ansi-dim\">x</span>"),
+        arguments(Style.ITALIC, "<span class=\"ansi-italic\">x</span>"),
+        arguments(Style.UNDERLINE, "<span class=\"ansi-underline\">x</span>"),
+        arguments(Style.INVERSE, "<span class=\"ansi-fg-inverse ansi-bg-inverse\">x</span>"),
+        arguments(Style.HIDDEN, "<span class=\"ansi-hidden\">x</span>"),
+        arguments(Style.STRIKETHROUGH, "<span class=\"ansi-strikethrough\">x</span>"),
+        arguments(Style.RED, "<span class=\"ansi-fg-1\">x</span>"),
+        arguments(Style.GRAY, "<span class=\"ansi-fg-8\">x</span>"),
+        arguments(Style.BG_WHITE, "<span class=\"ansi-bg-7\">x</span>"));
+  }
+
+  @Test
+  void escapesHtml() {
+    final var sut = Colors.createColors(true);
+
+    softly
+        .assertThat(AnsiHtmlWriter.toHtml("<a href=\"x\">" + sut.bold("&") + "</a>"))
+        .isEqualTo(
+            "&lt;a href=&quot;x&quot;&gt;<span class=\"ansi-bold\">&amp;</span>&lt;/a&gt;");
+  }
+
+  @Test
+  void combinesClasses() {
+    final var sut = Colors.createColors(true);
+    final var input =
+        sut.bold("a" + sut.red("b"))
+            + sut.fg256(208).apply("c")
+            + sut.rgb(255, 136, 0).apply("d")
+            + sut.inverse(sut.bgBlue("e"))
+            + "\u001B[2Kf";
+
+    softly
+        .assertThat(AnsiHtmlWriter.toHtml(input))
+        .isEqualTo(
+            "<span class=\"ansi-bold\">a</span>"
+                + "<span class=\"ansi-bold ansi-fg-1\">b</span>"
+                + "<span class=\"ansi-fg-208\">c</span>"
+                + "<span class=\"ansi-fg-208\">d</span>"
+                + "<span class=\"ansi-fg-4 ansi-bg-inverse\">e</span>"
+                + "f");
+  }
+
+  @Test
+  void writesInChunks() throws IOException {
+    final var sut = Colors.createColors(true);
+    final var input = sut.bold("<" + sut.red("ab") + "c") + sut.bgRgb(10, 20, 30).apply("&d") + "e";
+    final var expected = AnsiHtmlWriter.toHtml(input);
+
+    for (int split = 0; split <= input.length(); split++) {
+      final var html = new StringWriter();
+      try (var writer = new AnsiHtmlWriter(html)) {
+        writer.write(input.substring(0, split));
+        writer.write(input.substring(split).toCharArray());
+      }
+
+      softly.assertThat(html.toString()).as("split at %d", split).isEqualTo(expected);
+    }
+  }
+
+  @Test
+  void finishClosesTheSpan() throws IOException {
+    final var html = new StringWriter();
+    final var writer = new AnsiHtmlWriter(html);
+
+    writer.write("\u001B[1ma");
+    writer.finish();
+    softly.assertThat(html.toString()).isEqualTo("<span class=\"ansi-bold\">a</span>");
+
+    writer.write("b\u001B[22mc");
+    writer.finish();
+    softly
+        .assertThat(html.toString())
+        .isEqualTo("<span class=\"ansi-bold\">a</span><span class=\"ansi-bold\">b</span>c");
+  }
+
+  @Test
+  void stylesheet() {
+    softly
+        .assertThat(AnsiHtmlWriter.stylesheet())
+        .contains(".ansi-bold { font-weight: bold; }")
+        .contains(".ansi-fg-1 { color: #cd0000; }")
+        .contains(".ansi-bg-255 { background-color: #eeeeee; }");
+  }
+}
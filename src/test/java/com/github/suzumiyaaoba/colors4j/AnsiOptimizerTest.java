@@ -0,0 +1,132 @@
+package com.github.suzumiyaaoba.colors4j;
+
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.InjectSoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/** Test class for AnsiOptimizer functionality. */
+@ExtendWith(SoftAssertionsExtension.class)
+public class AnsiOptimizerTest {
+
+  @InjectSoftAssertions private SoftAssertions softly;
+
+  @ParameterizedTest
+  @MethodSource("provider_optimized")
+  void optimize(String input, String expected) throws IOException {
+    softly.assertThat(AnsiOptimizer.optimize(input)).isEqualTo(expected);
+
+    final var out = new StringWriter();
+    try (var writer = new AnsiOptimizingWriter(out)) {
+      for (int i = 0; i < input.length(); i++) {
+        writer.write(input.charAt(i));
+      }
+    }
+    softly.assertThat(out.toString()).isEqualTo(expected);
+  }
+
+  static List<Arguments> provider_optimized() {
+    final var sut = Colors.createColors(true);
+
+    return List.of(
+        arguments(sut.bold(sut.red("a") + sut.red("b")) + sut.green(""), "\u001B[1;31mab\u001B[m"),
+        arguments(sut.bold("x" + sut.bold("y") + "z"), "\u001B[1mxyz\u001B[m"),
+        arguments(sut.dim(sut.bold("x") + "y"), "\u001B[1;2mx\u001B[0;2my\u001B[m"),
+        arguments("\u001B[31mred\u001B[0m\u001B[31mred\u001B[0m", "\u001B[31mredred\u001B[m"),
+        arguments("\u001B[38:2::255:0:0mx\u001B[39my", "\u001B[38;2;255;0;0mx\u001B[my"),
+        arguments("\u001B[3m \u001B[m", "\u001B[3m \u001B[m"),
+        arguments("\u001B[4:3mA\u001B[24mB", "\u001B[4:3mA\u001B[24mB"),
+        arguments("\u001B[21mA\u001B[24mB", "\u001B[21mA\u001B[24mB"),
+        arguments("\u001B[4mA\u001B[4:0mB\u001B[4mC", "\u001B[4mA\u001B[mB\u001B[4mC"),
+        arguments("\u001B[4:3mA\u001B[4mB", "\u001B[4:3mA\u001B[4mB"),
+        arguments("\u001B[31mabc\u001B[3", "\u001B[31mabc\u001B[3"),
+        arguments("\u001B[31m\u001B[xy\u001B\u001B[32mz", "\u001B[31m\u001B[xy\u001B\u001B[32mz"));
+  }
+
+  @ParameterizedTest
+  @MethodSource("provider_neverLonger")
+  void neverLonger(String input) {
+    softly.assertThat(AnsiOptimizer.optimize(input).length()).isLessThanOrEqualTo(input.length());
+    softly.assertThat(appearance(AnsiOptimizer.optimize(input))).isEqualTo(appearance(input));
+  }
+
+  static List<Arguments> provider_neverLonger() {
+    return List.of(
+        arguments("\u001B[3m \u001B[m"),
+        arguments("\u001B[1m \u001B[0m"),
+        arguments("\u001B[3m\u001B[2K\u001B[;1mx"),
+        arguments("\u001B[31ma\u001B[;32mb\u001B[;33mc\u001B[;m"),
+        arguments("\u001B[1;31mx\u001B[22;39my\u001B[mz"));
+  }
+
+  @Test
+  void untrackedAttributesAreNotReset() {
+    final var input = "a\u001B[5m\u001B[1mb\u001B[22mc\u001B[0md";
+
+    softly.assertThat(AnsiOptimizer.optimize(input)).isEqualTo(input);
+  }
+
+  @Test
+  void otherSequencesAreKept() {
+    final var input = "a\u001B[2Kb\u001B]8;;https://example.com\u0007link\u001B]8;;\u0007";
+
+    softly.assertThat(AnsiOptimizer.optimize(input)).isEqualTo(input);
+  }
+
+  @Test
+  void noEscapeReturnsInput() {
+    final var input = "plain";
+
+    softly.assertThat(AnsiOptimizer.optimize(input)).isSameAs(input);
+  }
+
+  @Test
+  void sameAppearance() {
+    final var sut = Colors.createColors(true);
+    final var input =
+        sut.bold(
+            sut.red("E" + sut.dim("R") + sut.underline(sut.bold("R")))
+                + " "
+                + sut.bgBlue(sut.inverse("x") + sut.italic(""))
+                + sut.reset("y"))
+            + sut.fg256(208).apply(sut.green("z") + "w");
+    final var optimized = AnsiOptimizer.optimize(input);
+
+    softly.assertThat(optimized.length()).isLessThan(input.length());
+    softly.assertThat(appearance(optimized)).isEqualTo(appearance(input));
+  }
+
+  /** Returns the SGR state of each visible character, and the final state. */
+  private static List<SgrState> appearance(String input) {
+    final var result = new ArrayList<SgrState>();
+    final var current = new SgrState();
+    final var parameters = new SgrParameters();
+    int state = Ansi.TEXT;
+    int start = 0;
+
+    for (int i = 0; i < input.length(); i++) {
+      final char c = input.charAt(i);
+      final int next = Ansi.next(state, c);
+      if (next == Ansi.TEXT) {
+        result.add(new SgrState(current));
+      } else if (next == Ansi.ESCAPE && state == Ansi.TEXT) {
+        start = i;
+      } else if (next == Ansi.END && c == 'm' && input.charAt(start + 1) == '[') {
+        current.apply(parameters.reset(input, start + 2, i));
+      }
+      state = next == Ansi.END ? Ansi.TEXT : next;
+    }
+    result.add(current);
+    return result;
+  }
+}
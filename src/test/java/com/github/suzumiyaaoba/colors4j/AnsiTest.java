@@ -0,0 +1,78 @@
+package com.github.suzumiyaaoba.colors4j;
+
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.List;
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.InjectSoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/** Test class for Ansi functionality. */
+@ExtendWith(SoftAssertionsExtension.class)
+public class AnsiTest {
+
+  @InjectSoftAssertions private SoftAssertions softly;
+
+  @ParameterizedTest
+  @MethodSource("provider_stripped")
+  void strip(String input, String expected) throws IOException {
+    softly.assertThat(Ansi.strip(input)).isEqualTo(expected);
+    softly.assertThat(Ansi.visibleLength(input)).isEqualTo(expected.length());
+
+    final var out = new StringWriter();
+    try (var writer = new AnsiStripWriter(out)) {
+      for (int i = 0; i < input.length(); i++) {
+        writer.write(input.charAt(i));
+      }
+    }
+    softly.assertThat(out.toString()).isEqualTo(expected);
+  }
+
+  static List<Arguments> provider_stripped() {
+    final var sut = Colors.createColors(true);
+
+    return List.of(
+        arguments(sut.red("red"), "red"),
+        arguments(sut.bold(sut.red("a") + "b" + sut.dim("c")), "abc"),
+        arguments(sut.style(Style.BOLD, Style.BG_BLUE).apply("x\u001B[39my"), "xy"),
+        arguments("a\u001B[2Kb\u001B[1;31;48;5;208mc", "abc"),
+        arguments("a\u001B]8;;https://example.com\u0007link\u001B]8;;\u001B\\b", "alinkb"),
+        arguments("a\u001B(Bb\u001BMc", "abc"),
+        arguments("a\u001B[31\nb", "a\nb"),
+        arguments("trailing\u001B[3", "trailing"));
+  }
+
+  @Test
+  void noEscapeReturnsInput() {
+    final var input = "plain text";
+
+    softly.assertThat(Ansi.strip(input)).isSameAs(input);
+    softly.assertThat(Ansi.visibleLength(input)).isEqualTo(input.length());
+  }
+
+  @Test
+  void visibleLengthCountsCodePoints() {
+    final var sut = Colors.createColors(true);
+
+    softly.assertThat(Ansi.visibleLength(sut.green("\uD83D\uDE00 ok"))).isEqualTo(4);
+  }
+
+  @Test
+  void stripWriterAcrossWrites() throws IOException {
+    final var out = new StringWriter();
+    try (var writer = new AnsiStripWriter(out)) {
+      writer.write("one\u001B[");
+      writer.write("31mtwo\u001B".toCharArray());
+      writer.write("[39mthree");
+    }
+
+    softly.assertThat(out.toString()).isEqualTo("onetwothree");
+  }
+}
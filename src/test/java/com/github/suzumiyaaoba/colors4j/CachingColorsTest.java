@@ -0,0 +1,120 @@
+package com.github.suzumiyaaoba.colors4j;
+
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+import java.util.List;
+import java.util.stream.Stream;
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.InjectSoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/** Test class for CachingColors functionality. */
+@ExtendWith(SoftAssertionsExtension.class)
+public class CachingColorsTest {
+
+  @InjectSoftAssertions private SoftAssertions softly;
+
+  @ParameterizedTest
+  @EnumSource(Style.class)
+  void formatsLikePlainColors(Style style) {
+    final var plain = Colors.createColors(true);
+    final var sut = plain.cached(16, 64);
+    final var nested = plain.apply(style, "a") + "b" + plain.apply(style, "c");
+
+    for (String input : List.of("", "PASS", nested, "PASS", nested)) {
+      softly.assertThat(sut.apply(style, input)).isEqualTo(plain.apply(style, input));
+    }
+    softly.assertThat(sut.stats().hits()).isEqualTo(2);
+    softly.assertThat(sut.stats().misses()).isEqualTo(3);
+  }
+
+  @Test
+  void cachesEveryWayOfApplyingStyles() {
+    final var sut = Colors.createColors(true).cached(16, 64);
+
+    final var first = sut.bold("WARN");
+    sut.apply(Style.BOLD, "WARN");
+    sut.applyAll(Style.BOLD, List.of("WARN", "INFO"));
+    Stream.of("WARN").collect(sut.toStyledList(Style.BOLD));
+
+    softly.assertThat(sut.bold("WARN")).isSameAs(first);
+    softly.assertThat(sut.stats().hits()).isEqualTo(4);
+    softly.assertThat(sut.stats().misses()).isEqualTo(2);
+    softly.assertThat(sut.size()).isEqualTo(2);
+  }
+
+  @Test
+  void doesNotCacheLongStrings() {
+    final var sut = Colors.createColors(true).cached(16, 4);
+
+    sut.red("FAIL");
+    sut.red("FAILED");
+    sut.red("FAILED");
+
+    softly.assertThat(sut.red("FAILED")).isEqualTo(Colors.createColors(true).red("FAILED"));
+    softly.assertThat(sut.size()).isEqualTo(1);
+    softly.assertThat(sut.stats().misses()).isEqualTo(1);
+    softly.assertThat(sut.stats().hits()).isZero();
+  }
+
+  @Test
+  void evictsStringsNotUsedRecently() {
+    final var sut = Colors.createColors(true).cached(2, 64);
+
+    sut.red("a");
+    sut.red("b");
+    sut.red("a");
+    sut.red("c");
+
+    softly.assertThat(sut.size()).isEqualTo(2);
+    softly.assertThat(sut.stats().evictions()).isEqualTo(1);
+
+    sut.red("a");
+    softly.assertThat(sut.stats().hits()).isEqualTo(2);
+    sut.red("b");
+    softly.assertThat(sut.stats().misses()).isEqualTo(4);
+  }
+
+  @Test
+  void clear() {
+    final var sut = Colors.createColors(true).cached(16, 64);
+    sut.red("a");
+    sut.red("a");
+
+    sut.clear();
+    sut.red("a");
+
+    softly.assertThat(sut.size()).isEqualTo(1);
+    softly.assertThat(sut.stats()).hasToString("CacheStats[hits=1, misses=2, evictions=0]");
+    softly.assertThat(sut.stats().hitRate()).isEqualTo(1.0 / 3);
+  }
+
+  @Test
+  void disabledColorsCacheNothing() {
+    final var sut = Colors.createColors(false).cached(16, 64);
+
+    softly.assertThat(sut.red("x")).isEqualTo("x");
+    softly.assertThat(sut.size()).isZero();
+    softly.assertThat(sut.stats().hitRate()).isZero();
+  }
+
+  @ParameterizedTest
+  @MethodSource("provider_invalidLimits")
+  void rejectsInvalidLimits(int maximumSize, int maximumLength) {
+    final var sut = Colors.createColors(true);
+
+    softly
+        .assertThatThrownBy(() -> sut.cached(maximumSize, maximumLength))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  static Stream<Arguments> provider_invalidLimits() {
+    return Stream.of(arguments(0, 16), arguments(-1, 16), arguments(16, -1));
+  }
+}
@@ -0,0 +1,233 @@
+package com.github.suzumiyaaoba.colors4j;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.InjectSoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/** Test class for ColorConsole functionality. */
+@ExtendWith(SoftAssertionsExtension.class)
+public class ColorConsoleTest {
+
+  @InjectSoftAssertions private SoftAssertions softly;
+
+  @Test
+  void linesFromManyThreadsAreWrittenWhole() throws Exception {
+    final var style = Colors.createColors(true).style(Style.BOLD, Style.RED);
+    final var out = new ByteArrayOutputStream();
+    final var sut = new ColorConsole(out, StandardCharsets.UTF_8, Duration.ofMillis(1), 64);
+
+    final var threads = new ArrayList<Thread>();
+    for (int t = 0; t < 8; t++) {
+      final var id = t;
+      final var thread =
+          new Thread(
+              () -> {
+                for (int i = 0; i < 1000; i++) {
+                  sut.println(style, "thread " + id + " line " + i);
+                }
+              });
+      thread.start();
+      threads.add(thread);
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    sut.flush();
+
+    final var lines = out.toString(StandardCharsets.UTF_8).split(System.lineSeparator());
+    final var plain = new HashSet<String>();
+    for (String line : lines) {
+      final var text = Ansi.strip(line);
+      softly.assertThat(line).isEqualTo(style.apply(text));
+      plain.add(text);
+    }
+    softly.assertThat(lines).hasSize(8000);
+    softly.assertThat(plain).hasSize(8000).contains("thread 7 line 999");
+    sut.close();
+  }
+
+  @Test
+  void closeWritesTheRemainingLines() throws IOException {
+    final var out = new ByteArrayOutputStream();
+    final var sut = new ColorConsole(out, StandardCharsets.UTF_8, Duration.ofHours(1), 16);
+
+    sut.println("a");
+    sut.println(Colors.createColors(true).style(Style.GREEN), "b");
+    sut.close();
+
+    softly
+        .assertThat(out.toString(StandardCharsets.UTF_8))
+        .isEqualTo("a" + System.lineSeparator() + "\u001B[32mb\u001B[39m" + System.lineSeparator());
+    softly.assertThatThrownBy(() -> sut.println("c")).isInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  void linesPrintedWhileClosingAreWrittenOrRejected() throws Exception {
+    for (int round = 0; round < 200; round++) {
+      final var out = new ByteArrayOutputStream();
+      final var sut = new ColorConsole(out, StandardCharsets.UTF_8, Duration.ZERO, 4);
+      final var printed = ConcurrentHashMap.<String>newKeySet();
+
+      final var threads = new ArrayList<Thread>();
+      for (int t = 0; t < 3; t++) {
+        final var id = t;
+        final var thread =
+            new Thread(
+                () -> {
+                  try {
+                    for (int i = 0; i < 50; i++) {
+                      sut.println(id + ":" + i);
+                      printed.add(id + ":" + i);
+                      sut.flush();
+                    }
+                  } catch (IllegalStateException | IOException e) {
+                    // The console was closed.
+                  }
+                });
+        thread.start();
+        threads.add(thread);
+      }
+      sut.close();
+      for (Thread thread : threads) {
+        thread.join(10_000);
+        softly.assertThat(thread.isAlive()).isFalse();
+      }
+
+      final var lines = out.toString(StandardCharsets.UTF_8).split(System.lineSeparator());
+      final var written = new HashSet<>(List.of(lines));
+      for (String line : printed) {
+        softly.assertThat(written).contains(line);
+      }
+    }
+  }
+
+  @Test
+  void linesAreWrittenWithinTheLatency() throws InterruptedException {
+    final var out = new ByteArrayOutputStream();
+    final var sut = new ColorConsole(out, StandardCharsets.UTF_8, Duration.ofMillis(10), 16);
+
+    sut.println("a");
+    for (int i = 0; i < 500 && out.size() == 0; i++) {
+      Thread.sleep(10);
+    }
+
+    softly.assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("a" + System.lineSeparator());
+  }
+
+  @Test
+  void printingBlocksBeyondTheCapacity() throws Exception {
+    final var release = new CountDownLatch(1);
+    final var out = new ByteArrayOutputStream();
+    final var blocking =
+        new OutputStream() {
+          @Override
+          public void write(int b) {
+            write(new byte[] {(byte) b}, 0, 1);
+          }
+
+          @Override
+          public void write(byte[] b, int off, int len) {
+            try {
+              release.await();
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+            }
+            out.write(b, off, len);
+          }
+        };
+    final var sut = new ColorConsole(blocking, StandardCharsets.UTF_8, Duration.ZERO, 2);
+
+    final var printer =
+        new Thread(
+            () -> {
+              for (int i = 0; i < 4; i++) {
+                sut.println(String.valueOf(i));
+              }
+            });
+    printer.start();
+    printer.join(200);
+    softly.assertThat(printer.isAlive()).isTrue();
+
+    release.countDown();
+    printer.join();
+    sut.close();
+    softly.assertThat(out.toString(StandardCharsets.UTF_8)).hasLineCount(4);
+  }
+
+  @Test
+  void errorsAreReported() {
+    final var sut =
+        new ColorConsole(
+            new OutputStream() {
+              @Override
+              public void write(int b) throws IOException {
+                throw new IOException("broken pipe");
+              }
+            });
+
+    sut.println("a");
+
+    softly
+        .assertThatThrownBy(sut::flush)
+        .isInstanceOf(IOException.class)
+        .hasRootCauseMessage("broken pipe");
+    softly.assertThatThrownBy(sut::close).isInstanceOf(IOException.class);
+  }
+
+  @Test
+  void runtimeErrorsAreReported() throws Exception {
+    final var sut =
+        new ColorConsole(
+            new OutputStream() {
+              @Override
+              public void write(int b) {
+                throw new IllegalStateException("stream closed");
+              }
+            },
+            StandardCharsets.UTF_8,
+            Duration.ZERO,
+            2);
+
+    final var printer =
+        new Thread(
+            () -> {
+              for (int i = 0; i < 100; i++) {
+                sut.println(String.valueOf(i));
+              }
+            });
+    printer.start();
+    printer.join(10_000);
+
+    softly.assertThat(printer.isAlive()).isFalse();
+    softly
+        .assertThatThrownBy(sut::flush)
+        .isInstanceOf(IOException.class)
+        .hasRootCauseMessage("stream closed");
+    softly.assertThatThrownBy(sut::close).isInstanceOf(IOException.class);
+  }
+
+  @Test
+  void invalidSettings() {
+    final var out = OutputStream.nullOutputStream();
+
+    softly
+        .assertThatThrownBy(
+            () -> new ColorConsole(out, StandardCharsets.UTF_8, Duration.ofMillis(-1), 16))
+        .isInstanceOf(IllegalArgumentException.class);
+    softly
+        .assertThatThrownBy(() -> new ColorConsole(out, StandardCharsets.UTF_8, Duration.ZERO, 0))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
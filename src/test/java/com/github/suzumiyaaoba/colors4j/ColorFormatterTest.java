@@ -0,0 +1,124 @@
+package com.github.suzumiyaaoba.colors4j;
+
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.InjectSoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/** Test class for ColorFormatter functionality. */
+@ExtendWith(SoftAssertionsExtension.class)
+public class ColorFormatterTest {
+
+  private static final Instant INSTANT = Instant.parse("2024-01-02T03:04:05.078Z");
+
+  private static final String NEWLINE = System.lineSeparator();
+
+  @InjectSoftAssertions private SoftAssertions softly;
+
+  @ParameterizedTest
+  @MethodSource("provider_levels")
+  void format(Level level, String prefix) {
+    final var sut = new ColorFormatter(Colors.createColors(true), ZoneOffset.UTC);
+    final var colors = Colors.createColors(true);
+
+    softly
+        .assertThat(sut.format(record(level, "hello {0}", "world")))
+        .isEqualTo(
+            "2024-01-02 03:04:05.078 "
+                + prefix
+                + colors.dim("com.example.Service")
+                + ": hello world"
+                + NEWLINE);
+  }
+
+  static List<Arguments> provider_levels() {
+    final var sut = Colors.createColors(true);
+
+    return List.of(
+        arguments(Level.SEVERE, sut.bold(sut.red("SEVERE")) + "  "),
+        arguments(Level.WARNING, sut.yellow("WARNING") + " "),
+        arguments(Level.INFO, sut.green("INFO") + "    "),
+        arguments(Level.CONFIG, sut.cyan("CONFIG") + "  "),
+        arguments(Level.FINEST, sut.gray("FINEST") + "  "),
+        arguments(new CustomLevel("NOTICE", 850), sut.green("NOTICE") + "  "));
+  }
+
+  @Test
+  void disabledColors() {
+    final var sut = new ColorFormatter(Colors.createColors(false), ZoneOffset.UTC);
+
+    softly
+        .assertThat(sut.format(record(Level.INFO, "plain")))
+        .isEqualTo("2024-01-02 03:04:05.078 INFO    com.example.Service: plain" + NEWLINE);
+  }
+
+  @Test
+  void defaultUsesDetectedColors() {
+    final var sut = new ColorFormatter();
+    final var record = record(Level.SEVERE, "boom");
+
+    softly
+        .assertThat(sut.format(record))
+        .isEqualTo(new ColorFormatter(Colors.detect()).format(record));
+  }
+
+  @Test
+  void messageWithoutPlaceholders() {
+    final var sut = new ColorFormatter(Colors.createColors(false), ZoneOffset.UTC);
+
+    softly
+        .assertThat(sut.format(record(Level.INFO, "no {} here", 1)))
+        .endsWith(": no {} here" + NEWLINE);
+    softly
+        .assertThat(sut.format(record(Level.INFO, "broken {0", 1)))
+        .endsWith(": broken {0" + NEWLINE);
+  }
+
+  @Test
+  void thrown() {
+    final var sut = new ColorFormatter(Colors.createColors(false), ZoneOffset.UTC);
+    final var record = record(Level.SEVERE, "failed");
+    record.setThrown(new IllegalStateException("boom"));
+
+    softly
+        .assertThat(sut.format(record))
+        .contains(": failed" + NEWLINE + "java.lang.IllegalStateException: boom");
+  }
+
+  @Test
+  void sameSecond() {
+    final var sut = new ColorFormatter(Colors.createColors(false), ZoneOffset.UTC);
+    final var later = record(Level.INFO, "later");
+    later.setInstant(INSTANT.plusMillis(900));
+
+    softly.assertThat(sut.format(record(Level.INFO, "now"))).startsWith("2024-01-02 03:04:05.078 ");
+    softly.assertThat(sut.format(later)).startsWith("2024-01-02 03:04:05.978 ");
+  }
+
+  private static LogRecord record(Level level, String message, Object... parameters) {
+    final var record = new LogRecord(level, message);
+    record.setInstant(INSTANT);
+    record.setLoggerName("com.example.Service");
+    record.setParameters(parameters);
+    return record;
+  }
+
+  /** A level that is not one of the standard levels. */
+  private static final class CustomLevel extends Level {
+
+    CustomLevel(String name, int value) {
+      super(name, value);
+    }
+  }
+}
@@ -0,0 +1,219 @@
+package com.github.suzumiyaaoba.colors4j;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Flow;
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.InjectSoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/** Test class for ColorProcessor functionality. */
+@ExtendWith(SoftAssertionsExtension.class)
+public class ColorProcessorTest {
+
+  @InjectSoftAssertions private SoftAssertions softly;
+
+  private final CompiledStyle red = Colors.createColors(true).style(Style.RED);
+
+  @Test
+  void colorsEachString() {
+    final var sut = ColorProcessor.strings(red);
+    final var upstream = new Upstream();
+    final var downstream = new Downstream<String>(Long.MAX_VALUE);
+    sut.onSubscribe(upstream);
+    sut.subscribe(downstream);
+
+    sut.onNext("foo");
+    sut.onNext("bar " + red.apply("baz"));
+    sut.onComplete();
+
+    softly.assertThat(downstream.items).containsExactly(red.apply("foo"), red.apply("bar baz"));
+    softly.assertThat(downstream.completed).isTrue();
+  }
+
+  @Test
+  void passesDemandUpstream() {
+    final var sut = ColorProcessor.strings(red);
+    final var upstream = new Upstream();
+    final var downstream = new Downstream<String>(2);
+    sut.onSubscribe(upstream);
+    sut.subscribe(downstream);
+
+    softly.assertThat(upstream.requested).isEqualTo(2);
+
+    downstream.subscription.request(3);
+
+    softly.assertThat(upstream.requested).isEqualTo(5);
+  }
+
+  @Test
+  void keepsDemandUntilSubscribedUpstream() {
+    final var sut = ColorProcessor.strings(red);
+    final var upstream = new Upstream();
+    final var downstream = new Downstream<String>(2);
+    sut.subscribe(downstream);
+    downstream.subscription.request(Long.MAX_VALUE);
+    sut.onSubscribe(upstream);
+
+    softly.assertThat(upstream.requested).isEqualTo(Long.MAX_VALUE);
+  }
+
+  @Test
+  void passesCancellationUpstream() {
+    final var sut = ColorProcessor.strings(red);
+    final var upstream = new Upstream();
+    final var downstream = new Downstream<String>(1);
+    sut.onSubscribe(upstream);
+    sut.subscribe(downstream);
+
+    downstream.subscription.cancel();
+
+    softly.assertThat(upstream.cancelled).isTrue();
+  }
+
+  @Test
+  void completesLateSubscribers() {
+    final var sut = ColorProcessor.strings(red);
+    final var downstream = new Downstream<String>(1);
+    sut.onSubscribe(new Upstream());
+    sut.onComplete();
+    sut.subscribe(downstream);
+
+    softly.assertThat(downstream.subscription).isNotNull();
+    softly.assertThat(downstream.completed).isTrue();
+  }
+
+  @Test
+  void rejectsSecondSubscriber() {
+    final var sut = ColorProcessor.strings(red);
+    final var downstream = new Downstream<String>(1);
+    sut.subscribe(new Downstream<>(1));
+    sut.subscribe(downstream);
+
+    softly.assertThat(downstream.error).isInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  void reportsFailuresDownstream() {
+    final var failure = new IllegalArgumentException("bad line");
+    final var sut =
+        ColorProcessor.strings(
+            line -> {
+              throw failure;
+            });
+    final var upstream = new Upstream();
+    final var downstream = new Downstream<String>(2);
+    sut.onSubscribe(upstream);
+    sut.subscribe(downstream);
+
+    sut.onNext("foo");
+    sut.onNext("bar");
+    sut.onComplete();
+
+    softly.assertThat(upstream.cancelled).isTrue();
+    softly.assertThat(downstream.items).isEmpty();
+    softly.assertThat(downstream.error).isSameAs(failure);
+    softly.assertThat(downstream.completed).isFalse();
+  }
+
+  @Test
+  void colorsEachByteBuffer() {
+    final var sut = ColorProcessor.byteBuffers(red);
+    final var downstream = new Downstream<ByteBuffer>(Long.MAX_VALUE);
+    sut.onSubscribe(new Upstream());
+    sut.subscribe(downstream);
+
+    final var lines = new ArrayList<String>();
+    for (int i = 0; i < 100; i++) {
+      lines.add("line " + i + red.apply("x").repeat(i % 3) + "y".repeat(i * 100));
+    }
+    final var heap = ByteBuffer.wrap(lines.get(0).getBytes(StandardCharsets.UTF_8));
+    for (String line : lines) {
+      final var bytes = line.getBytes(StandardCharsets.UTF_8);
+      sut.onNext(ByteBuffer.allocateDirect(bytes.length).put(bytes).flip());
+    }
+    sut.onNext(heap);
+
+    final var decoded = new ArrayList<String>();
+    for (ByteBuffer item : downstream.items) {
+      decoded.add(StandardCharsets.UTF_8.decode(item).toString());
+    }
+    final var expected = new ArrayList<String>();
+    for (String line : lines) {
+      expected.add(red.apply(line));
+    }
+    expected.add(red.apply(lines.get(0)));
+
+    softly.assertThat(decoded).isEqualTo(expected);
+    softly.assertThat(heap.position()).isZero();
+  }
+
+  @Test
+  void passesByteBuffersThroughWithoutColors() {
+    final var sut = ColorProcessor.byteBuffers(Colors.createColors(false).style(Style.RED));
+    final var downstream = new Downstream<ByteBuffer>(1);
+    final var item = ByteBuffer.wrap("foo".getBytes(StandardCharsets.UTF_8));
+    sut.onSubscribe(new Upstream());
+    sut.subscribe(downstream);
+
+    sut.onNext(item);
+
+    softly.assertThat(downstream.items).containsExactly(item);
+  }
+
+  /** A subscription recording the demand and cancellation of the processor. */
+  private static final class Upstream implements Flow.Subscription {
+
+    long requested;
+    boolean cancelled;
+
+    @Override
+    public void request(long n) {
+      requested = requested + n < 0 ? Long.MAX_VALUE : requested + n;
+    }
+
+    @Override
+    public void cancel() {
+      cancelled = true;
+    }
+  }
+
+  /** A subscriber recording the signals it receives. */
+  private static final class Downstream<T> implements Flow.Subscriber<T> {
+
+    final List<T> items = new ArrayList<>();
+    final long initialDemand;
+    Flow.Subscription subscription;
+    Throwable error;
+    boolean completed;
+
+    Downstream(long initialDemand) {
+      this.initialDemand = initialDemand;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+      this.subscription = subscription;
+      subscription.request(initialDemand);
+    }
+
+    @Override
+    public void onNext(T item) {
+      items.add(item);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+      error = throwable;
+    }
+
+    @Override
+    public void onComplete() {
+      completed = true;
+    }
+  }
+}
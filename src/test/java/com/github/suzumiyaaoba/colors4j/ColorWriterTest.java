@@ -0,0 +1,92 @@
+package com.github.suzumiyaaoba.colors4j;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.InjectSoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/** Test class for ColorWriter and ColorOutputStream functionality. */
+@ExtendWith(SoftAssertionsExtension.class)
+public class ColorWriterTest {
+
+  @InjectSoftAssertions private SoftAssertions softly;
+
+  @Test
+  void writer() throws IOException {
+    final var sut = Colors.createColors(true);
+    final var style = sut.style(Style.BOLD, Style.RED);
+    final var input = "one\u001B[39mtwo\u001B[22mthree";
+
+    final var out = new StringWriter();
+    try (var writer = new ColorWriter(out, style)) {
+      writer.write(input);
+    }
+
+    softly.assertThat(out.toString()).isEqualTo(style.apply(input));
+  }
+
+  @Test
+  void closeSequenceSplitBetweenWrites() throws IOException {
+    final var sut = Colors.createColors(true);
+    final var style = sut.style(Style.RED);
+    final var input = "one\u001B[39mtwo\u001B[3";
+
+    final var out = new StringWriter();
+    try (var writer = new ColorWriter(out, style)) {
+      writer.write("one\u001B[");
+      writer.write("3");
+      writer.write("9mtwo\u001B");
+      writer.write("[3");
+    }
+
+    softly.assertThat(out.toString()).isEqualTo(style.apply(input));
+  }
+
+  @Test
+  void finishKeepsUnderlyingWriterOpen() throws IOException {
+    final var sut = Colors.createColors(true);
+
+    final var out = new StringWriter();
+    final var writer = new ColorWriter(out, sut.style(Style.GREEN));
+    writer.write("ok");
+    writer.finish();
+    out.write("!");
+
+    softly.assertThat(out.toString()).isEqualTo(sut.green("ok") + "!");
+    softly.assertThatThrownBy(() -> writer.write("more")).isInstanceOf(IOException.class);
+  }
+
+  @Test
+  void unescapedWriter() throws IOException {
+    final var sut = Colors.createColors(false);
+
+    final var out = new StringWriter();
+    try (var writer = new ColorWriter(out, sut.style(Style.RED))) {
+      writer.write("text\u001B[39m");
+    }
+
+    softly.assertThat(out.toString()).isEqualTo("text\u001B[39m");
+  }
+
+  @Test
+  void outputStream() throws IOException {
+    final var sut = Colors.createColors(true);
+    final var style = sut.style(Style.BG_BLUE, Style.DIM);
+    final var input = "\u00E9t\u00E9\u001B[49m\u001B[22mfin";
+    final var bytes = input.getBytes(StandardCharsets.UTF_8);
+
+    final var out = new ByteArrayOutputStream();
+    try (var stream = new ColorOutputStream(out, style)) {
+      for (byte b : bytes) {
+        stream.write(b);
+      }
+    }
+
+    softly.assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(style.apply(input));
+  }
+}
@@ -2,7 +2,11 @@ package com.github.suzumiyaaoba.colors4j;
 
 import static org.junit.jupiter.params.provider.Arguments.arguments;
 
+import java.io.IOException;
+import java.io.StringWriter;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import org.assertj.core.api.SoftAssertions;
 import org.assertj.core.api.junit.jupiter.InjectSoftAssertions;
 import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
@@ -167,4 +171,90 @@ public class ColorsTest {
     String expected = "\u001B[31mnormal text\u001B[39m";
     softly.assertThat(result).isEqualTo(expected);
   }
+
+  @Test
+  void appendToBuilder() {
+    final var sut = Colors.createColors(true);
+
+    final var builder = new StringBuilder("prefix ");
+    final var result = sut.red("text\u001B[39mmore", builder);
+
+    softly.assertThat(result).isSameAs(builder);
+    softly
+        .assertThat(builder.toString())
+        .isEqualTo("prefix " + sut.red("text\u001B[39mmore"));
+  }
+
+  @Test
+  void appendToAppendable() throws IOException {
+    final var sut = Colors.createColors(true);
+
+    final var writer = new StringWriter();
+    sut.bold(new StringBuilder("a\u001B[22mb\u001B[22mc"), writer);
+
+    softly.assertThat(writer.toString()).isEqualTo(sut.bold("a\u001B[22mb\u001B[22mc"));
+  }
+
+  @Test
+  void appendUnescaped() {
+    final var sut = Colors.createColors(false);
+
+    softly.assertThat(sut.red("red", new StringBuilder()).toString()).isEqualTo("red");
+  }
+
+  @Test
+  void applyStyle() {
+    final var sut = Colors.createColors(true);
+
+    softly.assertThat(sut.apply(Style.RED, "red")).isEqualTo(sut.red("red"));
+    softly.assertThat(sut.apply(Style.BOLD, "a\u001B[22mb")).isEqualTo(sut.bold("a\u001B[22mb"));
+    softly
+        .assertThat(sut.apply(Style.BG_CYAN, "bgCyan", new StringBuilder()).toString())
+        .isEqualTo(sut.bgCyan("bgCyan"));
+    softly.assertThat(Colors.createColors(false).apply(Style.RED, "red")).isEqualTo("red");
+  }
+
+  @Test
+  void sharedInstances() {
+    softly.assertThat(Colors.createColors(true)).isSameAs(Colors.createColors(true));
+    softly.assertThat(Colors.createColors(false)).isSameAs(Colors.createColors(false));
+    softly.assertThat(Colors.createColors(true).isColorSupported()).isTrue();
+    softly.assertThat(Colors.createColors(false).isColorSupported()).isFalse();
+  }
+
+  @ParameterizedTest
+  @MethodSource("provider_sizes")
+  void applyAll(int size) {
+    final var sut = Colors.createColors(true);
+    final var inputs =
+        IntStream.range(0, size)
+            .mapToObj(i -> i % 3 == 0 ? "a\u001B[22mb" + i : "cell" + i)
+            .collect(Collectors.toList());
+    final var expected = inputs.stream().map(sut::bold).collect(Collectors.toList());
+
+    softly.assertThat(sut.applyAll(Style.BOLD, inputs)).isEqualTo(expected);
+    softly
+        .assertThat(inputs.parallelStream().collect(sut.toStyledList(Style.BOLD)))
+        .isEqualTo(expected);
+
+    final var array = inputs.toArray(new String[0]);
+    softly
+        .assertThat(sut.applyAll(Style.BOLD, array))
+        .isSameAs(array)
+        .containsExactlyElementsOf(expected);
+  }
+
+  static List<Arguments> provider_sizes() {
+    return List.of(arguments(0), arguments(10), arguments(Colors.PARALLEL_THRESHOLD + 1));
+  }
+
+  @Test
+  void applyAllUnescaped() {
+    final var sut = Colors.createColors(false);
+
+    softly.assertThat(sut.applyAll(Style.RED, List.of("a", "b"))).containsExactly("a", "b");
+    softly
+        .assertThat(List.of("a", "b").stream().collect(sut.toStyledList(Style.RED)))
+        .containsExactly("a", "b");
+  }
 }
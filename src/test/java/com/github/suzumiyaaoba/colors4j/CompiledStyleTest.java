@@ -0,0 +1,113 @@
+package com.github.suzumiyaaoba.colors4j;
+
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.InjectSoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/** Test class for CompiledStyle functionality. */
+@ExtendWith(SoftAssertionsExtension.class)
+public class CompiledStyleTest {
+
+  @InjectSoftAssertions private SoftAssertions softly;
+
+  @ParameterizedTest
+  @MethodSource("provider_nested")
+  void sameAsNesting(String compiled, String nested) {
+    softly.assertThat(compiled).isEqualTo(nested);
+  }
+
+  static List<Arguments> provider_nested() {
+    final var sut = Colors.createColors(true);
+    final var input = "a\u001B[22mb\u001B[39mc\u001B[49md";
+
+    return List.of(
+        arguments(
+            sut.style(Style.BOLD, Style.RED, Style.BG_BLUE).apply("text"),
+            sut.bold(sut.red(sut.bgBlue("text")))),
+        arguments(
+            sut.style(Style.BOLD, Style.RED, Style.BG_BLUE).apply(input),
+            sut.bold(sut.red(sut.bgBlue(input)))),
+        arguments(sut.style(Style.BOLD, Style.DIM).apply(input), sut.bold(sut.dim(input))),
+        arguments(sut.style(Style.RED, Style.GREEN).apply(input), sut.red(sut.green(input))),
+        arguments(
+            sut.style(Style.UNDERLINE, Style.RESET).apply(input),
+            sut.underline(sut.reset(input))),
+        arguments(
+            sut.style(Style.RED, Style.BOLD).apply("\u001B[39mx"),
+            sut.red(sut.bold("\u001B[39mx"))),
+        arguments(sut.style(Style.CYAN).apply(input), sut.cyan(input)),
+        arguments(sut.style(Style.BOLD, Style.RED).apply(""), sut.bold(sut.red(""))));
+  }
+
+  @Test
+  void appendToBuilder() {
+    final var sut = Colors.createColors(true);
+    final var style = sut.style(Style.BOLD, Style.RED);
+
+    final var builder = new StringBuilder("> ");
+    style.apply(new StringBuilder("x\u001B[39my"), builder);
+
+    softly.assertThat(builder.toString()).isEqualTo("> " + sut.bold(sut.red("x\u001B[39my")));
+  }
+
+  @Test
+  void unescaped() {
+    final var sut = Colors.createColors(false);
+    final var style = sut.style(Style.BOLD, Style.RED, Style.BG_BLUE);
+
+    softly.assertThat(style.apply("text")).isEqualTo("text");
+    softly.assertThat(style.apply("text", new StringBuilder()).toString()).isEqualTo("text");
+  }
+
+  @Test
+  void putIntoByteBuffer() {
+    final var sut = Colors.createColors(true);
+    final var style = sut.style(Style.BOLD, Style.RED);
+    final var input = "caf\u00E9 \u001B[39mok\uD83D\uDE00";
+    final var expected = style.apply(input).getBytes(StandardCharsets.UTF_8);
+
+    for (var buffer : List.of(ByteBuffer.allocate(64), ByteBuffer.allocateDirect(64))) {
+      style.apply(input, buffer).flip();
+      final var actual = new byte[buffer.remaining()];
+      buffer.get(actual);
+
+      softly.assertThat(actual).isEqualTo(expected);
+    }
+  }
+
+  @Test
+  void putEncodedIntoByteBuffer() {
+    final var sut = Colors.createColors(true);
+    final var style = sut.style(Style.BG_RED, Style.DIM);
+    final var input = "a\u001B[49mb\u001B[22mc";
+    final var bytes = ("xx" + input + "yy").getBytes(StandardCharsets.UTF_8);
+
+    final var buffer = style.apply(bytes, 2, bytes.length - 4, ByteBuffer.allocate(64)).flip();
+
+    softly
+        .assertThat(StandardCharsets.UTF_8.decode(buffer).toString())
+        .isEqualTo(style.apply(input));
+  }
+
+  @Test
+  void overflowLeavesPositionUnchanged() {
+    final var sut = Colors.createColors(true);
+    final var buffer = ByteBuffer.allocate(8).position(2);
+
+    softly
+        .assertThatThrownBy(() -> sut.style(Style.RED).apply("too long", buffer))
+        .isInstanceOf(BufferOverflowException.class);
+    softly.assertThat(buffer.position()).isEqualTo(2);
+  }
+}
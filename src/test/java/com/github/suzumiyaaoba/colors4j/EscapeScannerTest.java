@@ -0,0 +1,60 @@
+package com.github.suzumiyaaoba.colors4j;
+
+import java.util.Arrays;
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.InjectSoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/** Test class for EscapeScanner functionality. */
+@ExtendWith(SoftAssertionsExtension.class)
+public class EscapeScannerTest {
+
+  @InjectSoftAssertions private SoftAssertions softly;
+
+  @Test
+  void findsEscapeAtEveryOffset() {
+    for (int length = 1; length <= 40; length++) {
+      for (int position = 0; position < length; position++) {
+        final byte[] bytes = new byte[length];
+        Arrays.fill(bytes, (byte) 0x9B);
+        bytes[position] = 0x1B;
+
+        softly.assertThat(EscapeScanner.indexOf(bytes, 0, length)).isEqualTo(position);
+        softly.assertThat(EscapeScanner.indexOf(bytes, position + 1, length)).isEqualTo(-1);
+      }
+    }
+  }
+
+  @Test
+  void returnsFirstOfSeveralEscapes() {
+    final byte[] bytes = "abc\u001Bdefghij\u001Bk\u001B".getBytes();
+
+    softly.assertThat(EscapeScanner.indexOf(bytes, 0, bytes.length)).isEqualTo(3);
+    softly.assertThat(EscapeScanner.indexOf(bytes, 4, bytes.length)).isEqualTo(11);
+    softly.assertThat(EscapeScanner.indexOf(bytes, 4, 11)).isEqualTo(-1);
+  }
+
+  @Test
+  void ignoresBytesNextToEscape() {
+    final byte[] bytes = {0x1A, 0x1C, 0x3B, (byte) 0x9B, 0x1A, 0x1C, 0x00, (byte) 0xFF, 0x1C};
+
+    softly.assertThat(EscapeScanner.indexOf(bytes, 0, bytes.length)).isEqualTo(-1);
+  }
+
+  @Test
+  void charSequences() {
+    softly.assertThat(EscapeScanner.indexOf("ab\u001Bc", 0)).isEqualTo(2);
+    softly.assertThat(EscapeScanner.indexOf(new StringBuilder("ab\u001Bc"), 0)).isEqualTo(2);
+    softly.assertThat(EscapeScanner.indexOf(new StringBuilder("ab\u001Bc"), 3)).isEqualTo(-1);
+  }
+
+  @Test
+  void charSequenceRanges() {
+    softly.assertThat(EscapeScanner.indexOf("a\u001Bb\u001Bc", 0, 5)).isEqualTo(1);
+    softly.assertThat(EscapeScanner.indexOf("a\u001Bb\u001Bc", 2, 3)).isEqualTo(-1);
+    softly.assertThat(EscapeScanner.indexOf("a\u001Bb\u001Bc", 2, 4)).isEqualTo(3);
+    softly.assertThat(EscapeScanner.indexOf(new StringBuilder("a\u001Bb"), 0, 1)).isEqualTo(-1);
+  }
+}
@@ -0,0 +1,149 @@
+package com.github.suzumiyaaoba.colors4j;
+
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+import java.util.List;
+import java.util.regex.PatternSyntaxException;
+import java.util.stream.Stream;
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.InjectSoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/** Test class for Highlighter functionality. */
+@ExtendWith(SoftAssertionsExtension.class)
+public class HighlighterTest {
+
+  @InjectSoftAssertions private SoftAssertions softly;
+
+  private static final Colors COLORS = Colors.createColors(true);
+
+  private static final Highlighter LOG =
+      COLORS
+          .highlighter()
+          .keywords(List.of("ERROR", "FATAL"), Style.BOLD, Style.RED)
+          .pattern("[0-9a-f]{8}(-[0-9a-f]{4}){3}-[0-9a-f]{12}", Style.CYAN)
+          .pattern("\\b\\d+\\b", Style.YELLOW)
+          .build();
+
+  @ParameterizedTest
+  @MethodSource("provider_highlight")
+  void highlight(Highlighter sut, String line, String expected) {
+    softly.assertThat(sut.apply(line)).isEqualTo(expected);
+    softly.assertThat(sut.apply(line, new StringBuilder(">"))).hasToString(">" + expected);
+  }
+
+  static Stream<Arguments> provider_highlight() {
+    final var error = COLORS.style(Style.BOLD, Style.RED);
+    final var uuid = "123e4567-e89b-12d3-a456-426614174000";
+    return Stream.of(
+        arguments(LOG, "", ""),
+        arguments(LOG, "all good", "all good"),
+        arguments(LOG, "ERROR", error.apply("ERROR")),
+        arguments(
+            LOG,
+            "ERROR took 42 ms",
+            error.apply("ERROR") + " took " + COLORS.yellow("42") + " ms"),
+        arguments(LOG, "ERRORS x42 42x FATAL.", "ERRORS x42 42x " + error.apply("FATAL") + "."),
+        arguments(LOG, "id=" + uuid, "id=" + COLORS.cyan(uuid)),
+        arguments(
+            LOG,
+            COLORS.bold("ERROR") + " 31",
+            "\u001B[1m" + error.apply("ERROR") + "\u001B[22m " + COLORS.yellow("31")),
+        arguments(
+            COLORS.highlighter().keywords(List.of("he", "she", "hers"), Style.RED).build(),
+            "ushers she he",
+            "ushers " + COLORS.red("she") + " " + COLORS.red("he")),
+        arguments(
+            COLORS.highlighter().pattern("x*", Style.RED).build(),
+            "axxb",
+            "a" + COLORS.red("xx") + "b"));
+  }
+
+  @Test
+  void earliestMatchWins() {
+    final var sut =
+        COLORS
+            .highlighter()
+            .pattern("b+", Style.RED)
+            .keyword("abb", Style.GREEN)
+            .pattern("bbc", Style.BLUE)
+            .build();
+
+    softly
+        .assertThat(sut.apply("abb bbc"))
+        .isEqualTo(COLORS.green("abb") + " " + COLORS.red("bb") + "c");
+  }
+
+  @Test
+  void firstRuleWinsAtTheSameStart() {
+    final var sut =
+        COLORS
+            .highlighter()
+            .keyword("ERROR", Style.RED)
+            .keyword("ERROR", Style.BLUE)
+            .pattern("[A-Z]+ CODE", Style.GREEN)
+            .build();
+    final var reversed =
+        COLORS
+            .highlighter()
+            .pattern("[A-Z]+ CODE", Style.GREEN)
+            .keyword("ERROR", Style.RED)
+            .build();
+
+    softly.assertThat(sut.apply("ERROR CODE")).isEqualTo(COLORS.red("ERROR") + " CODE");
+    softly.assertThat(reversed.apply("ERROR CODE")).isEqualTo(COLORS.green("ERROR CODE"));
+  }
+
+  @Test
+  void laterRulesMatchWhereEarlierRulesMatchEmpty() {
+    final var sut =
+        COLORS
+            .highlighter()
+            .pattern("x*", Style.RED)
+            .pattern("(?=a)", Style.GREEN)
+            .pattern("ab", Style.BLUE)
+            .pattern("a", Style.YELLOW)
+            .build();
+
+    softly
+        .assertThat(sut.apply("ab xa"))
+        .isEqualTo(COLORS.blue("ab") + " " + COLORS.red("x") + COLORS.yellow("a"));
+  }
+
+  @Test
+  void returnsUnmatchedLinesAsTheyAre() {
+    final var line = "nothing to see " + COLORS.red("here");
+
+    softly.assertThat(LOG.apply(line)).isSameAs(line);
+  }
+
+  @Test
+  void disabledColorsLeaveLinesUnchanged() {
+    final var sut = Colors.createColors(false).highlighter().keyword("ERROR", Style.RED).build();
+
+    softly.assertThat(sut.apply("ERROR 42")).isEqualTo("ERROR 42");
+  }
+
+  @Test
+  void rejectsEmptyKeywords() {
+    final var sut = COLORS.highlighter();
+
+    softly
+        .assertThatThrownBy(() -> sut.keywords(List.of("ERROR", ""), Style.RED))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void rejectsMalformedPatterns() {
+    final var sut = COLORS.highlighter();
+
+    softly
+        .assertThatThrownBy(() -> sut.pattern("(", Style.RED))
+        .isInstanceOf(PatternSyntaxException.class);
+  }
+}
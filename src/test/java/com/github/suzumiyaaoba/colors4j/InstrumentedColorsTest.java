@@ -0,0 +1,111 @@
+package com.github.suzumiyaaoba.colors4j;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.stream.Stream;
+import javax.management.JMException;
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.InjectSoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+/** Test class for InstrumentedColors functionality. */
+@ExtendWith(SoftAssertionsExtension.class)
+public class InstrumentedColorsTest {
+
+  @InjectSoftAssertions private SoftAssertions softly;
+
+  @ParameterizedTest
+  @EnumSource(Style.class)
+  void countsMatchTheOutput(Style style) throws IOException {
+    final var plain = Colors.createColors(true);
+    final var sut = plain.instrumented();
+    final var nested = plain.apply(style, "a") + "b" + plain.apply(style, "c");
+
+    long added = 0;
+    for (String input : List.of("", "text", nested)) {
+      final var expected = plain.apply(style, input);
+      softly.assertThat(sut.apply(style, input)).isEqualTo(expected);
+      softly.assertThat(sut.apply(style, input, new StringBuilder())).hasToString(expected);
+      softly.assertThat(sut.apply(style, input, new StringWriter())).hasToString(expected);
+      added += 3L * (expected.length() - input.length());
+    }
+
+    final var metrics = sut.snapshot().get(style);
+    softly.assertThat(metrics.style()).isEqualTo(style);
+    softly.assertThat(metrics.calls()).isEqualTo(9);
+    softly.assertThat(metrics.bytesAdded()).isEqualTo(added);
+    softly.assertThat(metrics.rewrites()).isEqualTo(3);
+    softly.assertThat(metrics.rewriteRate()).isEqualTo(1.0 / 3);
+  }
+
+  @Test
+  void countsEveryWayOfApplyingStyles() {
+    final var sut = Colors.createColors(true).instrumented();
+
+    sut.bold("a");
+    sut.bold("b", new StringBuilder());
+    sut.applyAll(Style.BOLD, List.of("c", "d"));
+    Stream.of("e").collect(sut.toStyledList(Style.BOLD));
+    sut.apply(Style.BOLD, "f", ByteBuffer.allocate(16));
+    sut.red(sut.bold("g"));
+
+    final var snapshot = sut.snapshot();
+    softly.assertThat(snapshot.get(Style.BOLD).calls()).isEqualTo(7);
+    softly.assertThat(snapshot.get(Style.BOLD).bytesAdded()).isEqualTo(7 * 9);
+    softly.assertThat(snapshot.get(Style.RED).calls()).isEqualTo(1);
+    softly.assertThat(snapshot.get(Style.RED).rewrites()).isZero();
+    softly.assertThat(snapshot.get(Style.DIM).calls()).isZero();
+    softly.assertThat(snapshot.get(Style.DIM).rewriteRate()).isZero();
+  }
+
+  @Test
+  void disabledColorsAddNothing() {
+    final var sut = Colors.createColors(false).instrumented();
+
+    softly.assertThat(sut.red(sut.red("x"))).isEqualTo("x");
+    softly.assertThat(sut.snapshot().get(Style.RED).calls()).isEqualTo(2);
+    softly.assertThat(sut.snapshot().get(Style.RED).bytesAdded()).isZero();
+    softly.assertThat(sut.snapshot().get(Style.RED).rewrites()).isZero();
+  }
+
+  @Test
+  void resetCounts() {
+    final var sut = Colors.createColors(true).instrumented();
+    sut.green("x");
+    final var before = sut.snapshot();
+
+    sut.resetCounts();
+
+    softly.assertThat(before.get(Style.GREEN).calls()).isEqualTo(1);
+    softly.assertThat(sut.snapshot().get(Style.GREEN).calls()).isZero();
+    softly.assertThat(Colors.createColors(true)).isNotInstanceOf(InstrumentedColors.class);
+  }
+
+  @Test
+  void mbean() throws JMException {
+    final var sut = Colors.createColors(true).instrumented();
+    final var server = ManagementFactory.getPlatformMBeanServer();
+    final var name = sut.registerMBean(InstrumentedColorsTest.class.getName());
+
+    try {
+      sut.cyan("x");
+      sut.cyan(sut.cyan("y"));
+
+      softly.assertThat(server.getAttribute(name, "Calls")).isEqualTo(3L);
+      softly.assertThat(server.getAttribute(name, "BytesAdded")).isEqualTo(30L);
+      softly.assertThat(server.getAttribute(name, "Rewrites")).isEqualTo(1L);
+
+      server.invoke(name, "reset", null, null);
+      softly.assertThat(server.getAttribute(name, "Calls")).isEqualTo(0L);
+    } finally {
+      server.unregisterMBean(name);
+    }
+  }
+}
@@ -0,0 +1,106 @@
+package com.github.suzumiyaaoba.colors4j;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+import java.util.List;
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.InjectSoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/** Test class for 256-color and truecolor functionality. */
+@ExtendWith(SoftAssertionsExtension.class)
+public class PaletteTest {
+
+  @InjectSoftAssertions private SoftAssertions softly;
+
+  @ParameterizedTest
+  @MethodSource("provider_colors")
+  void extendedColors(CompiledStyle style, String expected) {
+    softly.assertThat(style.apply("x")).isEqualTo(expected);
+  }
+
+  static List<Arguments> provider_colors() {
+    final var sut = Colors.createColors(true);
+
+    return List.of(
+        arguments(sut.fg256(208), "\u001B[38;5;208mx\u001B[39m"),
+        arguments(sut.bg256(0), "\u001B[48;5;0mx\u001B[49m"),
+        arguments(sut.rgb(255, 136, 0), "\u001B[38;2;255;136;0mx\u001B[39m"),
+        arguments(sut.bgRgb(1, 2, 3), "\u001B[48;2;1;2;3mx\u001B[49m"),
+        arguments(sut.hex("#ff8800"), "\u001B[38;2;255;136;0mx\u001B[39m"),
+        arguments(sut.hex("f80"), "\u001B[38;2;255;136;0mx\u001B[39m"),
+        arguments(sut.bgHex("#0A0b0C"), "\u001B[48;2;10;11;12mx\u001B[49m"));
+  }
+
+  @Test
+  void nestedCloseIsReopened() {
+    final var sut = Colors.createColors(true);
+
+    softly
+        .assertThat(sut.fg256(208).apply(sut.red("x") + "y"))
+        .isEqualTo("\u001B[38;5;208m\u001B[31mx\u001B[38;5;208my\u001B[39m");
+    softly
+        .assertThat(sut.bgHex("#010203").apply(sut.bgRed("in")))
+        .isEqualTo("\u001B[48;2;1;2;3m\u001B[41min\u001B[48;2;1;2;3m\u001B[49m");
+  }
+
+  @Test
+  void stylesAreShared() {
+    final var sut = Colors.createColors(true);
+
+    softly.assertThat(sut.fg256(42)).isSameAs(sut.fg256(42));
+    softly.assertThat(sut.rgb(1, 2, 3)).isSameAs(sut.hex("#010203"));
+    softly.assertThat(sut.rgb(1, 2, 3)).isNotSameAs(sut.bgRgb(1, 2, 3));
+  }
+
+  @Test
+  void disabledColorsReturnIdentity() {
+    final var sut = Colors.createColors(false);
+
+    softly.assertThat(sut.fg256(208)).isSameAs(CompiledStyle.IDENTITY);
+    softly.assertThat(sut.rgb(1, 2, 3)).isSameAs(CompiledStyle.IDENTITY);
+    softly.assertThat(sut.bgHex("#fff").apply("x")).isEqualTo("x");
+  }
+
+  @ParameterizedTest
+  @ValueSource(
+      strings = {
+        "",
+        "#",
+        "#12",
+        "#1234",
+        "#12345g",
+        "##123456",
+        "#\uFF11\uFF12\uFF13\uFF14\uFF15\uFF16",
+        "\u0661\u0662\u0663",
+        "#12345\uFF41"
+      })
+  void malformedHex(String hex) {
+    final var sut = Colors.createColors(true);
+
+    assertThatThrownBy(() -> sut.hex(hex))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Malformed hex color: " + hex);
+  }
+
+  @Test
+  void outOfRange() {
+    final var sut = Colors.createColors(true);
+
+    softly
+        .assertThatThrownBy(() -> sut.fg256(256))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("index must be between 0 and 255: 256");
+    softly
+        .assertThatThrownBy(() -> sut.rgb(0, -1, 0))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("g must be between 0 and 255: -1");
+  }
+}
@@ -0,0 +1,93 @@
+package com.github.suzumiyaaoba.colors4j;
+
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+import java.util.List;
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.InjectSoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/** Test class for color quantization functionality. */
+@ExtendWith(SoftAssertionsExtension.class)
+public class QuantizerTest {
+
+  private static final double MAX_ERROR = 2 * Math.sqrt(48);
+
+  @InjectSoftAssertions private SoftAssertions softly;
+
+  @ParameterizedTest
+  @MethodSource("provider_quantized")
+  void quantize(int rgb, int expected256, int expected16) {
+    softly.assertThat(Quantizer.to256(rgb)).isEqualTo(expected256);
+    softly.assertThat(Quantizer.to16(rgb)).isEqualTo(expected16);
+  }
+
+  static List<Arguments> provider_quantized() {
+    return List.of(
+        arguments(0x000000, 16, 0),
+        arguments(0xffffff, 231, 15),
+        arguments(0xff0000, 196, 9),
+        arguments(0xc80000, 160, 1),
+        arguments(0x0000ff, 21, 4),
+        arguments(0xff8800, 208, 3),
+        arguments(0x767676, 243, 8));
+  }
+
+  @Test
+  void nearlyNearest() {
+    for (int rgb = 0; rgb < 1 << 24; rgb += 4099) {
+      final double error256 = error(rgb, Quantizer.to256(rgb), 16, 256);
+      final double error16 = error(rgb, Quantizer.to16(rgb), 0, 16);
+
+      softly.assertThat(error256).as("256 colors, %06x", rgb).isLessThanOrEqualTo(MAX_ERROR);
+      softly.assertThat(error16).as("16 colors, %06x", rgb).isLessThanOrEqualTo(MAX_ERROR);
+    }
+  }
+
+  @Test
+  void cubeColorsMapToThemselves() {
+    for (int index = 16; index < 232; index++) {
+      softly.assertThat(Quantizer.to256(Quantizer.rgb256(index))).isEqualTo(index);
+    }
+  }
+
+  @Test
+  void degradedColors() {
+    final var ansi256 = Colors.createColors(ColorDepth.ANSI_256);
+    final var ansi16 = Colors.createColors(ColorDepth.ANSI_16);
+
+    softly.assertThat(ansi256.hex("#ff8800").apply("x")).isEqualTo("\u001B[38;5;208mx\u001B[39m");
+    softly.assertThat(ansi256.bgRgb(0, 0, 0).apply("x")).isEqualTo("\u001B[48;5;16mx\u001B[49m");
+    softly.assertThat(ansi16.rgb(200, 0, 0)).isSameAs(ansi16.style(Style.RED));
+    softly.assertThat(ansi16.bgHex("#fff").apply("x")).isEqualTo("\u001B[107mx\u001B[49m");
+    softly.assertThat(ansi16.fg256(8)).isSameAs(ansi16.style(Style.GRAY));
+    softly.assertThat(ansi16.bg256(21)).isSameAs(ansi16.style(Style.BG_BLUE));
+  }
+
+  @Test
+  void sharedInstances() {
+    softly
+        .assertThat(Colors.createColors(ColorDepth.TRUECOLOR))
+        .isSameAs(Colors.createColors(true));
+    softly.assertThat(Colors.createColors(ColorDepth.NONE)).isSameAs(Colors.createColors(false));
+    softly
+        .assertThat(Colors.createColors(ColorDepth.ANSI_16).colorDepth())
+        .isEqualTo(ColorDepth.ANSI_16);
+    softly.assertThat(Colors.createColors(ColorDepth.NONE).isColorSupported()).isFalse();
+    softly.assertThat(Colors.createColors(ColorDepth.ANSI_256).isColorSupported()).isTrue();
+  }
+
+  /** Returns how much further the chosen color is than the nearest of the given range. */
+  private static double error(int rgb, int chosen, int from, int to) {
+    int nearest = Integer.MAX_VALUE;
+    for (int i = from; i < to; i++) {
+      nearest = Math.min(nearest, Quantizer.distance(rgb, Quantizer.rgb256(i)));
+    }
+    return Math.sqrt(Quantizer.distance(rgb, Quantizer.rgb256(chosen))) - Math.sqrt(nearest);
+  }
+}
@@ -0,0 +1,139 @@
+package com.github.suzumiyaaoba.colors4j;
+
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.InjectSoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/** Test class for SgrParser functionality. */
+@ExtendWith(SoftAssertionsExtension.class)
+public class SgrParserTest {
+
+  @InjectSoftAssertions private SoftAssertions softly;
+
+  @ParameterizedTest
+  @MethodSource("provider_styles")
+  void everyStyle(Style style, Predicate<SgrState> expected) {
+    final var spans = spans(Colors.createColors(true).apply(style, "x"));
+
+    softly.assertThat(spans).hasSize(1);
+    softly.assertThat(spans.get(0).text).isEqualTo("x");
+    softly.assertThat(spans.get(0).state).matches(expected, style.name());
+  }
+
+  static List<Arguments> provider_styles() {
+    return List.of(
+        arguments(Style.RESET, (Predicate<SgrState>) SgrState::isDefault),
+        arguments(Style.BOLD, (Predicate<SgrState>) SgrState::isBold),
+        arguments(Style.DIM, (Predicate<SgrState>) SgrState::isDim),
+        arguments(Style.ITALIC, (Predicate<SgrState>) SgrState::isItalic),
+        arguments(Style.UNDERLINE, (Predicate<SgrState>) SgrState::isUnderline),
+        arguments(Style.INVERSE, (Predicate<SgrState>) SgrState::isInverse),
+        arguments(Style.HIDDEN, (Predicate<SgrState>) SgrState::isHidden),
+        arguments(Style.STRIKETHROUGH, (Predicate<SgrState>) SgrState::isStrikethrough),
+        arguments(Style.BLACK, foreground(0)),
+        arguments(Style.WHITE, foreground(7)),
+        arguments(Style.GRAY, foreground(8)),
+        arguments(Style.BG_RED, background(1)),
+        arguments(Style.BG_WHITE, background(7)));
+  }
+
+  @Test
+  void nestedAndExtendedColors() {
+    final var sut = Colors.createColors(true);
+    final var input =
+        sut.bold("B" + sut.red("r") + sut.fg256(208).apply("o"))
+            + sut.bgRgb(1, 2, 3).apply("x")
+            + "\u001B[38:2::9:8:7my\u001B[0m.";
+
+    final var spans = spans(input);
+
+    softly
+        .assertThat(spans)
+        .extracting(span -> span.text)
+        .containsExactly("B", "r", "o", "x", "y", ".");
+    softly.assertThat(spans.get(0).state.isBold()).isTrue();
+    softly.assertThat(spans.get(1).state.foreground()).isEqualTo(1);
+    softly.assertThat(spans.get(1).state.isBold()).isTrue();
+    softly.assertThat(spans.get(2).state.foreground()).isEqualTo(208);
+    softly.assertThat(spans.get(3).state.isBold()).isFalse();
+    softly.assertThat(spans.get(3).state.background()).isEqualTo(SgrState.RGB_FLAG | 0x010203);
+    softly.assertThat(spans.get(4).state.foreground()).isEqualTo(SgrState.RGB_FLAG | 0x090807);
+    softly.assertThat(spans.get(5).state.isDefault()).isTrue();
+  }
+
+  @Test
+  void otherSequencesAreSkipped() {
+    final var spans = spans("a\u001B[2Kb\u001B]8;;https://example.com\u0007c\u001B(Bd");
+
+    softly.assertThat(spans).extracting(span -> span.text).containsExactly("a", "b", "c", "d");
+  }
+
+  @Test
+  void chunksGiveTheSameStates() {
+    final var sut = Colors.createColors(true);
+    final var input = sut.bold(sut.red("ab") + "c") + sut.rgb(10, 20, 30).apply("de") + "f";
+    final var expected = states(spans(input));
+
+    for (int split = 0; split <= input.length(); split++) {
+      final var spans = new ArrayList<Span>();
+      final var parser = new SgrParser(collect(spans));
+      parser.parse(input, 0, split);
+      parser.parse(input.toCharArray(), split, input.length() - split);
+      parser.finish();
+
+      softly.assertThat(states(spans)).as("split at %d", split).isEqualTo(expected);
+    }
+  }
+
+  private static Predicate<SgrState> foreground(int color) {
+    return state -> state.foreground() == color;
+  }
+
+  private static Predicate<SgrState> background(int color) {
+    return state -> state.background() == color;
+  }
+
+  private static List<Span> spans(String input) {
+    final var spans = new ArrayList<Span>();
+    SgrParser.parse(input, collect(spans));
+    return spans;
+  }
+
+  private static SgrParser.SpanHandler collect(List<Span> spans) {
+    return (text, start, end, state) ->
+        spans.add(new Span(text.subSequence(start, end).toString(), new SgrState(state)));
+  }
+
+  /** Returns the state of each character of the spans. */
+  private static List<SgrState> states(List<Span> spans) {
+    final var states = new ArrayList<SgrState>();
+    for (Span span : spans) {
+      for (int i = 0; i < span.text.length(); i++) {
+        states.add(span.state);
+      }
+    }
+    return states;
+  }
+
+  /** A span reported by the parser. */
+  private static final class Span {
+
+    private final String text;
+    private final SgrState state;
+
+    Span(String text, SgrState state) {
+      this.text = text;
+      this.state = state;
+    }
+  }
+}
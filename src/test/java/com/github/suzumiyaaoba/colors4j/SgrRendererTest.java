@@ -0,0 +1,78 @@
+package com.github.suzumiyaaoba.colors4j;
+
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.InjectSoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/** Test class for SgrRenderer functionality. */
+@ExtendWith(SoftAssertionsExtension.class)
+public class SgrRendererTest {
+
+  @InjectSoftAssertions private SoftAssertions softly;
+
+  @Test
+  void gradient() {
+    final var sut = Colors.createColors(true);
+
+    softly
+        .assertThat(sut.gradient("ab c", 0xff0000, 0x0000ff))
+        .isEqualTo(
+            "\u001B[38;2;255;0;0ma\u001B[38;2;170;0;85mb \u001B[38;2;0;0;255mc\u001B[0m");
+  }
+
+  @Test
+  void degradedGradientSharesSequences() {
+    final var sut = Colors.createColors(ColorDepth.ANSI_16);
+
+    softly
+        .assertThat(sut.gradient("abcdef", 0xff0000, 0x0000ff))
+        .isEqualTo("\u001B[91ma\u001B[31mbc\u001B[35md\u001B[34mef\u001B[0m");
+  }
+
+  @Test
+  void gradientKeepsText() {
+    final var text = "progress \uD83D\uDE00 0123456789";
+
+    softly
+        .assertThat(Ansi.strip(Colors.createColors(true).gradient(text, 0, 0xffffff)))
+        .isEqualTo(text);
+    softly.assertThat(Colors.createColors(false).gradient(text, 0, 0xffffff)).isEqualTo(text);
+  }
+
+  @Test
+  void onlyChangesAreWritten() {
+    final var renderer = Colors.createColors(true).renderer(new StringBuilder());
+
+    renderer.bold(true).dim(true).foreground256(1).append("x");
+    renderer.bold(false).append("y");
+    renderer.reset().italic(true).append("z");
+    renderer.reset().append("w");
+
+    softly
+        .assertThat(renderer.finish().toString())
+        .isEqualTo("\u001B[1;2;31mx\u001B[22;2my\u001B[0;3mz\u001B[0mw");
+  }
+
+  @Test
+  void resetWhenShorter() {
+    final var renderer = Colors.createColors(true).renderer(new StringBuilder());
+
+    renderer.bold(true).italic(true).underline(true).strikethrough(true).foreground256(200);
+    renderer.append('x').reset().foreground256(3).append('y').background256(9).append('z');
+
+    softly
+        .assertThat(renderer.finish().toString())
+        .isEqualTo("\u001B[1;3;4;9;38;5;200mx\u001B[0;33my\u001B[101mz\u001B[0m");
+  }
+
+  @Test
+  void disabledColorsWriteText() {
+    final var renderer = Colors.createColors(false).renderer(new StringBuilder());
+
+    renderer.foreground(0xff0000).bold(true).append("plain");
+
+    softly.assertThat(renderer.finish().toString()).isEqualTo("plain");
+  }
+}
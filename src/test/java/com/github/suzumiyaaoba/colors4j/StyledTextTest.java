@@ -0,0 +1,96 @@
+package com.github.suzumiyaaoba.colors4j;
+
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.InjectSoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/** Test class for StyledText functionality. */
+@ExtendWith(SoftAssertionsExtension.class)
+public class StyledTextTest {
+
+  @InjectSoftAssertions private SoftAssertions softly;
+
+  @ParameterizedTest
+  @MethodSource("provider_nesting")
+  void rendersLikeNestedCalls(boolean isColorSupported, StyledText lazy, String eager)
+      throws IOException {
+    softly.assertThat(lazy.toString()).isEqualTo(eager);
+    softly.assertThat(lazy.appendTo(new StringBuilder(">"))).hasToString(">" + eager);
+    softly.assertThat(lazy.appendTo(new StringWriter())).hasToString(eager);
+  }
+
+  static List<Arguments> provider_nesting() {
+    final var arguments = new ArrayList<Arguments>();
+    for (boolean isColorSupported : new boolean[] {true, false}) {
+      final var c = Colors.createColors(isColorSupported);
+      arguments.add(arguments(isColorSupported, c.styled(Style.RED, "x"), c.red("x")));
+      arguments.add(arguments(isColorSupported, c.styled(Style.RED), c.red("")));
+      arguments.add(
+          arguments(
+              isColorSupported,
+              c.styled(Style.RED, "a", c.styled(Style.BOLD, "b"), "c"),
+              c.red("a" + c.bold("b") + "c")));
+      arguments.add(
+          arguments(
+              isColorSupported,
+              c.styled(Style.RED, c.styled(Style.RED, "a"), c.styled(Style.GREEN, "b")),
+              c.red(c.red("a") + c.green("b"))));
+      arguments.add(
+          arguments(
+              isColorSupported,
+              c.styled(Style.BOLD, c.styled(Style.DIM, c.styled(Style.BOLD, "a"), "b"), "c"),
+              c.bold(c.dim(c.bold("a") + "b") + "c")));
+      arguments.add(
+          arguments(
+              isColorSupported,
+              c.styled(Style.RESET, c.styled(Style.RESET, "a"), "b"),
+              c.reset(c.reset("a") + "b")));
+      arguments.add(
+          arguments(
+              isColorSupported,
+              c.styled(Style.RED, "a\u001B[3", "9mb\u001B", "[39", "m"),
+              c.red("a\u001B[39mb\u001B[39m")));
+      arguments.add(
+          arguments(
+              isColorSupported,
+              c.styled(Style.RED, "a\u001B[3", "1mb\u001B"),
+              c.red("a\u001B[31mb\u001B")));
+    }
+    return arguments;
+  }
+
+  @Test
+  void partsAreReadWhenRendered() {
+    final var sut = Colors.createColors(true);
+    final var part = new StringBuilder("a");
+
+    final var text = sut.styled(Style.BOLD, part);
+    part.append('b');
+
+    softly.assertThat(text.toString()).isEqualTo(sut.bold("ab"));
+    softly.assertThat(text.toString()).isSameAs(text.toString());
+  }
+
+  @Test
+  void charSequence() {
+    final var sut = Colors.createColors(true);
+    final var text = sut.styled(Style.GREEN, "ok");
+    final var expected = sut.green("ok");
+
+    softly.assertThat(text.length()).isEqualTo(expected.length());
+    softly.assertThat(text.charAt(5)).isEqualTo('o');
+    softly.assertThat(text.subSequence(5, 7)).isEqualTo("ok");
+    softly.assertThat(sut.bold(text, new StringBuilder())).hasToString(sut.bold(expected));
+  }
+}
@@ -0,0 +1,112 @@
+package com.github.suzumiyaaoba.colors4j;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+import java.util.List;
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.InjectSoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/** Test class for Template functionality. */
+@ExtendWith(SoftAssertionsExtension.class)
+public class TemplateTest {
+
+  @InjectSoftAssertions private SoftAssertions softly;
+
+  @ParameterizedTest
+  @MethodSource("provider_args")
+  void sameAsNesting(String arg) {
+    final var sut = Colors.createColors(true);
+
+    softly
+        .assertThat(sut.template("<red>ERR</red> {}").render(arg))
+        .isEqualTo(sut.red("ERR") + " " + arg);
+    softly
+        .assertThat(sut.template("<bold>a<red>xx{}</red>b {} <dim>d</dim></bold>").render(arg, arg))
+        .isEqualTo(sut.bold("a" + sut.red("xx" + arg) + "b " + arg + " " + sut.dim("d")));
+    softly
+        .assertThat(sut.template("<dim>[<bold>xxxxx{}</bold>]</dim><bgRed>-</bgRed>").render(arg))
+        .isEqualTo(sut.dim("[" + sut.bold("xxxxx" + arg) + "]") + sut.bgRed("-"));
+  }
+
+  static List<Arguments> provider_args() {
+    final var sut = Colors.createColors(true);
+
+    return List.of(
+        arguments("plain"),
+        arguments(sut.red("r") + "!"),
+        arguments("ab\u001B[22mcd\u001B[39m"),
+        arguments(sut.bold("b") + sut.dim("d")));
+  }
+
+  @Test
+  void closeAtStartOfArgument() {
+    final var sut = Colors.createColors(true);
+
+    softly
+        .assertThat(sut.template("<red>{}</red>").render("\u001B[39mx"))
+        .isEqualTo("\u001B[31m\u001B[31mx\u001B[39m");
+  }
+
+  @Test
+  void renderIntoBuilder() {
+    final var sut = Colors.createColors(true);
+    final var out = new StringBuilder("> ");
+
+    softly
+        .assertThat(sut.template("<green>{}</green>={}").render(out, "k", 42))
+        .isSameAs(out)
+        .hasToString("> " + sut.green("k") + "=42");
+  }
+
+  @Test
+  void disabledColorsLeaveTagsOut() {
+    final var sut = Colors.createColors(false);
+
+    softly.assertThat(sut.template("<dim>[<bold>{}</bold>]</dim>").render("x")).isEqualTo("[x]");
+  }
+
+  @Test
+  void escapesAndMissingArguments() {
+    final var sut = Colors.createColors(true);
+    final var template = sut.template("a \\<b> \\{} {} {} <b");
+
+    softly.assertThat(template.placeholders()).isEqualTo(2);
+    softly.assertThat(template.render("x")).isEqualTo("a <b> {} x {} <b");
+    softly.assertThat(template.render("x", null, "extra")).isEqualTo("a <b> {} x null <b");
+  }
+
+  @Test
+  void compiledTemplatesAreCached() {
+    final var sut = Colors.createColors(true);
+
+    softly.assertThat(sut.template("<red>{}</red>")).isSameAs(sut.template("<red>{}</red>"));
+    softly
+        .assertThat(sut.template("<red>{}</red>"))
+        .isNotSameAs(Colors.createColors(false).template("<red>{}</red>"));
+  }
+
+  @ParameterizedTest
+  @MethodSource("provider_malformed")
+  void malformed(String markup, String message) {
+    final var sut = Colors.createColors(true);
+
+    assertThatThrownBy(() -> sut.template(markup))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage(message);
+  }
+
+  static List<Arguments> provider_malformed() {
+    return List.of(
+        arguments("<foo>x</foo>", "Unknown tag <foo> at index 0"),
+        arguments("<red>x</bold>", "Unexpected closing tag </bold> at index 6"),
+        arguments("x</red>", "Unexpected closing tag </red> at index 1"),
+        arguments("<bgRed>x", "Unclosed tag <bgRed>"));
+  }
+}
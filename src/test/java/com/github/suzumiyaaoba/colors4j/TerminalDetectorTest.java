@@ -0,0 +1,186 @@
+package com.github.suzumiyaaoba.colors4j;
+
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.InjectSoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/** Test class for TerminalDetector functionality. */
+@ExtendWith(SoftAssertionsExtension.class)
+public class TerminalDetectorTest {
+
+  @InjectSoftAssertions private SoftAssertions softly;
+
+  @TempDir Path directory;
+
+  @ParameterizedTest
+  @MethodSource("provider_environments")
+  void detectsFromEnvironment(Map<String, String> env, boolean console, ColorDepth expected) {
+    softly.assertThat(TerminalDetector.detect(env, console, List.of())).isEqualTo(expected);
+  }
+
+  static Stream<Arguments> provider_environments() {
+    return Stream.of(
+        arguments(Map.of("TERM", "xterm-256color", "NO_COLOR", "1"), true, ColorDepth.NONE),
+        arguments(Map.of("TERM", "xterm-256color", "NO_COLOR", ""), true, ColorDepth.ANSI_256),
+        arguments(Map.of("TERM", "xterm-256color", "FORCE_COLOR", "0"), true, ColorDepth.NONE),
+        arguments(Map.of("FORCE_COLOR", "false"), true, ColorDepth.NONE),
+        arguments(Map.of("FORCE_COLOR", "1"), false, ColorDepth.ANSI_16),
+        arguments(Map.of("FORCE_COLOR", ""), false, ColorDepth.ANSI_16),
+        arguments(Map.of("FORCE_COLOR", "2"), false, ColorDepth.ANSI_256),
+        arguments(Map.of("FORCE_COLOR", "3"), false, ColorDepth.TRUECOLOR),
+        arguments(
+            Map.of("TERM", "xterm-256color", "FORCE_COLOR", "1"), false, ColorDepth.ANSI_256),
+        arguments(Map.of("TERM", "xterm-256color"), false, ColorDepth.NONE),
+        arguments(Map.of("TERM", "dumb"), true, ColorDepth.NONE),
+        arguments(Map.of("TERM", "dumb", "COLORTERM", "truecolor"), true, ColorDepth.NONE),
+        arguments(Map.of(), true, ColorDepth.NONE),
+        arguments(Map.of("TERM", "xterm", "COLORTERM", "truecolor"), true, ColorDepth.TRUECOLOR),
+        arguments(Map.of("TERM", "xterm", "COLORTERM", "24bit"), true, ColorDepth.TRUECOLOR),
+        arguments(Map.of("WT_SESSION", "id"), true, ColorDepth.TRUECOLOR),
+        arguments(Map.of("TERM", "xterm-direct"), true, ColorDepth.TRUECOLOR),
+        arguments(Map.of("TERM", "screen-256color"), true, ColorDepth.ANSI_256),
+        arguments(Map.of("TERM", "unknown"), true, ColorDepth.ANSI_16));
+  }
+
+  @ParameterizedTest
+  @MethodSource("provider_terminfoColors")
+  void detectsFromTerminfo(String subdirectory, int colors, ColorDepth expected)
+      throws IOException {
+    final var file = directory.resolve(subdirectory).resolve("fancy");
+    Files.createDirectories(file.getParent());
+    Files.write(file, entry("fancy|a fancy terminal", colors));
+
+    final var sut =
+        TerminalDetector.detect(Map.of("TERM", "fancy"), true, List.of(Path.of("none"), directory));
+
+    softly.assertThat(sut).isEqualTo(expected);
+  }
+
+  static Stream<Arguments> provider_terminfoColors() {
+    return Stream.of(
+        arguments("f", 8, ColorDepth.ANSI_16),
+        arguments("f", 256, ColorDepth.ANSI_256),
+        arguments("66", 256, ColorDepth.ANSI_256),
+        arguments("f", 0, ColorDepth.NONE),
+        arguments("f", 2, ColorDepth.NONE),
+        arguments("f", -1, ColorDepth.NONE),
+        arguments("f", -2, ColorDepth.NONE));
+  }
+
+  @Test
+  void missingTerminfoEntriesGet16Colors() throws IOException {
+    final var file = directory.resolve("f").resolve("fancy");
+    Files.createDirectories(file.getParent());
+    Files.write(file, new byte[] {1, 2, 3});
+
+    softly
+        .assertThat(TerminalDetector.detect(Map.of("TERM", "fancy"), true, List.of(directory)))
+        .isEqualTo(ColorDepth.ANSI_16);
+    softly
+        .assertThat(TerminalDetector.detect(Map.of("TERM", "other"), true, List.of(directory)))
+        .isEqualTo(ColorDepth.ANSI_16);
+  }
+
+  @Test
+  void readsColorsOfEntries() {
+    softly.assertThat(TerminalDetector.maxColors(entry("xterm", 8))).isEqualTo(8);
+    softly.assertThat(TerminalDetector.maxColors(entry("xterm-88color", 88))).isEqualTo(88);
+    softly.assertThat(TerminalDetector.maxColors(entry("vt100", -1))).isEqualTo(0);
+    softly.assertThat(TerminalDetector.maxColors(entry("vt100", -2))).isEqualTo(0);
+    softly.assertThat(TerminalDetector.maxColors(new byte[0])).isEqualTo(-1);
+    softly.assertThat(TerminalDetector.maxColors(new byte[64])).isEqualTo(-1);
+
+    final var truncated = entry("xterm", 256);
+    softly.assertThat(TerminalDetector.maxColors(Arrays.copyOf(truncated, 20))).isEqualTo(-1);
+  }
+
+  @Test
+  void listsTerminfoDirectories() {
+    final var sut =
+        TerminalDetector.terminfoDirectories(
+            Map.of("TERMINFO", "/a", "HOME", "/home/user", "TERMINFO_DIRS", "/b::/c"));
+
+    softly
+        .assertThat(sut)
+        .startsWith(Path.of("/a"), Path.of("/home/user/.terminfo"), Path.of("/b"), Path.of("/c"))
+        .contains(Path.of("/usr/share/terminfo"));
+  }
+
+  @Test
+  void consoleIsTerminalWhenItSaysSo() throws NoSuchMethodException {
+    final var isTerminal = FakeConsole.class.getMethod("isTerminal");
+
+    softly.assertThat(TerminalDetector.isTerminal(null, isTerminal)).isFalse();
+    softly.assertThat(TerminalDetector.isTerminal(null, null)).isFalse();
+    softly.assertThat(TerminalDetector.isTerminal(new FakeConsole(true), isTerminal)).isTrue();
+    softly.assertThat(TerminalDetector.isTerminal(new FakeConsole(false), isTerminal)).isFalse();
+    softly.assertThat(TerminalDetector.isTerminal(new FakeConsole(false), null)).isTrue();
+  }
+
+  @Test
+  void findsIsTerminalFromJava22() {
+    softly
+        .assertThat(TerminalDetector.isTerminalMethod() != null)
+        .isEqualTo(Runtime.version().feature() >= 22);
+  }
+
+  @Test
+  void detectReturnsSharedInstance() {
+    softly.assertThat(Colors.detect()).isSameAs(Colors.detect());
+  }
+
+  /** A console telling whether it is a terminal, as {@code Console.isTerminal()} does. */
+  static final class FakeConsole {
+
+    private final boolean terminal;
+
+    FakeConsole(boolean terminal) {
+      this.terminal = terminal;
+    }
+
+    public boolean isTerminal() {
+      return terminal;
+    }
+  }
+
+  /** Builds a terminfo entry with 16-bit numbers whose colors capability is the given one. */
+  private static byte[] entry(String names, int colors) {
+    final var name = (names + "\0").getBytes(StandardCharsets.US_ASCII);
+    final var booleans = 3;
+    final var numbers = 15;
+    final var pad = (name.length + booleans) % 2;
+    final var buffer =
+        ByteBuffer.allocate(12 + name.length + booleans + pad + numbers * 2)
+            .order(ByteOrder.LITTLE_ENDIAN);
+    buffer.putShort((short) 0432);
+    buffer.putShort((short) name.length);
+    buffer.putShort((short) booleans);
+    buffer.putShort((short) numbers);
+    buffer.putShort((short) 0);
+    buffer.putShort((short) 0);
+    buffer.put(name);
+    buffer.put(new byte[booleans + pad]);
+    for (int i = 0; i < numbers; i++) {
+      buffer.putShort((short) (i == 13 ? colors : -1));
+    }
+    return buffer.array();
+  }
+}
@@ -0,0 +1,131 @@
+package com.github.suzumiyaaoba.colors4j;
+
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.InjectSoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/** Test class for Theme functionality. */
+@ExtendWith(SoftAssertionsExtension.class)
+public class ThemeTest {
+
+  @InjectSoftAssertions private SoftAssertions softly;
+
+  @TempDir Path directory;
+
+  private final Colors colors = Colors.createColors(true);
+
+  @ParameterizedTest
+  @MethodSource("provider_definitions")
+  void compilesDefinitions(String definition, CompiledStyle expected) {
+    final var sut = colors.theme(Map.of("name", definition));
+
+    softly.assertThat(sut.apply(sut.id("name"), "text")).isEqualTo(expected.apply("text"));
+    softly.assertThat(sut.style("name").apply("text")).isEqualTo(expected.apply("text"));
+  }
+
+  static Stream<Arguments> provider_definitions() {
+    final var colors = Colors.createColors(true);
+    return Stream.of(
+        arguments("red", colors.style(Style.RED)),
+        arguments("bold red", colors.style(Style.BOLD, Style.RED)),
+        arguments(" underline,cyan ", colors.style(Style.UNDERLINE, Style.CYAN)),
+        arguments("bgRed, white", colors.style(Style.BG_RED, Style.WHITE)),
+        arguments("", CompiledStyle.IDENTITY));
+  }
+
+  @Test
+  void rejectsUnknownStyles() {
+    softly
+        .assertThatThrownBy(() -> colors.theme(Map.of("error", "bold purple")))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Unknown style purple for error");
+  }
+
+  @Test
+  void undefinedNamesLeaveTextUnchanged() {
+    final var sut = colors.theme(Map.of("error", "red"));
+    final var id = sut.id("duration");
+
+    softly.assertThat(sut.id("duration")).isEqualTo(id);
+    softly.assertThat(sut.apply(id, "1s")).isEqualTo("1s");
+    softly
+        .assertThatThrownBy(() -> sut.style(id + 1))
+        .isInstanceOf(IndexOutOfBoundsException.class);
+  }
+
+  @Test
+  void disabledColorsLeaveTextUnchanged() {
+    final var sut = Colors.createColors(false).theme(Map.of("error", "bold red"));
+
+    softly.assertThat(sut.style("error").apply("boom")).isEqualTo("boom");
+  }
+
+  @Test
+  void reloadKeepsIds() throws IOException {
+    final var file = directory.resolve("colors.properties");
+    Files.writeString(file, "error = bold red\nwarn = yellow\n");
+    final var sut = colors.theme(file);
+    final var error = sut.id("error");
+    final var warn = sut.id("warn");
+    final var path = sut.id("path");
+
+    Files.writeString(file, "error = green\npath = underline\n");
+    sut.reload();
+
+    softly.assertThat(sut.id("error")).isEqualTo(error);
+    softly.assertThat(sut.apply(error, "x")).isEqualTo(colors.green("x"));
+    softly.assertThat(sut.apply(warn, "x")).isEqualTo("x");
+    softly.assertThat(sut.apply(path, "x")).isEqualTo(colors.underline("x"));
+  }
+
+  @Test
+  void failedReloadKeepsStyles() throws IOException {
+    final var file = directory.resolve("colors.properties");
+    Files.writeString(file, "error = red\n");
+    final var sut = colors.theme(file);
+
+    Files.writeString(file, "error = purple\n");
+
+    softly.assertThatThrownBy(sut::reload).isInstanceOf(IllegalArgumentException.class);
+    softly.assertThat(sut.style("error").apply("x")).isEqualTo(colors.red("x"));
+  }
+
+  @Test
+  void reloadNeedsFile() {
+    final var sut = colors.theme(Map.of());
+
+    softly.assertThatThrownBy(sut::reload).isInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  void watchedThemeReloadsChanges() throws Exception {
+    final var file = directory.resolve("colors.properties");
+    Files.writeString(file, "error = red\n");
+
+    try (var sut = colors.watchTheme(file)) {
+      final var error = sut.id("error");
+      Files.writeString(file, "error = blue\n");
+
+      final var deadline = System.nanoTime() + 30_000_000_000L;
+      while (!sut.apply(error, "x").equals(colors.blue("x")) && System.nanoTime() < deadline) {
+        Thread.sleep(10);
+      }
+
+      softly.assertThat(sut.apply(error, "x")).isEqualTo(colors.blue("x"));
+      softly.assertThat(sut.reloadFailure()).isNull();
+    }
+  }
+}